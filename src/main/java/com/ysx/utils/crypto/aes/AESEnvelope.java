@@ -0,0 +1,205 @@
+package com.ysx.utils.crypto.aes;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 16:30
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description AES/GCM 密文的二进制信封格式
+ * 格式为：版本号(1) + 密钥id(varint，1~5 字节) + iv(12) + 密文数据（包括 16 字节的认证标签）
+ * 与 AESPractise 的字符串格式 "算法id#密钥id#hex(iv)#hex(密文)" 相比，不需要十六进制编码，长度约为一半，
+ * 解析时只读取头部，iv 和密文都是原缓冲区的视图，不复制数据。文本形式为 URL 安全、无填充的 Base64
+ */
+public final class AESEnvelope {
+
+    /**
+     * 版本号 1：AES/GCM/NoPadding，12 字节 iv，128bit 认证标签
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * iv 字节长度
+     */
+    public static final int IV_BYTE_LENGTH = 12;
+
+    /**
+     * varint 编码的 int 最多 5 个字节
+     */
+    private static final int MAX_VARINT_LENGTH = 5;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int keyId;
+
+    private final ByteBuffer iv;
+
+    private final ByteBuffer cipherData;
+
+    private AESEnvelope(int keyId, ByteBuffer iv, ByteBuffer cipherData) {
+        this.keyId = keyId;
+        this.iv = iv;
+        this.cipherData = cipherData;
+    }
+
+    /**
+     * 解析信封，读取 buffer 中剩余的全部数据，buffer 的 position 移动到末尾
+     *
+     * @param buffer 信封
+     * @return 信封，iv 和密文数据是 buffer 的视图
+     * @throws AESException 格式不正确
+     */
+    public static AESEnvelope parse(ByteBuffer buffer) throws AESException {
+        if (!buffer.hasRemaining()) {
+            throw new AESException("invalid envelope: empty");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new AESException("invalid envelope: unsupported version " + version);
+        }
+        int keyId = readVarint(buffer);
+        if (buffer.remaining() < IV_BYTE_LENGTH + AesGcmContext.TAG_BYTE_LENGTH) {
+            throw new AESException("invalid envelope: truncated");
+        }
+        ByteBuffer iv = buffer.slice(buffer.position(), IV_BYTE_LENGTH);
+        ByteBuffer cipherData = buffer.slice(buffer.position() + IV_BYTE_LENGTH, buffer.remaining() - IV_BYTE_LENGTH);
+        buffer.position(buffer.limit());
+        return new AESEnvelope(keyId, iv, cipherData);
+    }
+
+    /**
+     * 解析信封
+     *
+     * @param envelope 信封
+     * @return 信封，iv 和密文数据是 envelope 的视图
+     * @throws AESException 格式不正确
+     */
+    public static AESEnvelope parse(byte[] envelope) throws AESException {
+        return parse(ByteBuffer.wrap(envelope));
+    }
+
+    /**
+     * 解析信封的文本形式
+     *
+     * @param text URL 安全的 Base64
+     * @return 信封
+     * @throws AESException 格式不正确
+     */
+    public static AESEnvelope parse(String text) throws AESException {
+        try {
+            return parse(DECODER.decode(text));
+        } catch (IllegalArgumentException e) {
+            throw new AESException(e);
+        }
+    }
+
+    /**
+     * 信封的文本形式
+     *
+     * @param envelope 信封
+     * @return URL 安全、无填充的 Base64
+     */
+    public static String toText(byte[] envelope) {
+        return ENCODER.encodeToString(envelope);
+    }
+
+    /**
+     * 头部（版本号 + 密钥id + iv）的长度，密文数据从这个位置开始
+     *
+     * @param keyId 密钥id
+     * @return 字节数
+     */
+    public static int getHeaderLength(int keyId) {
+        checkKeyId(keyId);
+        int length = 1;
+        while ((keyId & ~0x7F) != 0) {
+            keyId >>>= 7;
+            length++;
+        }
+        return 1 + length + IV_BYTE_LENGTH;
+    }
+
+    /**
+     * 写入头部，之后由调用者在 out 的当前位置写入密文数据
+     *
+     * @param keyId 密钥id
+     * @param iv    iv值，长度为 IV_BYTE_LENGTH
+     * @param out   输出，position 向后移动头部的长度
+     */
+    public static void writeHeader(int keyId, byte[] iv, ByteBuffer out) {
+        checkKeyId(keyId);
+        if (iv.length != IV_BYTE_LENGTH) {
+            throw new IllegalArgumentException("Invalid iv length: " + iv.length);
+        }
+        out.put(VERSION);
+        while ((keyId & ~0x7F) != 0) {
+            out.put((byte) ((keyId & 0x7F) | 0x80));
+            keyId >>>= 7;
+        }
+        out.put((byte) keyId);
+        out.put(iv);
+    }
+
+    public int getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * iv 值
+     *
+     * @return 只读视图
+     */
+    public ByteBuffer getIv() {
+        return iv.asReadOnlyBuffer();
+    }
+
+    /**
+     * 复制 iv 值
+     *
+     * @param dst 长度至少为 IV_BYTE_LENGTH
+     * @return dst
+     */
+    public byte[] getIv(byte[] dst) {
+        iv.get(0, dst, 0, IV_BYTE_LENGTH);
+        return dst;
+    }
+
+    /**
+     * 密文数据，包括末尾的认证标签
+     *
+     * @return 视图，position 和 limit 的修改不影响信封
+     */
+    public ByteBuffer getCipherData() {
+        return cipherData.duplicate();
+    }
+
+    private static int readVarint(ByteBuffer buffer) throws AESException {
+        int value = 0;
+        for (int i = 0; i < MAX_VARINT_LENGTH; i++) {
+            if (!buffer.hasRemaining()) {
+                throw new AESException("invalid envelope: truncated");
+            }
+            byte b = buffer.get();
+            if (i == MAX_VARINT_LENGTH - 1 && (b & 0xF8) != 0) {
+                // 超出 int 的非负范围
+                break;
+            }
+            value |= (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new AESException("invalid envelope: bad key id");
+    }
+
+    private static void checkKeyId(int keyId) {
+        if (keyId < 0) {
+            throw new IllegalArgumentException("keyId must not be negative: " + keyId);
+        }
+    }
+}
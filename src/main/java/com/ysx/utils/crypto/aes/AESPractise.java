@@ -5,6 +5,7 @@ import org.bouncycastle.util.encoders.Hex;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -48,11 +49,21 @@ public class AESPractise {
      */
     private final static Map<String, String> secretKeyMap = new HashMap<>();
 
+    /**
+     * 二进制信封格式使用的加解密上下文，key 为数字形式的密钥id（"001" 即 1），缓存密钥扩展的结果
+     */
+    private final static Map<Integer, AesGcmContext> envelopeContextMap = new HashMap<>();
+
     static {
         // 本示例仅使用2个密钥，实际中随时间变化，会要求产品使用者更新密钥
         // 本示例使用明文存储，实际中需要考虑密文存储，并实现缓存机制
         secretKeyMap.put("001", "7c89f3a887a60e3dba9a3116a3a6da7dbc6f67bc951cd4aebc18df7370a39d5d");
         secretKeyMap.put("002", "a8b2f3690465d450865d20a2e0db6370661e8e4960da92630d4b30c4d4d153a5");
+        for (Map.Entry<String, String> entry : secretKeyMap.entrySet()) {
+            byte[] secretKey = Hex.decode(entry.getValue());
+            envelopeContextMap.put(Integer.parseInt(entry.getKey()), new AesGcmContext(secretKey));
+            Arrays.fill(secretKey, (byte) 0);
+        }
     }
 
     /**
@@ -153,6 +164,99 @@ public class AESPractise {
         return plainData;
     }
 
+    /**
+     * 加密为二进制信封：版本号 + 密钥id(varint) + iv(12字节) + 密文数据，见 AESEnvelope
+     * 与 encrypt 的字符串格式相比不需要十六进制编码，长度约为一半
+     *
+     * @param plainData 明文
+     * @return 信封
+     * @throws AESException 异常
+     */
+    public byte[] encryptToEnvelope(byte[] plainData) throws AESException {
+        int keyId = getEnvelopeKeyId(currentSecretKeyId);
+        AesGcmContext context = getEnvelopeContext(keyId);
+        byte[] iv = random(AESEnvelope.IV_BYTE_LENGTH);
+        int headerLength = AESEnvelope.getHeaderLength(keyId);
+        byte[] envelope = new byte[headerLength + AesGcmContext.getCipherLength(plainData.length)];
+        AESEnvelope.writeHeader(keyId, iv, ByteBuffer.wrap(envelope));
+        // 密文直接写入信封中头部之后的位置
+        context.encrypt(iv, plainData, 0, plainData.length, envelope, headerLength);
+        Arrays.fill(iv, (byte) 0);
+        return envelope;
+    }
+
+    /**
+     * 加密为二进制信封的文本形式（URL 安全、无填充的 Base64）
+     *
+     * @param plainData 明文
+     * @return 信封的文本形式
+     * @throws AESException 异常
+     */
+    public String encryptToEnvelopeString(byte[] plainData) throws AESException {
+        return AESEnvelope.toText(encryptToEnvelope(plainData));
+    }
+
+    /**
+     * 解密二进制信封，直接读取 buffer 中的 iv 和密文数据，不复制
+     *
+     * @param envelope 信封，读取剩余的全部数据，position 移动到末尾
+     * @return 明文字节数组
+     * @throws AESException 异常，包括格式不正确、密钥id不存在和认证失败
+     */
+    public byte[] decryptEnvelope(ByteBuffer envelope) throws AESException {
+        return decryptEnvelope(AESEnvelope.parse(envelope));
+    }
+
+    /**
+     * 解密二进制信封
+     *
+     * @param envelope 信封
+     * @return 明文字节数组
+     * @throws AESException 异常，包括格式不正确、密钥id不存在和认证失败
+     */
+    public byte[] decryptEnvelope(byte[] envelope) throws AESException {
+        return decryptEnvelope(ByteBuffer.wrap(envelope));
+    }
+
+    /**
+     * 解密二进制信封的文本形式
+     *
+     * @param envelopeString 信封的文本形式（URL 安全的 Base64）
+     * @return 明文字节数组
+     * @throws AESException 异常，包括格式不正确、密钥id不存在和认证失败
+     */
+    public byte[] decryptEnvelopeString(String envelopeString) throws AESException {
+        return decryptEnvelope(AESEnvelope.parse(envelopeString));
+    }
+
+    private static byte[] decryptEnvelope(AESEnvelope parsed) throws AESException {
+        AesGcmContext context = getEnvelopeContext(parsed.getKeyId());
+        ByteBuffer cipherData = parsed.getCipherData();
+        byte[] plainData = new byte[cipherData.remaining() - AesGcmContext.TAG_BYTE_LENGTH];
+        byte[] iv = parsed.getIv(new byte[AESEnvelope.IV_BYTE_LENGTH]);
+        context.decrypt(iv, cipherData, ByteBuffer.wrap(plainData));
+        return plainData;
+    }
+
+    /**
+     * 信封中的密钥id为数字，"001" 记为 1
+     */
+    private static int getEnvelopeKeyId(String secretKeyId) throws AESException {
+        try {
+            return Integer.parseInt(secretKeyId);
+        } catch (NumberFormatException e) {
+            throw new AESException("invalid secret key id: " + secretKeyId, e);
+        }
+    }
+
+    private static AesGcmContext getEnvelopeContext(int keyId) throws AESException {
+        AesGcmContext context = envelopeContextMap.get(keyId);
+        if (context == null) {
+            throw new AESException("unknown secret key id: " + keyId);
+        }
+        return context;
+    }
+
     /**
      * 随机函数：生成 8*length bit的随机数据
      *
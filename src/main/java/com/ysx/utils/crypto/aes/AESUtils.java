@@ -6,8 +6,10 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.Key;
@@ -99,4 +101,61 @@ public class AESUtils {
         cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, parameterSpec);
         return cipher.doFinal(cipherData);
     }
+
+    /**
+     * 加密 input 中剩余的全部数据，写入 output，支持直接内存（direct）缓冲区，不分配新的数组
+     * 需要为大量消息重复加密时，使用 AesGcmContext 的同名方法可以省去每次创建 Cipher 的开销
+     *
+     * @param secretKey 密钥
+     * @param iv        iv值
+     * @param input     明文，position 移动到 limit
+     * @param output    密文，剩余空间至少为明文长度 + 16 字节
+     * @return 写入 output 的密文长度
+     * @throws NoSuchPaddingException             异常
+     * @throws NoSuchAlgorithmException           异常
+     * @throws NoSuchProviderException            异常
+     * @throws InvalidAlgorithmParameterException 异常
+     * @throws InvalidKeyException                异常
+     * @throws ShortBufferException               output 的剩余空间不足
+     * @throws IllegalBlockSizeException          异常
+     * @throws BadPaddingException                异常
+     */
+    public static int encrypt(byte[] secretKey, byte[] iv, ByteBuffer input, ByteBuffer output)
+            throws NoSuchPaddingException, NoSuchAlgorithmException, NoSuchProviderException,
+            InvalidAlgorithmParameterException, InvalidKeyException, ShortBufferException,
+            IllegalBlockSizeException, BadPaddingException {
+        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM, BouncyCastleProvider.PROVIDER_NAME);
+        AlgorithmParameterSpec parameterSpec = new GCMParameterSpec(GCM_AUTH_TAG_LENGTH, iv);
+        Key secretKeySpec = new SecretKeySpec(secretKey, AES_ALGORITHM_NAME);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, parameterSpec);
+        return cipher.doFinal(input, output);
+    }
+
+    /**
+     * 解密 input 中剩余的全部数据，写入 output，支持直接内存（direct）缓冲区，不分配新的数组
+     *
+     * @param secretKey 密钥
+     * @param iv        iv值
+     * @param input     密文，position 移动到 limit
+     * @param output    明文，剩余空间至少为密文长度 - 16 字节
+     * @return 写入 output 的明文长度
+     * @throws NoSuchPaddingException             异常
+     * @throws NoSuchAlgorithmException           异常
+     * @throws NoSuchProviderException            异常
+     * @throws InvalidAlgorithmParameterException 异常
+     * @throws InvalidKeyException                异常
+     * @throws ShortBufferException               output 的剩余空间不足
+     * @throws IllegalBlockSizeException          异常
+     * @throws BadPaddingException                异常
+     */
+    public static int decrypt(byte[] secretKey, byte[] iv, ByteBuffer input, ByteBuffer output)
+            throws NoSuchPaddingException, NoSuchAlgorithmException, NoSuchProviderException,
+            InvalidAlgorithmParameterException, InvalidKeyException, ShortBufferException,
+            IllegalBlockSizeException, BadPaddingException {
+        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM, BouncyCastleProvider.PROVIDER_NAME);
+        AlgorithmParameterSpec parameterSpec = new GCMParameterSpec(GCM_AUTH_TAG_LENGTH, iv);
+        Key secretKeySpec = new SecretKeySpec(secretKey, AES_ALGORITHM_NAME);
+        cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, parameterSpec);
+        return cipher.doFinal(input, output);
+    }
 }
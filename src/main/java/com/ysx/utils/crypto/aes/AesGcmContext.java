@@ -0,0 +1,306 @@
+package com.ysx.utils.crypto.aes;
+
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 10:30
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 绑定一个密钥、可以重复使用的 AES/GCM/NoPadding 加解密上下文
+ * 与 AESUtils 的算法和参数相同（128bit 认证标签），密文可以互相解密。
+ * AESUtils 每次调用都要查找 Provider、创建 Cipher 并重新扩展密钥；这里直接使用 BouncyCastle 的轻量级 API，
+ * 每个线程持有一个已经初始化过密钥的 GCM 实例，之后每条消息只使用新的 iv 重新初始化（密钥参数传入 null，复用密钥扩展和 GHASH 表）。
+ * 除了返回新数组的方法，还可以加密、解密到调用者提供的数组或者 ByteBuffer（包括直接内存）中，配合缓冲池使用时不再为每条消息分配输出数组。
+ * 线程安全，应当长期持有，每个密钥一个实例
+ */
+public class AesGcmContext {
+
+    /**
+     * GCM 消息认证码长度(bit) 128bit
+     */
+    static final int GCM_AUTH_TAG_LENGTH = 8 * 16;
+
+    /**
+     * GCM 消息认证码长度(byte)
+     */
+    public static final int TAG_BYTE_LENGTH = GCM_AUTH_TAG_LENGTH / 8;
+
+    /**
+     * 处理直接内存缓冲区时，每次复制到数组中的字节数
+     */
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final KeyParameter key;
+
+    /**
+     * 每个线程的 GCM 实例
+     */
+    private final ThreadLocal<ThreadCipher> ciphers = ThreadLocal.withInitial(ThreadCipher::new);
+
+    /**
+     * 构造函数
+     *
+     * @param secretKey 密钥，长度为 16、24 或 32 字节，构造时复制，之后修改传入的数组不影响本实例
+     */
+    public AesGcmContext(byte[] secretKey) {
+        if (secretKey == null || (secretKey.length != 16 && secretKey.length != 24 && secretKey.length != 32)) {
+            throw new IllegalArgumentException("Invalid AES key length: "
+                    + (secretKey == null ? null : secretKey.length));
+        }
+        this.key = new KeyParameter(secretKey);
+    }
+
+    /**
+     * 加密
+     *
+     * @param iv        iv值，同一个密钥下不能重复
+     * @param plainData 待加密的明文数据
+     * @return 密文，末尾为 16 字节的认证标签
+     * @throws AESException 异常
+     */
+    public byte[] encrypt(byte[] iv, byte[] plainData) throws AESException {
+        byte[] cipherData = new byte[plainData.length + TAG_BYTE_LENGTH];
+        encrypt(iv, plainData, 0, plainData.length, cipherData, 0);
+        return cipherData;
+    }
+
+    /**
+     * 解密
+     *
+     * @param iv         iv值
+     * @param cipherData 待解密的密文数据
+     * @return 明文
+     * @throws AESException 异常，包括认证标签校验失败（密文被篡改，或者密钥、iv 不正确）
+     */
+    public byte[] decrypt(byte[] iv, byte[] cipherData) throws AESException {
+        byte[] plainData = new byte[getPlainLength(cipherData.length)];
+        decrypt(iv, cipherData, 0, cipherData.length, plainData, 0);
+        return plainData;
+    }
+
+    /**
+     * 加密到调用者提供的数组中，不分配新的数组
+     * in 与 out 可以是同一个数组并且 inOffset == outOffset（原地加密），此时密文比明文多出的认证标签写在明文之后
+     *
+     * @param iv        iv值，同一个密钥下不能重复
+     * @param in        明文所在的数组
+     * @param inOffset  明文起始位置
+     * @param inLength  明文长度
+     * @param out       密文写入的数组，剩余空间至少为 inLength + TAG_BYTE_LENGTH
+     * @param outOffset 密文写入的起始位置
+     * @return 写入的密文长度，即 inLength + TAG_BYTE_LENGTH
+     * @throws AESException 异常，包括 out 的空间不足
+     */
+    public int encrypt(byte[] iv, byte[] in, int inOffset, int inLength, byte[] out, int outOffset)
+            throws AESException {
+        checkBounds(in, inOffset, inLength, out, outOffset, inLength + TAG_BYTE_LENGTH);
+        return process(init(true, iv), in, inOffset, inLength, out, outOffset);
+    }
+
+    /**
+     * 解密到调用者提供的数组中，不分配新的数组，in 与 out 可以是同一个数组并且 inOffset == outOffset（原地解密）
+     * 认证标签校验失败时，out 中已经写入的数据会被清零，不会留下未经认证的明文
+     *
+     * @param iv        iv值
+     * @param in        密文所在的数组
+     * @param inOffset  密文起始位置
+     * @param inLength  密文长度，包括末尾的认证标签
+     * @param out       明文写入的数组，剩余空间至少为 inLength - TAG_BYTE_LENGTH
+     * @param outOffset 明文写入的起始位置
+     * @return 写入的明文长度，即 inLength - TAG_BYTE_LENGTH
+     * @throws AESException 异常，包括认证标签校验失败、out 的空间不足
+     */
+    public int decrypt(byte[] iv, byte[] in, int inOffset, int inLength, byte[] out, int outOffset)
+            throws AESException {
+        int plainLength = getPlainLength(inLength);
+        checkBounds(in, inOffset, inLength, out, outOffset, plainLength);
+        try {
+            return process(init(false, iv), in, inOffset, inLength, out, outOffset);
+        } catch (AESException e) {
+            Arrays.fill(out, outOffset, outOffset + plainLength, (byte) 0);
+            throw e;
+        }
+    }
+
+    /**
+     * 加密 in 中剩余的全部数据，写入 out，两者的 position 都向后移动，支持直接内存（direct）缓冲区
+     * 堆内存缓冲区直接使用其底层数组；直接内存缓冲区分块复制到当前线程复用的数组中处理，都不会为每条消息分配输出数组
+     *
+     * @param iv  iv值，同一个密钥下不能重复
+     * @param in  明文
+     * @param out 密文，剩余空间至少为 in.remaining() + TAG_BYTE_LENGTH
+     * @return 写入的密文长度
+     * @throws AESException 异常，包括 out 的空间不足，此时两者的 position 不变
+     */
+    public int encrypt(byte[] iv, ByteBuffer in, ByteBuffer out) throws AESException {
+        return process(true, iv, in, out, in.remaining() + TAG_BYTE_LENGTH);
+    }
+
+    /**
+     * 解密 in 中剩余的全部数据，写入 out，两者的 position 都向后移动，支持直接内存（direct）缓冲区
+     * 认证标签校验失败时，out 中已经写入的数据会被清零，两者的 position 不变
+     *
+     * @param iv  iv值
+     * @param in  密文，包括末尾的认证标签
+     * @param out 明文，剩余空间至少为 in.remaining() - TAG_BYTE_LENGTH
+     * @return 写入的明文长度
+     * @throws AESException 异常，包括认证标签校验失败、out 的空间不足
+     */
+    public int decrypt(byte[] iv, ByteBuffer in, ByteBuffer out) throws AESException {
+        return process(false, iv, in, out, getPlainLength(in.remaining()));
+    }
+
+    /**
+     * 明文加密后的密文长度
+     *
+     * @param plainLength 明文长度
+     * @return 密文长度
+     */
+    public static int getCipherLength(int plainLength) {
+        return plainLength + TAG_BYTE_LENGTH;
+    }
+
+    /**
+     * 使用当前线程的 GCM 实例，只在第一次使用时传入密钥
+     *
+     * @param forEncryption 是否为加密
+     * @param iv            iv值
+     * @return 初始化后的 GCM 实例
+     * @throws AESException iv 为空，或者加密时与上一次使用的 iv 相同
+     */
+    GCMModeCipher init(boolean forEncryption, byte[] iv) throws AESException {
+        if (iv == null || iv.length == 0) {
+            throw new AESException("iv must not be empty");
+        }
+        ThreadCipher threadCipher = ciphers.get();
+        try {
+            threadCipher.cipher.init(forEncryption,
+                    new AEADParameters(threadCipher.keyed ? null : key, GCM_AUTH_TAG_LENGTH, iv));
+        } catch (IllegalArgumentException e) {
+            throw new AESException(e);
+        }
+        threadCipher.keyed = true;
+        return threadCipher.cipher;
+    }
+
+    private static int process(GCMModeCipher cipher, byte[] in, int inOffset, int inLength, byte[] out,
+                               int outOffset) throws AESException {
+        try {
+            int length = cipher.processBytes(in, inOffset, inLength, out, outOffset);
+            return length + cipher.doFinal(out, outOffset + length);
+        } catch (InvalidCipherTextException | DataLengthException | IllegalStateException e) {
+            throw new AESException(e);
+        }
+    }
+
+    private int process(boolean forEncryption, byte[] iv, ByteBuffer in, ByteBuffer out, int outLength)
+            throws AESException {
+        if (out.isReadOnly()) {
+            throw new AESException("Output buffer is read only");
+        }
+        if (out.remaining() < outLength) {
+            throw new AESException("Output buffer too small: " + out.remaining() + " < " + outLength);
+        }
+        int inPosition = in.position();
+        int outPosition = out.position();
+        int length;
+        try {
+            if (in.hasArray() && out.hasArray()) {
+                length = process(init(forEncryption, iv), in.array(), in.arrayOffset() + inPosition, in.remaining(),
+                        out.array(), out.arrayOffset() + outPosition);
+                in.position(in.limit());
+                out.position(outPosition + length);
+            } else {
+                length = processChunks(init(forEncryption, iv), in, out);
+            }
+        } catch (AESException e) {
+            in.position(inPosition);
+            if (!forEncryption) {
+                for (int i = outPosition; i < outPosition + outLength; i++) {
+                    out.put(i, (byte) 0);
+                }
+            }
+            out.position(outPosition);
+            throw e;
+        }
+        return length;
+    }
+
+    /**
+     * 直接内存缓冲区：分块复制到当前线程复用的数组中处理
+     */
+    private int processChunks(GCMModeCipher cipher, ByteBuffer in, ByteBuffer out) throws AESException {
+        ThreadCipher threadCipher = ciphers.get();
+        byte[] chunkIn = threadCipher.chunkIn;
+        byte[] chunkOut = threadCipher.chunkOut;
+        int length = 0;
+        try {
+            while (in.hasRemaining()) {
+                int n = Math.min(in.remaining(), chunkIn.length);
+                in.get(chunkIn, 0, n);
+                int produced = cipher.processBytes(chunkIn, 0, n, chunkOut, 0);
+                out.put(chunkOut, 0, produced);
+                length += produced;
+            }
+            int produced = cipher.doFinal(chunkOut, 0);
+            out.put(chunkOut, 0, produced);
+            return length + produced;
+        } catch (InvalidCipherTextException | DataLengthException | IllegalStateException e) {
+            throw new AESException(e);
+        } finally {
+            Arrays.fill(chunkIn, (byte) 0);
+            Arrays.fill(chunkOut, (byte) 0);
+        }
+    }
+
+    private static int getPlainLength(int cipherLength) throws AESException {
+        if (cipherLength < TAG_BYTE_LENGTH) {
+            throw new AESException("Cipher data is shorter than the authentication tag");
+        }
+        return cipherLength - TAG_BYTE_LENGTH;
+    }
+
+    private static void checkBounds(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, int outLength)
+            throws AESException {
+        try {
+            Objects.checkFromIndexSize(inOffset, inLength, in.length);
+        } catch (IndexOutOfBoundsException e) {
+            throw new AESException("Input range out of bounds", e);
+        }
+        if (outOffset < 0 || out.length - outOffset < outLength) {
+            throw new AESException("Output buffer too small: " + (out.length - outOffset) + " < " + outLength);
+        }
+    }
+
+    /**
+     * 一个线程使用的 GCM 实例
+     */
+    private static final class ThreadCipher {
+
+        private final GCMModeCipher cipher = GCMBlockCipher.newInstance(AESEngine.newInstance());
+
+        /**
+         * 处理直接内存缓冲区时复用的数组，输出数组多出的空间用于 doFinal 输出的最后一块和认证标签
+         */
+        private final byte[] chunkIn = new byte[CHUNK_SIZE];
+
+        private final byte[] chunkOut = new byte[CHUNK_SIZE + 2 * TAG_BYTE_LENGTH];
+
+        /**
+         * 是否已经使用密钥初始化过
+         */
+        private boolean keyed;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ysx.utils.crypto.aes;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 14:20
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 分段解密的输入流
+ * 每次读取一个密文段并多读 1 个字节：读到了这个字节说明后面还有数据，当前段不是最后一段；否则按最后一段解密。
+ * 每段解密并通过认证后才返回其中的明文，认证失败时抛出 IOException（cause 为 AESException），
+ * 读到流末尾而没有遇到最后一段（被截断）时同样抛出异常。只缓存一个密文段和一个明文段
+ */
+class AesGcmDecryptingInputStream extends FilterInputStream {
+
+    private final AesGcmStreamHeader header;
+
+    /**
+     * 一个密文段，再加上用来判断是否还有后续数据的 1 个字节
+     */
+    private final byte[] cipherSegment;
+
+    private final byte[] plainSegment;
+
+    /**
+     * cipherSegment 中已读取的字节数
+     */
+    private int cipherBuffered;
+
+    private int plainPosition;
+
+    private int plainLimit;
+
+    private long segmentIndex;
+
+    /**
+     * 最后一段已经解密
+     */
+    private boolean finished;
+
+    AesGcmDecryptingInputStream(InputStream in, AesGcmStreamHeader header) {
+        super(in);
+        this.header = header;
+        this.cipherSegment = new byte[header.getSegmentSize() + 1];
+        this.plainSegment = new byte[header.getPlainSegmentSize()];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        while (plainPosition == plainLimit) {
+            if (finished) {
+                return -1;
+            }
+            nextSegment();
+        }
+        int n = Math.min(len, plainLimit - plainPosition);
+        System.arraycopy(plainSegment, plainPosition, b, off, n);
+        plainPosition += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的数据同样需要解密认证
+        long skipped = 0;
+        while (skipped < n) {
+            if (plainPosition == plainLimit) {
+                if (finished) {
+                    break;
+                }
+                nextSegment();
+                continue;
+            }
+            int step = (int) Math.min(n - skipped, plainLimit - plainPosition);
+            plainPosition += step;
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return plainLimit - plainPosition;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // mark is not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(plainSegment, (byte) 0);
+        super.close();
+    }
+
+    private void nextSegment() throws IOException {
+        while (cipherBuffered < cipherSegment.length) {
+            int n = in.read(cipherSegment, cipherBuffered, cipherSegment.length - cipherBuffered);
+            if (n == -1) {
+                break;
+            }
+            cipherBuffered += n;
+        }
+        boolean last = cipherBuffered < cipherSegment.length;
+        int length = last ? cipherBuffered : header.getSegmentSize();
+        if (length < AesGcmContext.TAG_BYTE_LENGTH) {
+            throw new IOException("Encrypted stream is truncated at segment " + segmentIndex);
+        }
+        plainLimit = header.decryptSegment(segmentIndex, last, cipherSegment, 0, length, plainSegment, 0);
+        plainPosition = 0;
+        segmentIndex++;
+        if (last) {
+            finished = true;
+            cipherBuffered = 0;
+        } else {
+            // 多读的 1 个字节是下一段的开头
+            cipherSegment[0] = cipherSegment[length];
+            cipherBuffered = 1;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ysx.utils.crypto.aes;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 14:20
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 分段加密的输出流
+ * 先写入头部，之后每攒满一个明文段并且还有后续数据时加密写出；关闭时把剩余的数据（可能为空）作为最后一段加密写出。
+ * 只缓存一个明文段和一个密文段，内存占用与数据大小无关
+ */
+class AesGcmEncryptingOutputStream extends FilterOutputStream {
+
+    private final AesGcmStreamHeader header;
+
+    private final byte[] plainSegment;
+
+    private final byte[] cipherSegment;
+
+    /**
+     * plainSegment 中已有的字节数
+     */
+    private int buffered;
+
+    private long segmentIndex;
+
+    private boolean closed;
+
+    AesGcmEncryptingOutputStream(OutputStream out, AesGcmStreamHeader header) throws IOException {
+        super(out);
+        this.header = header;
+        this.plainSegment = new byte[header.getPlainSegmentSize()];
+        this.cipherSegment = new byte[header.getSegmentSize()];
+        out.write(header.getBytes());
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (len > 0) {
+            if (buffered == plainSegment.length) {
+                // 还有后续数据，缓存的段不是最后一段；后续数据至少还需要一段，段的数量超过上限时不再写出和缓存
+                AesGcmStreamHeader.checkSegmentCount(segmentIndex + 2);
+                writeSegment(false);
+            }
+            int n = Math.min(len, plainSegment.length - buffered);
+            System.arraycopy(b, off, plainSegment, buffered, n);
+            buffered += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 只刷新底层输出流；未满的明文段要等到确定是否为最后一段时才能加密，不会写出
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeSegment(true);
+            out.flush();
+        } finally {
+            Arrays.fill(plainSegment, (byte) 0);
+            out.close();
+        }
+    }
+
+    private void writeSegment(boolean last) throws IOException {
+        int length = header.encryptSegment(segmentIndex, last, plainSegment, 0, buffered, cipherSegment, 0);
+        out.write(cipherSegment, 0, length);
+        segmentIndex++;
+        buffered = 0;
+    }
+}
@@ -0,0 +1,237 @@
+package com.ysx.utils.crypto.aes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 15:30
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 多核并行的大文件分段 AES/GCM 加解密
+ * 文件格式与 AesGcmStreaming 完全相同，两者加密的文件可以互相解密。
+ * AesGcmStreaming 在一个线程中逐段处理，吞吐量受限于单核的 AES 性能；分段加密中每段的 nonce 只与段序号有关，段之间没有依赖，
+ * 这里把段分配到 ForkJoinPool 中并行加解密。输入和输出文件按窗口（默认 256MB）内存映射，
+ * 每段直接从输入的映射读取、写入输出映射中的固定位置，不需要额外的缓冲区来保证输出的顺序。
+ * 线程安全，异常为 IOException，认证失败时 cause 为 AESException；失败时删除不完整的输出文件
+ */
+public class AesGcmParallelCipher {
+
+    /**
+     * 每次映射的窗口大小 256MB，窗口内的段并行处理
+     */
+    private static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private final AesGcmStreaming streaming;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * 每次映射的窗口大小，窗口中段的数量由头部中的段大小决定
+     */
+    private final int windowSize;
+
+    /**
+     * 构造函数，使用默认的段大小和公共 ForkJoinPool
+     *
+     * @param masterKey 主密钥，长度为 16、24 或 32 字节
+     */
+    public AesGcmParallelCipher(byte[] masterKey) {
+        this(masterKey, AesGcmStreaming.DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param masterKey   主密钥，长度为 16、24 或 32 字节
+     * @param segmentSize 加密时的密文段大小（包括 16 字节的认证标签），解密时使用头部中记录的段大小
+     * @param pool        执行加解密的线程池
+     */
+    public AesGcmParallelCipher(byte[] masterKey, int segmentSize, ForkJoinPool pool) {
+        this(masterKey, segmentSize, pool, DEFAULT_WINDOW_SIZE);
+    }
+
+    AesGcmParallelCipher(byte[] masterKey, int segmentSize, ForkJoinPool pool, int windowSize) {
+        this.streaming = new AesGcmStreaming(masterKey, segmentSize);
+        this.pool = pool;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * 加密文件，已存在的输出文件会被覆盖
+     *
+     * @param plainFile  明文文件
+     * @param cipherFile 密文文件
+     * @return 密文大小
+     * @throws IOException 读写失败，或者明文过大导致段的数量超过上限
+     */
+    public long encrypt(Path plainFile, Path cipherFile) throws IOException {
+        AesGcmStreamHeader header = streaming.newHeader();
+        try (FileChannel in = FileChannel.open(plainFile, StandardOpenOption.READ);
+             FileChannel out = openOutput(cipherFile)) {
+            long plainSize = in.size();
+            long count = AesGcmStreaming.getSegmentCount(plainSize, header.getPlainSegmentSize());
+            AesGcmStreamHeader.checkSegmentCount(count);
+            long cipherSize = AesGcmStreaming.getCipherSize(plainSize, header.getSegmentSize());
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header.getBytes());
+            while (headerBuffer.hasRemaining()) {
+                out.write(headerBuffer, headerBuffer.position());
+            }
+            process(true, header, count, in, 0, plainSize, out, AesGcmStreaming.HEADER_LENGTH, cipherSize);
+            return cipherSize;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(cipherFile, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 解密文件，所有段都认证通过后输出文件才完整，已存在的输出文件会被覆盖
+     *
+     * @param cipherFile 密文文件
+     * @param plainFile  明文文件
+     * @return 明文大小
+     * @throws IOException 读写失败、密文被截断，或者认证失败（cause 为 AESException）
+     */
+    public long decrypt(Path cipherFile, Path plainFile) throws IOException {
+        try (FileChannel in = FileChannel.open(cipherFile, StandardOpenOption.READ);
+             FileChannel out = openOutput(plainFile)) {
+            AesGcmStreamHeader header = streaming.readHeader(in, 0);
+            long cipherBodySize = in.size() - AesGcmStreaming.HEADER_LENGTH;
+            long count = header.getSegmentCount(cipherBodySize);
+            long plainSize = header.getPlainSize(cipherBodySize, count);
+            process(false, header, count, in, AesGcmStreaming.HEADER_LENGTH, in.size(), out, 0, plainSize);
+            return plainSize;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(plainFile, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 按窗口映射输入和输出，窗口内的段并行处理
+     * 输入文件中 [inStart, inEnd) 为所有段的数据，写入输出文件的 [outStart, outEnd)
+     */
+    private void process(boolean encrypt, AesGcmStreamHeader header, long count, FileChannel in, long inStart,
+                         long inEnd, FileChannel out, long outStart, long outEnd) throws IOException {
+        int inSegmentSize = encrypt ? header.getPlainSegmentSize() : header.getSegmentSize();
+        int outSegmentSize = encrypt ? header.getSegmentSize() : header.getPlainSegmentSize();
+        // 解密时段大小来自头部，可能与构造函数中的不同；窗口不超过 windowSize，保证映射和段内偏移都在 int 范围内
+        int windowSegments = Math.max(1, windowSize / header.getSegmentSize());
+        for (long first = 0; first < count; first += windowSegments) {
+            long end = Math.min(count, first + windowSegments);
+            long inPosition = inStart + first * inSegmentSize;
+            long outPosition = outStart + first * outSegmentSize;
+            long inLimit = end == count ? inEnd : inStart + end * inSegmentSize;
+            long outLimit = end == count ? outEnd : outStart + end * outSegmentSize;
+            MappedByteBuffer src = in.map(FileChannel.MapMode.READ_ONLY, inPosition, inLimit - inPosition);
+            MappedByteBuffer dst = out.map(FileChannel.MapMode.READ_WRITE, outPosition, outLimit - outPosition);
+            SegmentTask task = new SegmentTask(encrypt, header, count, first, end, src, inSegmentSize, dst,
+                    outSegmentSize);
+            try {
+                pool.invoke(task);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static FileChannel openOutput(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void deleteQuietly(Path file, Exception cause) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 处理窗口中 [first, end) 的段，对半拆分直到只剩一段
+     */
+    @SuppressWarnings("serial")
+    private static final class SegmentTask extends RecursiveAction {
+
+        private final boolean encrypt;
+
+        private final AesGcmStreamHeader header;
+
+        private final long count;
+
+        /**
+         * 窗口中的第一段，src 和 dst 的开头
+         */
+        private final long windowFirst;
+
+        private final long first;
+
+        private final long end;
+
+        private final ByteBuffer src;
+
+        private final int inSegmentSize;
+
+        private final ByteBuffer dst;
+
+        private final int outSegmentSize;
+
+        SegmentTask(boolean encrypt, AesGcmStreamHeader header, long count, long first, long end, ByteBuffer src,
+                    int inSegmentSize, ByteBuffer dst, int outSegmentSize) {
+            this(encrypt, header, count, first, first, end, src, inSegmentSize, dst, outSegmentSize);
+        }
+
+        private SegmentTask(boolean encrypt, AesGcmStreamHeader header, long count, long windowFirst, long first,
+                            long end, ByteBuffer src, int inSegmentSize, ByteBuffer dst, int outSegmentSize) {
+            this.encrypt = encrypt;
+            this.header = header;
+            this.count = count;
+            this.windowFirst = windowFirst;
+            this.first = first;
+            this.end = end;
+            this.src = src;
+            this.inSegmentSize = inSegmentSize;
+            this.dst = dst;
+            this.outSegmentSize = outSegmentSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - first > 1) {
+                long middle = (first + end) >>> 1;
+                invokeAll(new SegmentTask(encrypt, header, count, windowFirst, first, middle, src, inSegmentSize,
+                                dst, outSegmentSize),
+                        new SegmentTask(encrypt, header, count, windowFirst, middle, end, src, inSegmentSize,
+                                dst, outSegmentSize));
+                return;
+            }
+            int index = (int) (first - windowFirst);
+            int inOffset = index * inSegmentSize;
+            int outOffset = index * outSegmentSize;
+            // slice 得到独立的 position，多个线程可以同时读写同一个映射的不同区域
+            ByteBuffer in = src.slice(inOffset, Math.min(inSegmentSize, src.capacity() - inOffset));
+            ByteBuffer out = dst.slice(outOffset, Math.min(outSegmentSize, dst.capacity() - outOffset));
+            boolean last = first == count - 1;
+            try {
+                if (encrypt) {
+                    header.encryptSegment(first, last, in, out);
+                } else {
+                    header.decryptSegment(first, last, in, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
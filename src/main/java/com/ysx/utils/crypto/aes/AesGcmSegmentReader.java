@@ -0,0 +1,148 @@
+package com.ysx.utils.crypto.aes;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 14:20
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 分段加密文件的随机读取
+ * 根据明文位置计算所在的段，只读取并解密这一段，每段单独认证，不需要解密前面的数据。
+ * 使用 FileChannel 的指定位置读取，不改变通道的 position；缓存最近解密的一段，不是线程安全的
+ */
+public class AesGcmSegmentReader {
+
+    private final FileChannel channel;
+
+    private final AesGcmStreamHeader header;
+
+    /**
+     * 第一段在文件中的位置
+     */
+    private final long start;
+
+    private final long segmentCount;
+
+    private final long plainSize;
+
+    private final byte[] cipherSegment;
+
+    private final byte[] plainSegment;
+
+    /**
+     * plainSegment 中缓存的段序号，-1 表示没有缓存
+     */
+    private long cachedIndex = -1;
+
+    private int cachedLength;
+
+    AesGcmSegmentReader(FileChannel channel, long start, AesGcmStreamHeader header) throws IOException {
+        this.channel = channel;
+        this.header = header;
+        this.start = start;
+        long body = channel.size() - start;
+        this.segmentCount = header.getSegmentCount(body);
+        this.plainSize = header.getPlainSize(body, segmentCount);
+        this.cipherSegment = new byte[header.getSegmentSize()];
+        this.plainSegment = new byte[header.getPlainSegmentSize()];
+    }
+
+    /**
+     * 段的数量
+     *
+     * @return 段的数量
+     */
+    public long getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * 明文的总大小
+     *
+     * @return 字节数
+     */
+    public long getPlainSize() {
+        return plainSize;
+    }
+
+    /**
+     * 每段明文的大小，最后一段可能更小
+     *
+     * @return 字节数
+     */
+    public int getPlainSegmentSize() {
+        return header.getPlainSegmentSize();
+    }
+
+    /**
+     * 解密一段，写入 dst
+     *
+     * @param index 段序号，从 0 开始
+     * @param dst   明文，剩余空间至少为这一段明文的大小
+     * @return 这一段明文的大小
+     * @throws IOException 读取失败，或者认证失败（cause 为 AESException）
+     */
+    public int readSegment(long index, ByteBuffer dst) throws IOException {
+        decrypt(index);
+        if (dst.remaining() < cachedLength) {
+            throw new IOException("Destination buffer too small: " + dst.remaining() + " < " + cachedLength);
+        }
+        dst.put(plainSegment, 0, cachedLength);
+        return cachedLength;
+    }
+
+    /**
+     * 从明文的 position 处读取，最多读取 dst.remaining() 个字节，只解密涉及的段
+     *
+     * @param position 明文中的位置
+     * @param dst      明文
+     * @return 读取的字节数，position 超过明文末尾时返回 -1
+     * @throws IOException 读取失败，或者认证失败（cause 为 AESException）
+     */
+    public int read(long position, ByteBuffer dst) throws IOException {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must not be negative: " + position);
+        }
+        if (position >= plainSize) {
+            return -1;
+        }
+        int plainSegmentSize = header.getPlainSegmentSize();
+        int total = 0;
+        while (dst.hasRemaining() && position < plainSize) {
+            long index = position / plainSegmentSize;
+            int offset = (int) (position - index * plainSegmentSize);
+            decrypt(index);
+            int n = Math.min(dst.remaining(), cachedLength - offset);
+            dst.put(plainSegment, offset, n);
+            position += n;
+            total += n;
+        }
+        return total;
+    }
+
+    private void decrypt(long index) throws IOException {
+        if (index < 0 || index >= segmentCount) {
+            throw new IndexOutOfBoundsException("Segment " + index + " out of range [0, " + segmentCount + ")");
+        }
+        if (index == cachedIndex) {
+            return;
+        }
+        cachedIndex = -1;
+        boolean last = index == segmentCount - 1;
+        long offset = start + index * header.getSegmentSize();
+        int length = (int) Math.min(header.getSegmentSize(), channel.size() - offset);
+        ByteBuffer buffer = ByteBuffer.wrap(cipherSegment, 0, length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) == -1) {
+                throw new EOFException("Encrypted file is truncated at segment " + index);
+            }
+        }
+        cachedLength = header.decryptSegment(index, last, cipherSegment, 0, length, plainSegment, 0);
+        cachedIndex = index;
+    }
+}
@@ -0,0 +1,235 @@
+package com.ysx.utils.crypto.aes;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 14:20
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 分段加密流的头部，以及由头部派生的流密钥和每段的 nonce
+ * 头部格式：版本号(1) + 密文段大小(4，大端) + salt(32) + nonce 前缀(7)，共 44 字节，明文保存在密文的开头。
+ * 流密钥 = HKDF-SHA256(主密钥, salt, info = 版本号 + 密文段大小 + nonce 前缀)，头部的任何改动都会得到不同的流密钥，所有段的认证都会失败。
+ * 第 i 段的 nonce = nonce 前缀(7) + i(4，大端) + 是否为最后一段(1)，删除、调换、截断段都会导致认证失败
+ */
+final class AesGcmStreamHeader {
+
+    static final byte VERSION = 1;
+
+    static final int SALT_LENGTH = 32;
+
+    static final int NONCE_PREFIX_LENGTH = 7;
+
+    static final int NONCE_LENGTH = 12;
+
+    static final int HEADER_LENGTH = 1 + Integer.BYTES + SALT_LENGTH + NONCE_PREFIX_LENGTH;
+
+    /**
+     * 段的最大数量，段序号在 nonce 中占 4 字节
+     */
+    static final long MAX_SEGMENT_COUNT = 1L << 32;
+
+    private final byte[] bytes;
+
+    private final int segmentSize;
+
+    private final byte[] noncePrefix;
+
+    private final AesGcmContext context;
+
+    private AesGcmStreamHeader(byte[] bytes, byte[] masterKey) {
+        this.bytes = bytes;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get();
+        this.segmentSize = buffer.getInt();
+        byte[] salt = new byte[SALT_LENGTH];
+        buffer.get(salt);
+        this.noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        buffer.get(noncePrefix);
+
+        byte[] info = new byte[1 + Integer.BYTES + NONCE_PREFIX_LENGTH];
+        System.arraycopy(bytes, 0, info, 0, 1 + Integer.BYTES);
+        System.arraycopy(noncePrefix, 0, info, 1 + Integer.BYTES, NONCE_PREFIX_LENGTH);
+        HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+        hkdf.init(new HKDFParameters(masterKey, salt, info));
+        byte[] streamKey = new byte[masterKey.length];
+        hkdf.generateBytes(streamKey, 0, streamKey.length);
+        this.context = new AesGcmContext(streamKey);
+        Arrays.fill(streamKey, (byte) 0);
+    }
+
+    /**
+     * 新建头部，salt 和 nonce 前缀随机生成
+     *
+     * @param masterKey   主密钥
+     * @param segmentSize 密文段大小
+     * @param random      随机数生成器
+     * @return 头部
+     */
+    static AesGcmStreamHeader create(byte[] masterKey, int segmentSize, SecureRandom random) {
+        byte[] bytes = new byte[HEADER_LENGTH];
+        random.nextBytes(bytes);
+        bytes[0] = VERSION;
+        ByteBuffer.wrap(bytes).putInt(1, segmentSize);
+        return new AesGcmStreamHeader(bytes, masterKey);
+    }
+
+    /**
+     * 解析头部
+     *
+     * @param masterKey 主密钥
+     * @param bytes     头部字节，长度为 HEADER_LENGTH
+     * @return 头部
+     * @throws IOException 版本号不支持或者段大小不正确
+     */
+    static AesGcmStreamHeader parse(byte[] masterKey, byte[] bytes) throws IOException {
+        if (bytes[0] != VERSION) {
+            throw new IOException("Unsupported stream version: " + bytes[0]);
+        }
+        int segmentSize = ByteBuffer.wrap(bytes).getInt(1);
+        if (segmentSize < AesGcmStreaming.MIN_SEGMENT_SIZE || segmentSize > AesGcmStreaming.MAX_SEGMENT_SIZE) {
+            throw new IOException("Invalid segment size in stream header: " + segmentSize);
+        }
+        return new AesGcmStreamHeader(bytes.clone(), masterKey);
+    }
+
+    /**
+     * 校验段的数量，段序号需要放入 nonce，加密时在写出任何数据之前调用
+     *
+     * @param count 段的数量
+     * @throws IOException 段的数量超过 MAX_SEGMENT_COUNT
+     */
+    static void checkSegmentCount(long count) throws IOException {
+        if (count > MAX_SEGMENT_COUNT) {
+            throw new IOException("Too many segments: " + count + ", max " + MAX_SEGMENT_COUNT);
+        }
+    }
+
+    /**
+     * 第 index 段的 nonce
+     *
+     * @param index 段序号
+     * @param last  是否为最后一段
+     * @return nonce
+     * @throws IOException 段序号超出范围
+     */
+    byte[] nonce(long index, boolean last) throws IOException {
+        if (index < 0 || index >= MAX_SEGMENT_COUNT) {
+            throw new IOException("Segment index out of range: " + index);
+        }
+        byte[] nonce = new byte[NONCE_LENGTH];
+        System.arraycopy(noncePrefix, 0, nonce, 0, NONCE_PREFIX_LENGTH);
+        nonce[7] = (byte) (index >>> 24);
+        nonce[8] = (byte) (index >>> 16);
+        nonce[9] = (byte) (index >>> 8);
+        nonce[10] = (byte) index;
+        nonce[11] = (byte) (last ? 1 : 0);
+        return nonce;
+    }
+
+    /**
+     * 加密一段
+     *
+     * @return 密文长度
+     * @throws IOException 加密失败
+     */
+    int encryptSegment(long index, boolean last, byte[] in, int inOffset, int inLength, byte[] out, int outOffset)
+            throws IOException {
+        try {
+            return context.encrypt(nonce(index, last), in, inOffset, inLength, out, outOffset);
+        } catch (AESException e) {
+            throw new IOException("Encrypt segment " + index + " exception", e);
+        }
+    }
+
+    /**
+     * 解密一段并校验认证标签
+     *
+     * @return 明文长度
+     * @throws IOException 认证失败（密文被篡改、截断，或者密钥不正确），cause 为 AESException
+     */
+    int decryptSegment(long index, boolean last, byte[] in, int inOffset, int inLength, byte[] out, int outOffset)
+            throws IOException {
+        try {
+            return context.decrypt(nonce(index, last), in, inOffset, inLength, out, outOffset);
+        } catch (AESException e) {
+            throw new IOException("Decrypt segment " + index + " exception", e);
+        }
+    }
+
+    /**
+     * 加密一段，in 中剩余的全部数据为这一段的明文，两者的 position 都向后移动，支持直接内存（包括内存映射）缓冲区
+     *
+     * @return 密文长度
+     * @throws IOException 加密失败
+     */
+    int encryptSegment(long index, boolean last, ByteBuffer in, ByteBuffer out) throws IOException {
+        try {
+            return context.encrypt(nonce(index, last), in, out);
+        } catch (AESException e) {
+            throw new IOException("Encrypt segment " + index + " exception", e);
+        }
+    }
+
+    /**
+     * 解密一段并校验认证标签，in 中剩余的全部数据为这一段的密文，认证失败时 out 中已经写入的数据会被清零
+     *
+     * @return 明文长度
+     * @throws IOException 认证失败（密文被篡改、截断，或者密钥不正确），cause 为 AESException
+     */
+    int decryptSegment(long index, boolean last, ByteBuffer in, ByteBuffer out) throws IOException {
+        try {
+            return context.decrypt(nonce(index, last), in, out);
+        } catch (AESException e) {
+            throw new IOException("Decrypt segment " + index + " exception", e);
+        }
+    }
+
+    /**
+     * 根据头部之后的密文大小计算段的数量
+     *
+     * @param cipherBodySize 头部之后的密文大小
+     * @return 段的数量
+     * @throws IOException 密文被截断（最后一段不足一个认证标签）
+     */
+    long getSegmentCount(long cipherBodySize) throws IOException {
+        long count = (cipherBodySize + segmentSize - 1) / segmentSize;
+        if (count == 0 || cipherBodySize - (count - 1) * segmentSize < AesGcmContext.TAG_BYTE_LENGTH) {
+            throw new IOException("Encrypted file is truncated");
+        }
+        return count;
+    }
+
+    /**
+     * 根据头部之后的密文大小计算明文大小，密文需要先通过 getSegmentCount 的校验
+     */
+    long getPlainSize(long cipherBodySize, long segmentCount) {
+        return cipherBodySize - segmentCount * AesGcmContext.TAG_BYTE_LENGTH;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 密文段大小，包括 16 字节的认证标签
+     */
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * 明文段大小
+     */
+    int getPlainSegmentSize() {
+        return segmentSize - AesGcmContext.TAG_BYTE_LENGTH;
+    }
+}
@@ -0,0 +1,237 @@
+package com.ysx.utils.crypto.aes;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 14:20
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description 大文件的分段流式 AES/GCM 加解密
+ * AESUtils 需要把全部明文放在一个 byte[] 中，加密大文件时内存占用是文件大小的两倍。
+ * 这里把数据切分为固定大小的段，每段使用 AES/GCM（与 AESUtils 相同的 128bit 认证标签）单独加密和认证，内存占用只与段大小有关：
+ * <pre>
+ * 头部(44 字节) | 段 0 | 段 1 | ... | 最后一段
+ * </pre>
+ * 每个密文段（除了最后一段）的大小都是 segmentSize，其中明文 segmentSize - 16 字节；最后一段的明文可以为空。
+ * 每个流使用头部中随机的 salt 通过 HKDF 从主密钥派生单独的流密钥，每段的 nonce 由 nonce 前缀、段序号和是否为最后一段组成，
+ * 因此同一个主密钥可以加密大量的流，并且段被删除、调换、截断都能检测出来（见 AesGcmStreamHeader）。
+ * 每段单独认证，可以只解密任意一段（AesGcmSegmentReader）。
+ * 线程安全，加解密时的异常为 IOException，认证失败时 cause 为 AESException
+ */
+public class AesGcmStreaming {
+
+    /**
+     * 默认的密文段大小 1MB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    /**
+     * 密文段大小的下限
+     */
+    public static final int MIN_SEGMENT_SIZE = 64;
+
+    /**
+     * 密文段大小的上限 64MB
+     */
+    public static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 头部长度
+     */
+    public static final int HEADER_LENGTH = AesGcmStreamHeader.HEADER_LENGTH;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final byte[] masterKey;
+
+    private final int segmentSize;
+
+    /**
+     * 构造函数，使用默认的段大小
+     *
+     * @param masterKey 主密钥，长度为 16、24 或 32 字节
+     */
+    public AesGcmStreaming(byte[] masterKey) {
+        this(masterKey, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param masterKey   主密钥，长度为 16、24 或 32 字节
+     * @param segmentSize 加密时的密文段大小（包括 16 字节的认证标签），解密时使用头部中记录的段大小
+     */
+    public AesGcmStreaming(byte[] masterKey, int segmentSize) {
+        if (masterKey == null || (masterKey.length != 16 && masterKey.length != 24 && masterKey.length != 32)) {
+            throw new IllegalArgumentException("Invalid AES key length: "
+                    + (masterKey == null ? null : masterKey.length));
+        }
+        if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be in [" + MIN_SEGMENT_SIZE + ", "
+                    + MAX_SEGMENT_SIZE + "]: " + segmentSize);
+        }
+        this.masterKey = masterKey.clone();
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 加密输出流：立即写入头部，写入的明文按段加密，关闭时写出最后一段
+     * 必须关闭，否则密文不完整，无法解密；写入的明文使段的数量超过上限时，write 在缓存之前抛出 IOException
+     *
+     * @param out 密文输出流，关闭返回的流时一起关闭
+     * @return 明文输出流
+     * @throws IOException 写入头部失败
+     */
+    public OutputStream newEncryptingStream(OutputStream out) throws IOException {
+        return new AesGcmEncryptingOutputStream(out, newHeader());
+    }
+
+    /**
+     * 解密输入流：立即读取头部，之后每段认证通过后才返回其中的明文
+     *
+     * @param in 密文输入流，关闭返回的流时一起关闭
+     * @return 明文输入流
+     * @throws IOException 读取头部失败，或者头部格式不正确
+     */
+    public InputStream newDecryptingStream(InputStream in) throws IOException {
+        byte[] bytes = new byte[HEADER_LENGTH];
+        int read = in.readNBytes(bytes, 0, HEADER_LENGTH);
+        if (read < HEADER_LENGTH) {
+            throw new EOFException("Encrypted stream header is truncated");
+        }
+        return new AesGcmDecryptingInputStream(in, AesGcmStreamHeader.parse(masterKey, bytes));
+    }
+
+    /**
+     * 加密文件：从 in 的当前位置读到末尾，写入 out 的当前位置，两者的位置都向后移动，不关闭通道
+     *
+     * @param in  明文文件
+     * @param out 密文文件
+     * @return 写入的密文字节数
+     * @throws IOException 读写失败，或者明文过大导致段的数量超过上限（此时不写入任何数据）
+     */
+    public long encrypt(FileChannel in, FileChannel out) throws IOException {
+        AesGcmStreamHeader header = newHeader();
+        long remaining = in.size() - in.position();
+        long count = getSegmentCount(remaining, header.getPlainSegmentSize());
+        AesGcmStreamHeader.checkSegmentCount(count);
+        byte[] plainSegment = new byte[header.getPlainSegmentSize()];
+        byte[] cipherSegment = new byte[header.getSegmentSize()];
+        long written = writeFully(out, ByteBuffer.wrap(header.getBytes()));
+        try {
+            for (long index = 0; index < count; index++) {
+                int length = (int) Math.min(plainSegment.length, remaining);
+                readFully(in, ByteBuffer.wrap(plainSegment, 0, length));
+                remaining -= length;
+                int cipherLength = header.encryptSegment(index, index == count - 1, plainSegment, 0, length,
+                        cipherSegment, 0);
+                written += writeFully(out, ByteBuffer.wrap(cipherSegment, 0, cipherLength));
+            }
+        } finally {
+            Arrays.fill(plainSegment, (byte) 0);
+        }
+        return written;
+    }
+
+    /**
+     * 解密文件：从 in 的当前位置读到末尾，写入 out 的当前位置，两者的位置都向后移动，不关闭通道
+     * 每段认证通过后才写入，认证失败时 out 中可能已经写入了之前认证通过的段
+     *
+     * @param in  密文文件
+     * @param out 明文文件
+     * @return 写入的明文字节数
+     * @throws IOException 读写失败、密文被截断，或者认证失败（cause 为 AESException）
+     */
+    public long decrypt(FileChannel in, FileChannel out) throws IOException {
+        AesGcmSegmentReader reader = openSegmentReader(in, in.position());
+        ByteBuffer plainSegment = ByteBuffer.allocate(reader.getPlainSegmentSize());
+        long written = 0;
+        try {
+            for (long index = 0; index < reader.getSegmentCount(); index++) {
+                reader.readSegment(index, plainSegment.clear());
+                written += writeFully(out, plainSegment.flip());
+            }
+        } finally {
+            Arrays.fill(plainSegment.array(), (byte) 0);
+        }
+        in.position(in.size());
+        return written;
+    }
+
+    /**
+     * 随机读取加密文件，头部位于文件开头
+     *
+     * @param channel 密文文件，使用指定位置读取，不改变通道的 position
+     * @return 读取器
+     * @throws IOException 读取头部失败，或者头部格式不正确
+     */
+    public AesGcmSegmentReader openSegmentReader(FileChannel channel) throws IOException {
+        return openSegmentReader(channel, 0);
+    }
+
+    /**
+     * 密文的大小
+     *
+     * @param plainSize   明文大小
+     * @param segmentSize 密文段大小
+     * @return 密文大小，包括头部
+     */
+    public static long getCipherSize(long plainSize, int segmentSize) {
+        long count = getSegmentCount(plainSize, segmentSize - AesGcmContext.TAG_BYTE_LENGTH);
+        return HEADER_LENGTH + plainSize + count * AesGcmContext.TAG_BYTE_LENGTH;
+    }
+
+    AesGcmStreamHeader newHeader() {
+        return AesGcmStreamHeader.create(masterKey, segmentSize, RANDOM);
+    }
+
+    AesGcmSegmentReader openSegmentReader(FileChannel channel, long position) throws IOException {
+        return new AesGcmSegmentReader(channel, position + HEADER_LENGTH, readHeader(channel, position));
+    }
+
+    /**
+     * 读取并解析 position 处的头部，不改变通道的 position
+     */
+    AesGcmStreamHeader readHeader(FileChannel channel, long position) throws IOException {
+        byte[] bytes = new byte[HEADER_LENGTH];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new EOFException("Encrypted file header is truncated");
+            }
+        }
+        return AesGcmStreamHeader.parse(masterKey, bytes);
+    }
+
+    /**
+     * 段的数量，明文为空时也有一个（空的）最后一段
+     */
+    static long getSegmentCount(long plainSize, int plainSegmentSize) {
+        return Math.max(1, (plainSize + plainSegmentSize - 1) / plainSegmentSize);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                throw new EOFException("File is shorter than expected");
+            }
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return length;
+    }
+}
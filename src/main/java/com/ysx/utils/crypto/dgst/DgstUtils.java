@@ -41,6 +41,18 @@ public class DgstUtils {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    /**
+     * 获取摘要算法实例，与 digest 方法使用相同的 Provider，计算结果一致
+     *
+     * @param algorithmName 算法名称
+     * @return 摘要算法实例
+     * @throws NoSuchAlgorithmException 异常
+     * @throws NoSuchProviderException  异常
+     */
+    public static MessageDigest getMessageDigest(String algorithmName) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return MessageDigest.getInstance(algorithmName, BouncyCastleProvider.PROVIDER_NAME);
+    }
+
     /**
      * 计算数据的消息摘要
      *
@@ -0,0 +1,164 @@
+package com.ysx.utils.file;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 归档格式
+ * 根据文件开头的魔数识别格式，不依赖文件扩展名；tar 类格式由各自的解压器 (codec) 得到 tar 数据流，再交给同一个解压流水线
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public enum ArchiveFormat {
+
+    /**
+     * .tar.gz / .tgz，compressTarGz 生成的多成员 gzip 可以并行解压
+     */
+    TAR_GZ(new int[]{0x1F, 0x8B}, ParallelGzipInputStream::new),
+
+    /**
+     * .tar.xz
+     */
+    TAR_XZ(new int[]{0xFD, '7', 'z', 'X', 'Z', 0x00},
+            (in, threads) -> XZCompressorInputStream.builder().setInputStream(in).setDecompressConcatenated(true).get()),
+
+    /**
+     * .tar.bz2
+     */
+    TAR_BZ2(new int[]{'B', 'Z', 'h'}, (in, threads) -> new BZip2CompressorInputStream(in, true)),
+
+    /**
+     * .tar.zst，使用纯 Java 实现的 zstd 解压，不需要本地库
+     */
+    TAR_ZST(new int[]{0x28, 0xB5, 0x2F, 0xFD}, (in, threads) -> new ZstdInputStream(in)),
+
+    /**
+     * 未压缩的 .tar，"ustar" 位于第 257 个字节
+     */
+    TAR(new int[0], (in, threads) -> in),
+
+    /**
+     * .zip，不是 tar 数据流，没有解压器，根据中央目录并行解压各个条目
+     */
+    ZIP(new int[]{'P', 'K', 0x03, 0x04}, null);
+
+    /**
+     * 识别格式需要读取的字节数
+     */
+    static final int DETECT_LENGTH = 512;
+
+    private static final int TAR_MAGIC_OFFSET = 257;
+
+    private static final byte[] TAR_MAGIC = {'u', 's', 't', 'a', 'r'};
+
+    /**
+     * 空 zip 文件只有中央目录结束记录
+     */
+    private static final int[] EMPTY_ZIP_MAGIC = {'P', 'K', 0x05, 0x06};
+
+    private final int[] magic;
+
+    private final TarCodec tarCodec;
+
+    ArchiveFormat(int[] magic, TarCodec tarCodec) {
+        this.magic = magic;
+        this.tarCodec = tarCodec;
+    }
+
+    /**
+     * 是否为 tar 类格式（可以由 getTarCodec 得到 tar 数据流）
+     *
+     * @return zip 返回 false
+     */
+    public boolean isTar() {
+        return tarCodec != null;
+    }
+
+    /**
+     * tar 类格式的解压器
+     *
+     * @return 解压器，zip 返回 null
+     */
+    TarCodec getTarCodec() {
+        return tarCodec;
+    }
+
+    /**
+     * 根据文件开头的魔数识别格式
+     *
+     * @param file 归档文件
+     * @return 归档格式，无法识别时返回 null
+     * @throws IOException 读取失败
+     */
+    public static ArchiveFormat detect(Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            byte[] head = is.readNBytes(DETECT_LENGTH);
+            return detect(head, head.length);
+        }
+    }
+
+    /**
+     * 根据数据开头的魔数识别格式
+     *
+     * @param head   数据开头的字节，识别 tar 需要至少 262 个字节
+     * @param length 有效字节数
+     * @return 归档格式，无法识别时返回 null
+     */
+    public static ArchiveFormat detect(byte[] head, int length) {
+        for (ArchiveFormat format : values()) {
+            if (format.magic.length > 0 && startsWith(head, length, format.magic)) {
+                return format;
+            }
+        }
+        if (startsWith(head, length, EMPTY_ZIP_MAGIC)) {
+            return ZIP;
+        }
+        if (length >= TAR_MAGIC_OFFSET + TAR_MAGIC.length) {
+            boolean tar = true;
+            for (int i = 0; i < TAR_MAGIC.length && tar; i++) {
+                tar = head[TAR_MAGIC_OFFSET + i] == TAR_MAGIC[i];
+            }
+            if (tar) {
+                return TAR;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, int[] magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 由压缩数据得到 tar 数据流
+     */
+    @FunctionalInterface
+    interface TarCodec {
+
+        /**
+         * 得到 tar 数据流
+         *
+         * @param in      压缩数据
+         * @param threads 可用的解压线程数，只有支持并行解压的格式使用
+         * @return tar 数据流
+         * @throws IOException 数据格式不正确
+         */
+        InputStream decompress(InputStream in, int threads) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ysx.utils.file;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 缓冲池
+ * 多个线程共享的、固定大小的堆内存缓冲池，缓冲用完归还后可以被下一次解压复用，池中最多保留 maxPooled 个缓冲，
+ * 池为空时分配新的缓冲，池已满时丢弃归还的缓冲，不会阻塞
+ * 使用堆内存 ByteBuffer，array() 可以直接交给 InputStream.read，写入 FileChannel 时由 JDK 复用线程内的直接内存临时缓冲
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * 构造函数
+     *
+     * @param bufferSize 每个缓冲的大小
+     * @param maxPooled  池中最多保留的缓冲数
+     */
+    BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("bufferSize and maxPooled must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * 取出一个缓冲，position 为 0，limit 为 capacity
+     *
+     * @return 缓冲
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer == null ? ByteBuffer.allocate(bufferSize) : buffer.clear();
+    }
+
+    /**
+     * 归还缓冲，归还后调用者不能再使用
+     *
+     * @param buffer 缓冲
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && buffer.hasArray()) {
+            buffers.offer(buffer);
+        }
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 池中空闲的缓冲数
+     *
+     * @return 空闲的缓冲数
+     */
+    int pooled() {
+        return buffers.size();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ysx.utils.file;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.Objects;
+
+/**
+ * 基于通道的增量解码 Reader
+ * 复用同一个 CharsetDecoder 和直接内存 ByteBuffer，内存占用只与缓冲区大小有关，与文件大小无关
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+class ChannelDecodingReader extends Reader {
+
+    private final ReadableByteChannel channel;
+
+    private final CharsetDecoder decoder;
+
+    /**
+     * 待解码的字节，始终处于读模式
+     */
+    private final ByteBuffer byteBuffer;
+
+    /**
+     * 已解码的字符，始终处于读模式
+     */
+    private final CharBuffer charBuffer;
+
+    /**
+     * 通道已读到末尾
+     */
+    private boolean endOfInput;
+
+    /**
+     * 剩余字节已全部交给解码器
+     */
+    private boolean drained;
+
+    /**
+     * 解码器已 flush 完成
+     */
+    private boolean flushed;
+
+    ChannelDecodingReader(ReadableByteChannel channel, CharsetDecoder decoder, int bufferSize) {
+        this.channel = channel;
+        this.decoder = decoder;
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+        this.byteBuffer.flip();
+        this.charBuffer = CharBuffer.allocate(bufferSize);
+        this.charBuffer.flip();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (!charBuffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        int n = Math.min(len, charBuffer.remaining());
+        charBuffer.get(cbuf, off, n);
+        return n;
+    }
+
+    @Override
+    public boolean ready() {
+        return charBuffer.hasRemaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 解码出至少一个字符
+     *
+     * @return 是否还有字符可读
+     * @throws IOException 读取或解码失败
+     */
+    private boolean fill() throws IOException {
+        charBuffer.clear();
+        try {
+            while (charBuffer.position() == 0 && !flushed) {
+                if (!drained) {
+                    if (!endOfInput) {
+                        byteBuffer.compact();
+                        int bytesRead = channel.read(byteBuffer);
+                        byteBuffer.flip();
+                        if (bytesRead < 0) {
+                            endOfInput = true;
+                        }
+                    }
+                    CoderResult result = decoder.decode(byteBuffer, charBuffer, endOfInput);
+                    if (result.isError()) {
+                        result.throwException();
+                    }
+                    if (!endOfInput || result.isOverflow()) {
+                        continue;
+                    }
+                    drained = true;
+                }
+                if (decoder.flush(charBuffer).isUnderflow()) {
+                    flushed = true;
+                }
+            }
+        } finally {
+            charBuffer.flip();
+        }
+        return charBuffer.hasRemaining();
+    }
+}
@@ -0,0 +1,183 @@
+package com.ysx.utils.file;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文件编码检测结果缓存
+ * 以 (路径, 大小, 最后修改时间, inode) 作为文件标识，文件发生变化后标识随之变化，旧的结果不会再被命中
+ * 按 LRU 淘汰，缓存数量有上限。
+ * 同时记录结果是否根据全部内容检测：采样检测的结果只能被采样检测命中，
+ * 根据全部内容检测的结果对两种检测方式都有效
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class CharsetCache {
+
+    /**
+     * 默认最多缓存的文件数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final Map<Key, Entry> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public CharsetCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maxEntries 最多缓存的文件数
+     */
+    public CharsetCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 查询缓存，同时统计命中和未命中次数
+     *
+     * @param key         文件标识
+     * @param fullContent 是否需要根据全部内容检测的结果，为 true 时采样检测的结果视为未命中
+     * @return 缓存的字符集，未命中时返回 null
+     */
+    Charset get(Key key, boolean fullContent) {
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry == null || fullContent && !entry.fullContent) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.charset;
+    }
+
+    /**
+     * 缓存检测结果，已经缓存了根据全部内容检测的结果时不会被采样检测的结果覆盖
+     *
+     * @param key         文件标识
+     * @param charset     检测到的字符集
+     * @param fullContent 是否根据全部内容检测
+     */
+    void put(Key key, Charset charset, boolean fullContent) {
+        synchronized (cache) {
+            Entry existing = cache.get(key);
+            if (fullContent || existing == null || !existing.fullContent) {
+                cache.put(key, new Entry(charset, fullContent));
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 生成文件标识
+     *
+     * @param path 文件路径
+     * @return 文件标识
+     * @throws IOException 读取文件属性失败
+     */
+    static Key keyOf(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new Key(path.toAbsolutePath().normalize(), attributes.size(), attributes.lastModifiedTime(),
+                attributes.fileKey());
+    }
+
+    private static final class Entry {
+
+        private final Charset charset;
+
+        private final boolean fullContent;
+
+        Entry(Charset charset, boolean fullContent) {
+            this.charset = charset;
+            this.fullContent = fullContent;
+        }
+    }
+
+    /**
+     * 文件标识
+     */
+    static final class Key {
+
+        private final Path path;
+
+        private final long size;
+
+        private final FileTime lastModified;
+
+        /**
+         * 文件系统提供的唯一标识（例如 Unix 下的设备号和 inode），不支持时为 null
+         */
+        private final Object fileKey;
+
+        Key(Path path, long size, FileTime lastModified, Object fileKey) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return size == key.size && path.equals(key.path) && lastModified.equals(key.lastModified)
+                    && Objects.equals(fileKey, key.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified, fileKey);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ysx.utils.file;
+
+import java.nio.charset.Charset;
+
+/**
+ * 编码检测结果
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class CharsetDetectResult {
+
+    /**
+     * 检测到的字符集
+     */
+    private final Charset charset;
+
+    /**
+     * 置信度，取值范围 [0, 1]
+     */
+    private final double confidence;
+
+    public CharsetDetectResult(Charset charset, double confidence) {
+        this.charset = charset;
+        this.confidence = confidence;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        return "CharsetDetectResult{" +
+                "charset=" + charset +
+                ", confidence=" + confidence +
+                '}';
+    }
+}
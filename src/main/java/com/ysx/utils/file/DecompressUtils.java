@@ -1,8 +1,12 @@
 package com.ysx.utils.file;
 
+import com.ysx.utils.crypto.dgst.DgstUtils;
+import com.ysx.utils.threadpool.ThreadPoolConfig;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,9 +14,26 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * @author youngbear
@@ -28,6 +49,10 @@ public class DecompressUtils {
     // 解压缩时的缓存为 1M
     private static final int DECOMPRESS_BUFFER_SIZE = 1024 * 1024;
 
+    // 解压缩缓存池，多次解压之间复用，最多保留的缓存数与默认写线程的数据块数一致
+    private static final BufferPool BUFFER_POOL =
+            new BufferPool(DECOMPRESS_BUFFER_SIZE, 2 * ThreadPoolConfig.calculateCorePoolCount());
+
     public static void decompressTarGz(String srcFilePath, String destDirPath) throws FileException {
         checkFile(srcFilePath, destDirPath);
         try {
@@ -39,6 +64,430 @@ public class DecompressUtils {
         }
     }
 
+    /**
+     * 边接收边解压.tar.gz数据流，例如网络连接或者对象存储的下载流，不需要先落盘成临时文件
+     * 读取到 gzip 数据结束为止，不会关闭输入流
+     *
+     * @param in          .tar.gz 数据流
+     * @param destDirPath 目标路径，必须是已存在的空目录
+     * @throws FileException 文件操作异常，失败时会清空目标目录
+     */
+    public static void decompressTarGz(InputStream in, String destDirPath) throws FileException {
+        if (null == in) {
+            throw new FileException("Source can not be null!");
+        }
+        checkDestDir(destDirPath);
+        try {
+            doDecompressTarGz(in, destDirPath);
+        } catch (FileException e) {
+            LOGGER.error("FileException exception!", e);
+            FileUtils.cleanDirectory(destDirPath);
+            throw new FileException("FileException exception!", e);
+        }
+    }
+
+    /**
+     * 边接收边解压.tar.gz数据，不会关闭通道
+     *
+     * @param channel     .tar.gz 数据通道
+     * @param destDirPath 目标路径，必须是已存在的空目录
+     * @throws FileException 文件操作异常，失败时会清空目标目录
+     */
+    public static void decompressTarGz(ReadableByteChannel channel, String destDirPath) throws FileException {
+        if (null == channel) {
+            throw new FileException("Source can not be null!");
+        }
+        decompressTarGz(Channels.newInputStream(channel), destDirPath);
+    }
+
+    /**
+     * 解压归档文件，根据文件开头的魔数识别格式，不依赖扩展名
+     * 支持 .zip、.tar、.tar.gz、.tar.xz、.tar.bz2、.tar.zst，使用 ThreadPoolConfig.calculateCorePoolCount() 个线程
+     *
+     * @param srcFilePath 源文件路径
+     * @param destDirPath 目标路径，必须是已存在的空目录
+     * @throws FileException 格式不支持或者文件操作异常，失败时会清空目标目录
+     */
+    public static void decompress(String srcFilePath, String destDirPath) throws FileException {
+        decompress(srcFilePath, destDirPath, ThreadPoolConfig.calculateCorePoolCount());
+    }
+
+    /**
+     * 解压归档文件，根据文件开头的魔数识别格式
+     * zip 根据中央目录并行解压各个条目；tar 类格式解压得到 tar 数据流后，由流水线并发写入文件
+     *
+     * @param srcFilePath 源文件路径
+     * @param destDirPath 目标路径，必须是已存在的空目录
+     * @param threads     解压和写文件的线程数
+     * @throws FileException 格式不支持或者文件操作异常，失败时会清空目标目录
+     */
+    public static void decompress(String srcFilePath, String destDirPath, int threads) throws FileException {
+        decompress(srcFilePath, destDirPath, threads, false);
+    }
+
+    /**
+     * 解压归档文件，根据文件开头的魔数识别格式
+     * createSkeletonFirst 为 true 时，在写入文件数据之前先按层并行创建全部目录（目录骨架），需要事先知道所有条目：
+     * zip 使用中央目录；.tar 只读取条目头、跳过数据；.tar.gz 使用 TarGzIndex 保存的有效索引文件；
+     * 其他格式只有完整解压一遍才能得到条目列表，不做预创建，解压时按需创建目录
+     *
+     * @param srcFilePath         源文件路径
+     * @param destDirPath         目标路径，必须是已存在的空目录
+     * @param threads             解压和写文件的线程数
+     * @param createSkeletonFirst 是否预先并行创建目录骨架
+     * @throws FileException 格式不支持或者文件操作异常，失败时会清空目标目录
+     */
+    public static void decompress(String srcFilePath, String destDirPath, int threads, boolean createSkeletonFirst)
+            throws FileException {
+        checkFile(srcFilePath, destDirPath);
+        Path srcFile = Paths.get(srcFilePath);
+        ArchiveFormat format;
+        try {
+            format = ArchiveFormat.detect(srcFile);
+        } catch (IOException e) {
+            LOGGER.error("decompress exception!", e);
+            throw new FileException("decompress exception!", e);
+        }
+        if (null == format) {
+            throw new FileException("Unsupported archive format!");
+        }
+        LOGGER.info("Detected archive format for file {}: {}", srcFile.getFileName(), format);
+        try {
+            if (!format.isTar()) {
+                ParallelZipExtractor.extract(srcFile, destDirPath, threads, BUFFER_POOL, createSkeletonFirst);
+            } else {
+                DirectoryCache directories = new DirectoryCache(destDirPath);
+                if (createSkeletonFirst) {
+                    Collection<String> entryNames = listTarEntryNames(format, srcFile);
+                    if (null != entryNames) {
+                        directories.createSkeleton(entryNames, threads);
+                    }
+                }
+                try (TarArchiveInputStream ais = new TarArchiveInputStream(
+                        format.getTarCodec().decompress(new BufferedInputStream(Files.newInputStream(srcFile)), threads))) {
+                    ParallelTarExtractor.extract(ais, threads, BUFFER_POOL, null, directories);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 例如条目名称不是合法路径时抛出的 InvalidPathException，同样需要清空目标目录
+            LOGGER.error("decompress exception!", e);
+            FileUtils.cleanDirectory(destDirPath);
+            throw new FileException("decompress exception!", e);
+        }
+    }
+
+    /**
+     * 不解压文件数据，获取 tar 类归档的条目列表
+     *
+     * @param format  归档格式
+     * @param srcFile 源文件
+     * @return 条目名称，无法低成本获取时返回 null
+     * @throws IOException 读取失败
+     */
+    private static Collection<String> listTarEntryNames(ArchiveFormat format, Path srcFile) throws IOException {
+        if (format == ArchiveFormat.TAR) {
+            // 未压缩的 tar 跳过条目数据时直接移动文件位置，只需要读取条目头
+            List<String> entryNames = new ArrayList<>();
+            try (TarArchiveInputStream ais = new TarArchiveInputStream(Files.newInputStream(srcFile))) {
+                TarArchiveEntry archiveEntry;
+                while (null != (archiveEntry = ais.getNextEntry())) {
+                    entryNames.add(archiveEntry.isDirectory() && !archiveEntry.getName().endsWith("/")
+                            ? archiveEntry.getName() + "/" : archiveEntry.getName());
+                }
+            }
+            return entryNames;
+        }
+        if (format == ArchiveFormat.TAR_GZ) {
+            Path indexFile = TarGzIndex.indexFileOf(srcFile);
+            if (Files.exists(indexFile)) {
+                try {
+                    TarGzIndex index = TarGzIndex.load(srcFile, indexFile);
+                    if (index.isValid()) {
+                        return index.getEntryNames();
+                    }
+                } catch (IOException e) {
+                    // 索引只用于预创建目录骨架，损坏时按需创建目录，不影响解压
+                    LOGGER.warn("Load index exception, ignore it: {}", indexFile, e);
+                }
+            }
+        }
+        LOGGER.info("Entry list of {} is not available without decompressing, skip creating directory skeleton",
+                srcFile.getFileName());
+        return null;
+    }
+
+    /**
+     * 流水线并发解压.tar.gz或者.tgz文件，使用 ThreadPoolConfig.calculateCorePoolCount() 个写线程
+     *
+     * @param srcFilePath 源文件路径
+     * @param destDirPath 目标路径，必须是已存在的空目录
+     * @throws FileException 文件操作异常，失败时会清空目标目录
+     */
+    public static void decompressTarGzParallel(String srcFilePath, String destDirPath) throws FileException {
+        decompressTarGzParallel(srcFilePath, destDirPath, ThreadPoolConfig.calculateCorePoolCount());
+    }
+
+    /**
+     * 流水线并发解压.tar.gz或者.tgz文件
+     * 调用线程解压 gzip 并按条目切分数据块，writerThreads 个写线程并发写入文件；
+     * 由 compressTarGz 生成的文件，gzip 部分也使用 writerThreads 个线程并行解压
+     *
+     * @param srcFilePath   源文件路径
+     * @param destDirPath   目标路径，必须是已存在的空目录
+     * @param writerThreads 写线程数
+     * @throws FileException 文件操作异常，失败时会清空目标目录
+     */
+    public static void decompressTarGzParallel(String srcFilePath, String destDirPath, int writerThreads)
+            throws FileException {
+        checkFile(srcFilePath, destDirPath);
+        try (InputStream is = Files.newInputStream(Paths.get(srcFilePath))) {
+            doDecompressTarGzParallel(is, destDirPath, writerThreads);
+        } catch (IOException | FileException | RuntimeException e) {
+            LOGGER.error("decompressTarGzParallel exception!", e);
+            FileUtils.cleanDirectory(destDirPath);
+            throw new FileException("decompressTarGzParallel exception!", e);
+        }
+    }
+
+    /**
+     * 边接收边流水线并发解压.tar.gz数据流，接收、解压和写文件同时进行
+     * 读取到 gzip 数据结束为止，不会关闭输入流
+     *
+     * @param in            .tar.gz 数据流
+     * @param destDirPath   目标路径，必须是已存在的空目录
+     * @param writerThreads 写线程数
+     * @throws FileException 文件操作异常，失败时会清空目标目录
+     */
+    public static void decompressTarGzParallel(InputStream in, String destDirPath, int writerThreads)
+            throws FileException {
+        if (null == in) {
+            throw new FileException("Source can not be null!");
+        }
+        checkDestDir(destDirPath);
+        try {
+            doDecompressTarGzParallel(in, destDirPath, writerThreads);
+        } catch (IOException | FileException | RuntimeException e) {
+            LOGGER.error("decompressTarGzParallel exception!", e);
+            FileUtils.cleanDirectory(destDirPath);
+            throw new FileException("decompressTarGzParallel exception!", e);
+        }
+    }
+
+    private static void doDecompressTarGzParallel(InputStream in, String destDirPath, int writerThreads)
+            throws IOException, FileException {
+        doDecompressTarGzParallel(in, destDirPath, writerThreads, null);
+    }
+
+    private static Map<String, String> doDecompressTarGzParallel(InputStream in, String destDirPath,
+                                                                 int writerThreads, MessageDigest digest)
+            throws IOException, FileException {
+        try (TarArchiveInputStream ais = new TarArchiveInputStream(new ParallelGzipInputStream(
+                new BufferedInputStream(CloseShieldInputStream.wrap(in)), writerThreads))) {
+            return ParallelTarExtractor.extract(ais, destDirPath, writerThreads, BUFFER_POOL, digest);
+        }
+    }
+
+    /**
+     * 流水线并发解压.tar.gz文件，同时计算每个文件的摘要
+     * 摘要根据写入文件的同一份数据计算，解压后不需要再读取一遍文件，结果与 DgstUtils.digest(File, algorithmName) 一致
+     *
+     * @param srcFilePath   源文件路径
+     * @param destDirPath   目标路径，必须是已存在的空目录
+     * @param algorithmName 摘要算法，DgstUtils 支持的算法，例如 SHA-256
+     * @return 清单：文件条目名称到摘要值（十六进制小写）的映射，按归档中的顺序
+     * @throws FileException 文件操作异常，失败时会清空目标目录
+     */
+    public static Map<String, String> decompressTarGzWithDigest(String srcFilePath, String destDirPath,
+                                                                String algorithmName) throws FileException {
+        return decompressTarGzWithDigest(srcFilePath, destDirPath, algorithmName, null);
+    }
+
+    /**
+     * 流水线并发解压.tar.gz文件，同时计算每个文件的摘要，并与预期的清单比较
+     *
+     * @param srcFilePath      源文件路径
+     * @param destDirPath      目标路径，必须是已存在的空目录
+     * @param algorithmName    摘要算法，DgstUtils 支持的算法，例如 SHA-256
+     * @param expectedManifest 预期的清单，为 null 时不校验；文件条目和摘要值都必须与清单完全一致
+     * @return 清单：文件条目名称到摘要值（十六进制小写）的映射，按归档中的顺序
+     * @throws FileException 文件操作异常或者与预期的清单不一致，失败时会清空目标目录
+     */
+    public static Map<String, String> decompressTarGzWithDigest(String srcFilePath, String destDirPath,
+                                                                String algorithmName,
+                                                                Map<String, String> expectedManifest)
+            throws FileException {
+        checkFile(srcFilePath, destDirPath);
+        MessageDigest digest;
+        try {
+            digest = DgstUtils.getMessageDigest(algorithmName);
+        } catch (NoSuchAlgorithmException | NoSuchProviderException e) {
+            LOGGER.error("Unsupported digest algorithm: {}", algorithmName, e);
+            throw new FileException("Unsupported digest algorithm: " + algorithmName, e);
+        }
+        int writerThreads = ThreadPoolConfig.calculateCorePoolCount();
+        Map<String, String> manifest;
+        try (InputStream is = Files.newInputStream(Paths.get(srcFilePath))) {
+            manifest = doDecompressTarGzParallel(is, destDirPath, writerThreads, digest);
+        } catch (IOException | FileException | RuntimeException e) {
+            LOGGER.error("decompressTarGzWithDigest exception!", e);
+            FileUtils.cleanDirectory(destDirPath);
+            throw new FileException("decompressTarGzWithDigest exception!", e);
+        }
+        if (expectedManifest != null) {
+            List<String> mismatches = compareManifest(manifest, expectedManifest);
+            if (!mismatches.isEmpty()) {
+                LOGGER.error("Digest mismatch: {}", mismatches);
+                FileUtils.cleanDirectory(destDirPath);
+                throw new FileException("Digest mismatch: " + mismatches);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 比较清单，返回不一致的条目名称：摘要不同、缺少的条目以及多出的条目
+     */
+    private static List<String> compareManifest(Map<String, String> actual, Map<String, String> expected) {
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            if (!entry.getValue().equalsIgnoreCase(actual.getOrDefault(entry.getKey(), ""))) {
+                mismatches.add(entry.getKey());
+            }
+        }
+        for (String entryName : actual.keySet()) {
+            if (!expected.containsKey(entryName)) {
+                mismatches.add(entryName);
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * 可恢复地解压.tar.gz文件
+     * 每个条目写完后记录到与目标目录同级的日志文件（.目录名.journal）中，失败时不清空目标目录，保留已经解压的文件和日志；
+     * 再次调用时校验日志中已完成的文件（存在并且大小一致），跳过这些文件，从第一个未完成的条目继续解压。
+     * 多成员的 gzip（例如 compressTarGz 生成的文件）从日志记录的成员起点直接定位，不需要从头解压；
+     * 单成员的 gzip 仍然需要从头解压，但是不再写入已完成的文件。解压成功后删除日志文件。
+     * 适用于写入失败、读取失败等不改变归档内容的临时错误；归档被替换后（大小或者修改时间变化）会清空目标目录重新解压
+     *
+     * @param srcFilePath 源文件路径
+     * @param destDirPath 目标路径，必须是已存在的目录；没有日志时必须为空，日志不属于这个归档时会先清空
+     * @throws FileException 文件操作异常，目标目录和日志会保留，可以再次调用继续解压
+     */
+    public static void decompressTarGzResumable(String srcFilePath, String destDirPath) throws FileException {
+        if (null == srcFilePath || srcFilePath.isEmpty()) {
+            throw new FileException("Path can not be empty!");
+        }
+        if (!new File(srcFilePath).exists()) {
+            throw new FileException("Source file does not exist!");
+        }
+        checkDestDir(destDirPath, false);
+        Path destDir = Paths.get(destDirPath);
+        try {
+            ResumableTarGzExtractor.extract(Paths.get(srcFilePath), destDir, ExtractionJournal.journalFileOf(destDir),
+                    BUFFER_POOL);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("decompressTarGzResumable exception!", e);
+            throw new FileException("decompressTarGzResumable exception!", e);
+        }
+    }
+
+    /**
+     * 读取.tar.gz归档中的单个文件
+     * 第一次读取时完整解压一次归档建立索引，保存在归档旁边的 .idx 文件中，之后只从最近的检查点开始解压
+     *
+     * @param archivePath 归档文件路径
+     * @param entryName   条目名称，与归档中的名称一致
+     * @return 条目内容
+     * @throws FileException 条目不存在或者读取失败
+     */
+    public static byte[] extractEntry(String archivePath, String entryName) throws FileException {
+        try (InputStream is = openEntry(archivePath, entryName)) {
+            return is.readAllBytes();
+        } catch (IOException e) {
+            LOGGER.error("extractEntry exception!", e);
+            throw new FileException("extractEntry exception!", e);
+        }
+    }
+
+    /**
+     * 把.tar.gz归档中的单个文件解压到指定路径
+     *
+     * @param archivePath  归档文件路径
+     * @param entryName    条目名称，与归档中的名称一致
+     * @param destFilePath 目标文件路径，父目录不存在时会创建
+     * @throws FileException 条目不存在或者读取、写入失败
+     */
+    public static void extractEntry(String archivePath, String entryName, String destFilePath) throws FileException {
+        if (null == destFilePath || destFilePath.isEmpty()) {
+            throw new FileException("Path can not be empty!");
+        }
+        FileUtils.createDirectories(new File(destFilePath).getAbsoluteFile().getParent());
+        try (InputStream is = openEntry(archivePath, entryName)) {
+            Files.copy(is, Paths.get(destFilePath), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.error("extractEntry exception!", e);
+            throw new FileException("extractEntry exception!", e);
+        }
+    }
+
+    private static InputStream openEntry(String archivePath, String entryName) throws IOException, FileException {
+        if (null == archivePath || archivePath.isEmpty() || null == entryName || entryName.isEmpty()) {
+            throw new FileException("Path can not be empty!");
+        }
+        if (!new File(archivePath).exists()) {
+            throw new FileException("Source file does not exist!");
+        }
+        return TarGzIndex.loadOrBuild(Paths.get(archivePath)).openEntry(entryName);
+    }
+
+    /**
+     * 把目录下的所有文件和子目录压缩成.tar.gz文件，归档中的路径相对于 srcDirPath
+     * gzip 部分分块并行压缩，生成标准的多成员 gzip 文件，decompressTarGzParallel 解压时可以并行解压
+     *
+     * @param srcDirPath   源目录
+     * @param destFilePath 目标文件路径，不能已存在
+     * @throws FileException 文件操作异常，失败时会删除目标文件
+     */
+    public static void compressTarGz(String srcDirPath, String destFilePath) throws FileException {
+        if (null == srcDirPath || srcDirPath.isEmpty() || null == destFilePath || destFilePath.isEmpty()) {
+            throw new FileException("Path can not be empty!");
+        }
+        Path srcDir = Paths.get(srcDirPath);
+        if (!Files.isDirectory(srcDir)) {
+            throw new FileException("Source dir does not exist!");
+        }
+        Path destFile = Paths.get(destFilePath);
+        if (Files.exists(destFile)) {
+            throw new FileException("Dest file already exists!");
+        }
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(new ParallelGzipOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(destFile, StandardOpenOption.CREATE_NEW))));
+             Stream<Path> paths = Files.walk(srcDir)) {
+            tos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tos.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            Iterator<Path> iterator = paths.filter(path -> !path.equals(srcDir)).sorted().iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                String entryName = srcDir.relativize(path).toString().replace(File.separatorChar, '/');
+                TarArchiveEntry archiveEntry = new TarArchiveEntry(path.toFile(), entryName);
+                tos.putArchiveEntry(archiveEntry);
+                if (!archiveEntry.isDirectory()) {
+                    Files.copy(path, tos);
+                }
+                tos.closeArchiveEntry();
+            }
+        } catch (IOException e) {
+            LOGGER.error("compressTarGz exception!", e);
+            try {
+                Files.deleteIfExists(destFile);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+            throw new FileException("compressTarGz exception!", e);
+        }
+    }
+
     /**
      * 解压.tar.gz或者.tgz文件
      *
@@ -47,24 +496,45 @@ public class DecompressUtils {
      * @throws FileException 文件操作异常
      */
     private static void doDecompressTarGz(String srcFilePath, String destDirPath) throws FileException {
-        try (TarArchiveInputStream ais = new TarArchiveInputStream(new GzipCompressorInputStream(
-                new BufferedInputStream(Files.newInputStream(Paths.get(srcFilePath)))))) {
-            TarArchiveEntry archiveEntry;
-            while (null != (archiveEntry = ais.getNextTarEntry())) {
-                String entryName = archiveEntry.getName();
-                if (archiveEntry.isDirectory()) {
-                    FileUtils.createDirectories(destDirPath + "/" + entryName);
-                } else {
-                    // 如果父目录不存在，则需要创建
-                    FileUtils.createDirectories(new File(destDirPath + "/" + entryName).getParent());
-                    int count;
-                    try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(Paths.get(destDirPath + "/" + entryName)))) {
-                        byte[] buffer = new byte[DECOMPRESS_BUFFER_SIZE];
-                        while (-1 != (count = ais.read(buffer, 0, DECOMPRESS_BUFFER_SIZE))) {
-                            bos.write(buffer, 0, count);
-                        }
+        try (InputStream is = Files.newInputStream(Paths.get(srcFilePath))) {
+            doDecompressTarGz(is, destDirPath);
+        } catch (IOException e) {
+            LOGGER.error("doDecompressTarGz exception!", e);
+            throw new FileException("doDecompressTarGz exception!", e);
+        }
+    }
+
+    /**
+     * 解压.tar.gz数据流，不会关闭输入流
+     *
+     * @param in          .tar.gz 数据流
+     * @param destDirPath 目标路径
+     * @throws FileException 文件操作异常
+     */
+    private static void doDecompressTarGz(InputStream in, String destDirPath) throws FileException {
+        // 支持多个 gzip 成员首尾相连，例如 compressTarGz 生成的文件
+        try (TarArchiveInputStream ais = new TarArchiveInputStream(GzipCompressorInputStream.builder()
+                .setInputStream(new BufferedInputStream(CloseShieldInputStream.wrap(in)))
+                .setDecompressConcatenated(true)
+                .get())) {
+            // 整个解压过程复用同一个缓存，每个条目不再分配缓存
+            ByteBuffer buffer = BUFFER_POOL.acquire();
+            try {
+                // 每个目录只创建一次，文件条目不再逐个检查父目录是否存在
+                DirectoryCache directories = new DirectoryCache(destDirPath);
+                TarArchiveEntry archiveEntry;
+                while (null != (archiveEntry = ais.getNextEntry())) {
+                    String entryName = archiveEntry.getName();
+                    if (archiveEntry.isDirectory()) {
+                        directories.createDirectory(entryName);
+                    } else {
+                        Path target = directories.resolve(entryName);
+                        directories.createParent(target);
+                        writeEntry(ais, target, buffer);
                     }
                 }
+            } finally {
+                BUFFER_POOL.release(buffer);
             }
         } catch (IOException e) {
             LOGGER.error("doDecompressTarGz exception!", e);
@@ -72,6 +542,28 @@ public class DecompressUtils {
         }
     }
 
+    /**
+     * 把当前条目写入文件，不超过缓存大小的条目只需要一次 FileChannel.write
+     *
+     * @param ais    条目的输入流，例如位于当前条目的 tar 输入流
+     * @param target 目标文件
+     * @param buffer 缓存，必须有 array
+     * @throws IOException 读取或写入失败
+     */
+    static void writeEntry(InputStream ais, Path target, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int count;
+            do {
+                count = ais.readNBytes(buffer.array(), 0, buffer.capacity());
+                buffer.clear().limit(count);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } while (count == buffer.capacity());
+        }
+    }
+
     /**
      * 输入参数校验
      *
@@ -86,13 +578,30 @@ public class DecompressUtils {
         if (!new File(srcFilePath).exists()) {
             throw new FileException("Source file does not exist!");
         }
+        checkDestDir(destDirPath);
+    }
+
+    /**
+     * 目标目录校验
+     *
+     * @param destDirPath 解压目标文件路径
+     * @throws FileException 异常
+     */
+    private static void checkDestDir(String destDirPath) throws FileException {
+        checkDestDir(destDirPath, true);
+    }
+
+    private static void checkDestDir(String destDirPath, boolean requireEmpty) throws FileException {
+        if (null == destDirPath || destDirPath.isEmpty()) {
+            throw new FileException("Path can not be empty!");
+        }
         if (!new File(destDirPath).exists()) {
             throw new FileException("Dest dir not does exist!");
         }
         if (!new File(destDirPath).isDirectory()) {
             throw new FileException("Dest path is not a directory!");
         }
-        if (Objects.requireNonNull(new File(destDirPath).list()).length > 0) {
+        if (requireEmpty && Objects.requireNonNull(new File(destDirPath).list()).length > 0) {
             throw new FileException("Dest dir is not empty!");
         }
     }
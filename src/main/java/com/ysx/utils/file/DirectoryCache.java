@@ -0,0 +1,160 @@
+package com.ysx.utils.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 单次解压使用的目录缓存
+ * 记录本次解压已经创建（或者确认存在）的目录，每个目录最多调用一次 mkdir，不再为每个文件检查父目录是否存在；
+ * 只在解压线程中使用，不是线程安全的
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class DirectoryCache {
+
+    /**
+     * 规范化后的目标目录，所有条目都必须位于其中
+     */
+    private final Path destDir;
+
+    private final Set<Path> created = new HashSet<>();
+
+    /**
+     * 构造函数
+     *
+     * @param destDirPath 解压目标目录，必须已经存在
+     */
+    DirectoryCache(String destDirPath) {
+        this.destDir = Paths.get(destDirPath).toAbsolutePath().normalize();
+        created.add(destDir);
+    }
+
+    /**
+     * 条目在目标目录中的路径
+     * 条目名称中的 .. 或者绝对路径可能指向目标目录之外（zip slip），这样的条目直接拒绝
+     *
+     * @param entryName 条目名称
+     * @return 目标路径
+     * @throws IOException 条目位于目标目录之外
+     */
+    Path resolve(String entryName) throws IOException {
+        Path target = destDir.resolve(entryName).normalize();
+        if (!target.startsWith(destDir)) {
+            throw new IOException("Entry is outside of the target dir: " + entryName);
+        }
+        return target;
+    }
+
+    /**
+     * 创建条目对应的目录
+     *
+     * @param entryName 目录条目名称
+     * @throws IOException 创建失败
+     */
+    void createDirectory(String entryName) throws IOException {
+        createDirectories(resolve(entryName));
+    }
+
+    /**
+     * 创建文件条目的父目录
+     *
+     * @param target 文件条目在目标目录中的路径
+     * @throws IOException 创建失败
+     */
+    void createParent(Path target) throws IOException {
+        createDirectories(target.getParent());
+    }
+
+    /**
+     * 预先创建所有条目需要的目录（目录骨架）
+     * 按深度逐层创建，同一层的目录相互独立，在 threads 个线程中并行创建
+     *
+     * @param entryNames 条目名称，以 / 结尾的为目录条目
+     * @param threads    线程数
+     * @throws IOException 创建失败
+     */
+    void createSkeleton(Collection<String> entryNames, int threads) throws IOException {
+        TreeMap<Integer, List<Path>> levels = new TreeMap<>();
+        Set<Path> pending = new HashSet<>();
+        for (String entryName : entryNames) {
+            Path path = resolve(entryName);
+            Path dir = entryName.endsWith("/") ? path : path.getParent();
+            while (dir != null && !created.contains(dir) && pending.add(dir)) {
+                levels.computeIfAbsent(dir.getNameCount(), depth -> new ArrayList<>()).add(dir);
+                dir = dir.getParent();
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (List<Path> level : levels.values()) {
+                pool.submit(() -> level.parallelStream().forEach(DirectoryCache::createDirectoryUnchecked)).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating directories", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof UncheckedIOException ? ((UncheckedIOException) cause).getCause()
+                    : new IOException("Create directories failed", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+        created.addAll(pending);
+    }
+
+    /**
+     * 已缓存的目录数
+     *
+     * @return 目录数
+     */
+    int size() {
+        return created.size();
+    }
+
+    private void createDirectories(Path dir) throws IOException {
+        if (dir == null || created.contains(dir)) {
+            return;
+        }
+        createDirectories(dir.getParent());
+        createDirectory(dir);
+        created.add(dir);
+    }
+
+    /**
+     * 创建单个目录，父目录必须已经存在；已经存在的目录直接返回，不需要先检查
+     */
+    private static void createDirectory(Path dir) throws IOException {
+        try {
+            Files.createDirectory(dir);
+        } catch (FileAlreadyExistsException e) {
+            if (!Files.isDirectory(dir)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void createDirectoryUnchecked(Path dir) {
+        try {
+            createDirectory(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.ysx.utils.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * 并行删除目录树
+ * 使用 DirectoryStream 逐个读取目录项，不会一次性生成整个目录的文件数组；
+ * 每个子目录是一个 fork-join 任务，大目录中的文件按批拆分成多个任务，由 ForkJoinPool 并发删除；
+ * 不跟随符号链接，只删除链接本身
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class DirectoryCleaner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectoryCleaner.class);
+
+    /**
+     * 每个任务删除的文件数
+     */
+    private static final int BATCH_SIZE = 512;
+
+    /**
+     * 每删除多少个条目回调一次进度
+     */
+    static final int PROGRESS_INTERVAL = 1024;
+
+    private final AtomicLong deletedCount = new AtomicLong();
+
+    /**
+     * 进度回调，参数为已删除的条目数，为 null 时不回调
+     */
+    private final LongConsumer progress;
+
+    DirectoryCleaner(LongConsumer progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * 删除目录中的所有内容，保留目录本身
+     *
+     * @param dir     目录
+     * @param threads 线程数
+     * @return 删除的条目数（文件、符号链接和目录）
+     * @throws IOException 删除失败
+     */
+    long clean(Path dir, int threads) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return delete(dir, false, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 把目录中的所有内容移动到同级的回收目录，然后在后台删除回收目录
+     * 移动是同一个文件系统内的重命名，返回时目录已经为空；无法重命名的条目在调用线程中直接删除
+     *
+     * @param dir     目录
+     * @param threads 后台删除的线程数
+     * @return 后台删除的结果，值为删除的条目数（不包括回收目录本身）
+     * @throws IOException 创建回收目录或者删除失败
+     */
+    CompletableFuture<Long> cleanInBackground(Path dir, int threads) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        Path parent = dir.toAbsolutePath().getParent();
+        if (null == parent) {
+            throw new IOException("Can not clean root directory in background: " + dir);
+        }
+        Path trash = Files.createTempDirectory(parent, "." + dir.getFileName() + ".trash-");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+            for (Path child : children) {
+                try {
+                    Files.move(child, trash.resolve(child.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    LOGGER.warn("Move to trash failed, delete in place: {}", child, e);
+                    deleteEntry(child, pool);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            pool.shutdown();
+            throw e;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                long count = delete(trash, true, pool);
+                // 回收目录本身不计入
+                return count - 1;
+            } catch (IOException e) {
+                LOGGER.error("Delete trash directory exception: {}", trash, e);
+                throw new UncheckedIOException(e);
+            }
+        }, pool).whenComplete((count, e) -> pool.shutdown());
+    }
+
+    /**
+     * 已删除的条目数
+     *
+     * @return 条目数
+     */
+    long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    private void deleteEntry(Path path, ForkJoinPool pool) throws IOException {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            delete(path, true, pool);
+        } else {
+            deleteFile(path);
+        }
+    }
+
+    private long delete(Path dir, boolean deleteSelf, ForkJoinPool pool) throws IOException {
+        long before = deletedCount.get();
+        try {
+            pool.invoke(new DeleteDirectoryTask(dir, deleteSelf));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long deleted = deletedCount.get() - before;
+        if (progress != null) {
+            progress.accept(deletedCount.get());
+        }
+        return deleted;
+    }
+
+    private void deleteFile(Path path) throws IOException {
+        try {
+            Files.delete(path);
+        } catch (NoSuchFileException e) {
+            // 已经被其他程序删除
+            return;
+        }
+        deleted();
+    }
+
+    private void deleted() {
+        long count = deletedCount.incrementAndGet();
+        if (progress != null && count % PROGRESS_INTERVAL == 0) {
+            progress.accept(count);
+        }
+    }
+
+    /**
+     * 删除一个目录中的内容：子目录各自 fork 一个任务，文件每 BATCH_SIZE 个 fork 一个任务
+     */
+    @SuppressWarnings("serial")
+    private final class DeleteDirectoryTask extends RecursiveAction {
+
+        private final Path dir;
+
+        private final boolean deleteSelf;
+
+        DeleteDirectoryTask(Path dir, boolean deleteSelf) {
+            this.dir = dir;
+            this.deleteSelf = deleteSelf;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                List<ForkJoinTask<?>> subtasks = new ArrayList<>();
+                List<Path> batch = new ArrayList<>(BATCH_SIZE);
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+                    for (Path child : children) {
+                        BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class,
+                                LinkOption.NOFOLLOW_LINKS);
+                        if (attributes.isDirectory()) {
+                            subtasks.add(new DeleteDirectoryTask(child, true).fork());
+                            continue;
+                        }
+                        batch.add(child);
+                        if (batch.size() == BATCH_SIZE) {
+                            subtasks.add(new DeleteFilesTask(batch).fork());
+                            batch = new ArrayList<>(BATCH_SIZE);
+                        }
+                    }
+                }
+                new DeleteFilesTask(batch).compute();
+                for (ForkJoinTask<?> subtask : subtasks) {
+                    subtask.join();
+                }
+                if (deleteSelf) {
+                    Files.delete(dir);
+                    deleted();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 删除一批文件（包括符号链接）
+     */
+    @SuppressWarnings("serial")
+    private final class DeleteFilesTask extends RecursiveAction {
+
+        private final List<Path> files;
+
+        DeleteFilesTask(List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                for (Path file : files) {
+                    deleteFile(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
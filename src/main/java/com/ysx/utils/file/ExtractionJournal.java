@@ -0,0 +1,334 @@
+package com.ysx.utils.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可恢复解压的日志
+ * 按顺序记录已经完成的条目，以及每个条目结束后下一个 tar 条目头在解压后数据中的位置；
+ * 同时记录 gzip 成员的起始位置作为检查点，重新开始时可以从检查点直接定位压缩数据，不需要从头解压
+ * <p>
+ * 文件格式：魔数 "TGZJ"、版本号、归档文件大小、归档文件修改时间，之后是追加的记录：
+ * 'C' 检查点（压缩数据位置、解压后位置），'E' 条目（名称、大小，目录为 -1、下一个条目头的位置）。
+ * 最后一条记录可能因为进程退出而不完整，读取时忽略
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class ExtractionJournal implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExtractionJournal.class);
+
+    /**
+     * 日志文件名后缀
+     */
+    static final String JOURNAL_SUFFIX = ".journal";
+
+    /**
+     * 目录条目的大小
+     */
+    static final long DIRECTORY = -1;
+
+    /**
+     * "TGZJ"
+     */
+    private static final int MAGIC = 0x54475A4A;
+
+    private static final int VERSION = 1;
+
+    private static final byte CHECKPOINT = 'C';
+
+    private static final byte ENTRY = 'E';
+
+    /**
+     * 每追加多少个条目记录刷新一次日志文件，进程异常退出时最多重新解压这么多个条目
+     */
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final Path journalFile;
+
+    private final long archiveSize;
+
+    private final long archiveModified;
+
+    /**
+     * 检查点，按解压后位置递增：{压缩数据位置, 解压后位置}
+     */
+    private final List<long[]> checkpoints = new ArrayList<>();
+
+    /**
+     * 从日志文件中读取的已完成条目
+     */
+    private final List<Entry> entries = new ArrayList<>();
+
+    private DataOutputStream out;
+
+    private int unflushed;
+
+    /**
+     * 已完成的条目
+     */
+    static final class Entry {
+
+        private final String name;
+
+        private final long size;
+
+        private final long nextHeaderOffset;
+
+        Entry(String name, long size, long nextHeaderOffset) {
+            this.name = name;
+            this.size = size;
+            this.nextHeaderOffset = nextHeaderOffset;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getNextHeaderOffset() {
+            return nextHeaderOffset;
+        }
+    }
+
+    private ExtractionJournal(Path journalFile, long archiveSize, long archiveModified) {
+        this.journalFile = journalFile;
+        this.archiveSize = archiveSize;
+        this.archiveModified = archiveModified;
+    }
+
+    /**
+     * 目标目录对应的日志文件：与目标目录同级的隐藏文件 .目录名.journal，不会混入解压出来的文件
+     *
+     * @param destDir 目标目录
+     * @return 日志文件
+     */
+    static Path journalFileOf(Path destDir) {
+        Path absolute = destDir.toAbsolutePath().normalize();
+        return absolute.resolveSibling("." + absolute.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * 新建空的日志
+     *
+     * @param journalFile     日志文件
+     * @param archiveSize     归档文件大小
+     * @param archiveModified 归档文件修改时间
+     * @return 日志
+     */
+    static ExtractionJournal create(Path journalFile, long archiveSize, long archiveModified) {
+        return new ExtractionJournal(journalFile, archiveSize, archiveModified);
+    }
+
+    /**
+     * 读取日志文件
+     *
+     * @param journalFile     日志文件
+     * @param archiveSize     归档文件大小
+     * @param archiveModified 归档文件修改时间
+     * @return 日志；日志文件不存在、格式不正确或者不是这个归档的日志时返回 null
+     * @throws IOException 读取失败
+     */
+    static ExtractionJournal load(Path journalFile, long archiveSize, long archiveModified) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION
+                    || dis.readLong() != archiveSize || dis.readLong() != archiveModified) {
+                LOGGER.info("Journal does not match the archive: {}", journalFile);
+                return null;
+            }
+            ExtractionJournal journal = new ExtractionJournal(journalFile, archiveSize, archiveModified);
+            try {
+                while (true) {
+                    int type = dis.read();
+                    if (type == CHECKPOINT) {
+                        journal.checkpoints.add(new long[]{dis.readLong(), dis.readLong()});
+                    } else if (type == ENTRY) {
+                        journal.entries.add(new Entry(dis.readUTF(), dis.readLong(), dis.readLong()));
+                    } else {
+                        // 文件末尾，或者最后一条记录写了一半
+                        break;
+                    }
+                }
+            } catch (EOFException e) {
+                LOGGER.info("Ignore incomplete last record of journal: {}", journalFile);
+            }
+            return journal;
+        } catch (EOFException e) {
+            LOGGER.info("Journal header is incomplete: {}", journalFile);
+            return null;
+        }
+    }
+
+    /**
+     * 校验日志中已完成的条目在目标目录中是否完好：目录存在，文件存在并且大小一致
+     * 从第一个不完好的条目开始，之后的记录全部丢弃，这些条目会重新解压
+     *
+     * @param directories 目标目录
+     * @return 重新开始解压的位置（下一个条目头在解压后数据中的位置）
+     * @throws IOException 日志中的条目位于目标目录之外
+     */
+    long verify(DirectoryCache directories) throws IOException {
+        int valid = 0;
+        for (Entry entry : entries) {
+            if (!isComplete(directories.resolve(entry.getName()), entry.getSize())) {
+                LOGGER.info("Entry is incomplete, resume from it: {}", entry.getName());
+                break;
+            }
+            valid++;
+        }
+        entries.subList(valid, entries.size()).clear();
+        return valid == 0 ? 0 : entries.get(valid - 1).getNextHeaderOffset();
+    }
+
+    /**
+     * 解压后位置不超过 offset 的最后一个检查点
+     *
+     * @param offset 解压后的位置
+     * @return {压缩数据位置, 解压后位置}，没有检查点时从头开始
+     */
+    long[] checkpointBefore(long offset) {
+        long[] result = {0, 0};
+        for (long[] checkpoint : checkpoints) {
+            if (checkpoint[1] > offset) {
+                break;
+            }
+            result = checkpoint;
+        }
+        return result;
+    }
+
+    /**
+     * 已完成的条目
+     *
+     * @return 条目
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * 重写日志文件（只保留校验通过的记录），之后的记录追加写入
+     * 先写临时文件再替换，重写过程中退出也不会丢失原来的日志
+     *
+     * @throws IOException 写入失败
+     */
+    void start() throws IOException {
+        Path tempFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeLong(archiveSize);
+            dos.writeLong(archiveModified);
+            for (long[] checkpoint : checkpoints) {
+                writeCheckpoint(dos, checkpoint);
+            }
+            for (Entry entry : entries) {
+                writeEntry(dos, entry);
+            }
+        }
+        // 已完成的条目只在校验时使用
+        entries.clear();
+        Files.move(tempFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journalFile,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * 记录 gzip 成员的起始位置，与上一个检查点的距离小于 spacing 时忽略
+     *
+     * @param compressedOffset   成员在压缩数据中的起始位置
+     * @param uncompressedOffset 成员第一个字节在解压后数据中的位置
+     * @param spacing            相邻检查点之间至少间隔的解压后字节数
+     * @throws IOException 写入失败
+     */
+    void addCheckpoint(long compressedOffset, long uncompressedOffset, long spacing) throws IOException {
+        if (!checkpoints.isEmpty()
+                && uncompressedOffset - checkpoints.get(checkpoints.size() - 1)[1] < spacing) {
+            return;
+        }
+        long[] checkpoint = {compressedOffset, uncompressedOffset};
+        checkpoints.add(checkpoint);
+        writeCheckpoint(out, checkpoint);
+    }
+
+    /**
+     * 记录一个已完成的条目
+     *
+     * @param name             条目名称
+     * @param size             文件大小，目录为 DIRECTORY
+     * @param nextHeaderOffset 下一个条目头在解压后数据中的位置
+     * @throws IOException 写入失败
+     */
+    void addEntry(String name, long size, long nextHeaderOffset) throws IOException {
+        writeEntry(out, new Entry(name, size, nextHeaderOffset));
+        if (++unflushed >= FLUSH_INTERVAL) {
+            out.flush();
+            unflushed = 0;
+        }
+    }
+
+    /**
+     * 解压完成后删除日志文件
+     *
+     * @throws IOException 删除失败
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(journalFile);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private static boolean isComplete(Path path, long size) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+            return size == DIRECTORY ? attributes.isDirectory() : attributes.isRegularFile() && attributes.size() == size;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void writeCheckpoint(DataOutputStream dos, long[] checkpoint) throws IOException {
+        dos.writeByte(CHECKPOINT);
+        dos.writeLong(checkpoint[0]);
+        dos.writeLong(checkpoint[1]);
+    }
+
+    private static void writeEntry(DataOutputStream dos, Entry entry) throws IOException {
+        dos.writeByte(ENTRY);
+        dos.writeUTF(entry.getName());
+        dos.writeLong(entry.getSize());
+        dos.writeLong(entry.getNextHeaderOffset());
+    }
+}
@@ -1,12 +1,15 @@
 package com.ysx.utils.file;
 
+import com.ysx.utils.threadpool.ThreadPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
 
 /**
  * @author youngbear
@@ -32,12 +35,61 @@ public class FileUtils {
         }
     }
 
+    /**
+     * 删除目录中的所有内容，保留目录本身，使用 ThreadPoolConfig.calculateCorePoolCount() 个线程并行删除
+     *
+     * @param path 目录
+     * @throws FileException 目录不存在或者删除失败
+     */
     public static void cleanDirectory(String path) throws FileException {
+        cleanDirectory(path, ThreadPoolConfig.calculateCorePoolCount(), null);
+    }
+
+    /**
+     * 删除目录中的所有内容，保留目录本身
+     * 逐个读取目录项，子目录和大目录中的文件分批在 fork-join 线程池中并行删除；不跟随符号链接，只删除链接本身
+     *
+     * @param path     目录
+     * @param threads  线程数
+     * @param progress 进度回调，参数为已删除的条目数，每删除 1024 个条目以及结束时在删除线程中回调，可以为 null
+     * @return 删除的条目数（文件、符号链接和目录）
+     * @throws FileException 目录不存在或者删除失败
+     */
+    public static long cleanDirectory(String path, int threads, LongConsumer progress) throws FileException {
+        Path dir = checkDirectory(path);
         try {
-            org.apache.commons.io.FileUtils.cleanDirectory(new File(path));
+            return new DirectoryCleaner(progress).clean(dir, threads);
         } catch (IOException e) {
             LOGGER.error("cleanDirectory exception!", e);
-            throw new FileException("cleanDirectory exception!");
+            throw new FileException("cleanDirectory exception!", e);
+        }
+    }
+
+    /**
+     * 清空目录，不阻塞调用线程
+     * 目录中的内容先重命名到同级的隐藏回收目录（.目录名.trash-xxx），返回时目录已经为空，
+     * 回收目录在后台线程中并行删除；无法重命名的条目（例如跨文件系统的挂载点）在调用线程中直接删除
+     *
+     * @param path    目录
+     * @param threads 后台删除的线程数
+     * @return 后台删除的结果，值为删除的条目数
+     * @throws FileException 目录不存在，或者无法在父目录中创建回收目录
+     */
+    public static CompletableFuture<Long> cleanDirectoryInBackground(String path, int threads) throws FileException {
+        Path dir = checkDirectory(path);
+        try {
+            return new DirectoryCleaner(null).cleanInBackground(dir, threads);
+        } catch (IOException e) {
+            LOGGER.error("cleanDirectoryInBackground exception!", e);
+            throw new FileException("cleanDirectoryInBackground exception!", e);
+        }
+    }
+
+    private static Path checkDirectory(String path) throws FileException {
+        if (null == path || !Files.isDirectory(Paths.get(path))) {
+            LOGGER.error("Directory does not exist: {}", path);
+            throw new FileException("Directory does not exist: " + path);
         }
+        return Paths.get(path);
     }
 }
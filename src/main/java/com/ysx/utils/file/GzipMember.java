@@ -0,0 +1,199 @@
+package com.ysx.utils.file;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 分块并行 gzip 的成员 (member) 格式
+ * 每个数据块压缩成一个完整的 gzip 成员，多个成员首尾相连仍然是标准的 gzip 文件，gzip -d 等工具可以直接解压。
+ * 成员头部带有一个 FEXTRA 扩展字段 (RFC 1952 2.3.1.1)，子字段 ID 为 'Y' 'B'，内容为成员的总字节数和解压后的字节数，
+ * 解压时不需要解压数据就能找到下一个成员的位置，从而可以并行解压
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class GzipMember {
+
+    /**
+     * 成员头部长度：固定头部 10 字节 + XLEN 2 字节 + 子字段头 4 字节 + 子字段内容 8 字节
+     */
+    static final int HEADER_LENGTH = 24;
+
+    /**
+     * 尾部长度：CRC32 4 字节 + ISIZE 4 字节
+     */
+    static final int TRAILER_LENGTH = 8;
+
+    /**
+     * 单个成员允许的最大字节数，防止损坏的头部导致分配过大的数组
+     */
+    static final int MAX_MEMBER_LENGTH = 64 * 1024 * 1024;
+
+    private static final int ID1 = 0x1F;
+
+    private static final int ID2 = 0x8B;
+
+    private static final int CM_DEFLATE = 8;
+
+    private static final int FLG_FEXTRA = 0x04;
+
+    /**
+     * 操作系统：未知
+     */
+    private static final int OS_UNKNOWN = 0xFF;
+
+    private static final int XLEN = 12;
+
+    private static final int SI1 = 'Y';
+
+    private static final int SI2 = 'B';
+
+    private static final int SUBFIELD_LENGTH = 8;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private GzipMember() {
+    }
+
+    /**
+     * 把一个数据块压缩成完整的 gzip 成员
+     *
+     * @param data     数据
+     * @param length   数据长度
+     * @param deflater 压缩器，使用前会被重置
+     * @return gzip 成员
+     */
+    static byte[] compress(byte[] data, int length, Deflater deflater) {
+        deflater.reset();
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        byte[] member = new byte[HEADER_LENGTH + length + length / 1000 + 64 + TRAILER_LENGTH];
+        int position = HEADER_LENGTH;
+        while (!deflater.finished()) {
+            if (position == member.length - TRAILER_LENGTH) {
+                member = Arrays.copyOf(member, member.length * 2);
+            }
+            position += deflater.deflate(member, position, member.length - TRAILER_LENGTH - position);
+        }
+        int memberLength = position + TRAILER_LENGTH;
+
+        member[0] = (byte) ID1;
+        member[1] = (byte) ID2;
+        member[2] = CM_DEFLATE;
+        member[3] = FLG_FEXTRA;
+        // MTIME 和 XFL 为 0
+        member[9] = (byte) OS_UNKNOWN;
+        writeShort(member, 10, XLEN);
+        member[12] = SI1;
+        member[13] = SI2;
+        writeShort(member, 14, SUBFIELD_LENGTH);
+        writeInt(member, 16, memberLength);
+        writeInt(member, 20, length);
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        writeInt(member, position, (int) crc.getValue());
+        writeInt(member, position + 4, length);
+        return member.length == memberLength ? member : Arrays.copyOf(member, memberLength);
+    }
+
+    /**
+     * 解析成员头部
+     *
+     * @param header 成员头部，至少 HEADER_LENGTH 个字节
+     * @return 成员的总字节数，不是本格式的成员时返回 -1
+     * @throws IOException 成员长度非法
+     */
+    static int memberLength(byte[] header) throws IOException {
+        if ((header[0] & 0xFF) != ID1 || (header[1] & 0xFF) != ID2 || header[2] != CM_DEFLATE
+                || header[3] != FLG_FEXTRA || readShort(header, 10) != XLEN
+                || header[12] != SI1 || header[13] != SI2 || readShort(header, 14) != SUBFIELD_LENGTH) {
+            return -1;
+        }
+        int memberLength = readInt(header, 16);
+        if (memberLength < HEADER_LENGTH + TRAILER_LENGTH || memberLength > MAX_MEMBER_LENGTH
+                || readInt(header, 20) < 0 || readInt(header, 20) > MAX_MEMBER_LENGTH) {
+            throw new IOException("Invalid gzip member length: " + memberLength);
+        }
+        return memberLength;
+    }
+
+    /**
+     * 解压一个完整的成员，并校验 CRC32 和长度
+     *
+     * @param member   完整的成员
+     * @param inflater 解压器，使用前会被重置
+     * @return 解压后的数据
+     * @throws IOException 数据损坏
+     */
+    static byte[] inflate(byte[] member, Inflater inflater) throws IOException {
+        int trailer = member.length - TRAILER_LENGTH;
+        byte[] data = new byte[readInt(member, 20)];
+        inflater.reset();
+        inflater.setInput(member, HEADER_LENGTH, trailer - HEADER_LENGTH);
+        try {
+            int length = 0;
+            while (!inflater.finished()) {
+                int count = inflater.inflate(data, length, data.length - length);
+                if (count == 0 && (inflater.needsInput() || length == data.length)) {
+                    break;
+                }
+                length += count;
+            }
+            if (!inflater.finished() || length != data.length || inflater.getRemaining() != 0) {
+                throw new IOException("Corrupted gzip member");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted gzip member", e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        if (readInt(member, trailer) != (int) crc.getValue() || readInt(member, trailer + 4) != data.length) {
+            throw new IOException("Gzip member CRC32 mismatch");
+        }
+        return data;
+    }
+
+    /**
+     * 创建压缩/解压使用的线程池，线程为守护线程，调用者忘记关闭流时不会阻止 JVM 退出
+     *
+     * @param threads 线程数
+     * @return 线程池
+     */
+    static ExecutorService newExecutor(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "parallel-gzip-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static void writeShort(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        writeShort(bytes, offset, value);
+        writeShort(bytes, offset + 2, value >>> 16);
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return readShort(bytes, offset) | readShort(bytes, offset + 2) << 16;
+    }
+}
@@ -0,0 +1,248 @@
+package com.ysx.utils.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 按成员解压 gzip 数据，支持多个成员首尾相连
+ * 与 GzipCompressorInputStream 不同，这里精确记录每个成员在压缩数据中的起始位置和对应的解压后位置，
+ * 用于建立随机访问索引，也可以从索引记录的成员起始位置开始解压
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class GzipMemberInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int FHCRC = 0x02;
+
+    private static final int FEXTRA = 0x04;
+
+    private static final int FNAME = 0x08;
+
+    private static final int FCOMMENT = 0x10;
+
+    private static final int FRESERVED = 0xE0;
+
+    /**
+     * 成员开始时的回调
+     */
+    interface MemberListener {
+
+        /**
+         * 开始解压一个新的成员
+         *
+         * @param compressedOffset   成员在压缩数据中的起始位置
+         * @param uncompressedOffset 成员第一个字节在解压后数据中的位置
+         */
+        void onMemberStart(long compressedOffset, long uncompressedOffset);
+    }
+
+    private final InputStream in;
+
+    private final MemberListener listener;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] single = new byte[1];
+
+    private int position;
+
+    private int limit;
+
+    /**
+     * buffer[0] 在压缩数据中的位置
+     */
+    private long bufferOffset;
+
+    private long uncompressedOffset;
+
+    private long memberLength;
+
+    private boolean inMember;
+
+    private boolean memberRead;
+
+    private boolean endOfStream;
+
+    private boolean closed;
+
+    /**
+     * 构造函数
+     *
+     * @param in                 压缩数据，必须位于某个成员的起始位置
+     * @param compressedOffset   in 当前位置在整个压缩数据中的位置
+     * @param uncompressedOffset 当前成员第一个字节在解压后数据中的位置
+     * @param listener           成员开始时的回调，可以为 null
+     */
+    GzipMemberInputStream(InputStream in, long compressedOffset, long uncompressedOffset, MemberListener listener) {
+        this.in = Objects.requireNonNull(in, "in");
+        this.bufferOffset = compressedOffset;
+        this.uncompressedOffset = uncompressedOffset;
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (!endOfStream) {
+            if (!inMember) {
+                startMember();
+                continue;
+            }
+            int count;
+            try {
+                count = inflater.inflate(b, off, len);
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted gzip data", e);
+            }
+            position = limit - inflater.getRemaining();
+            if (count > 0) {
+                crc.update(b, off, count);
+                memberLength += count;
+                uncompressedOffset += count;
+                return count;
+            }
+            if (inflater.finished()) {
+                readTrailer();
+            } else if (inflater.needsInput()) {
+                if (!fillBuffer()) {
+                    throw new EOFException("Truncated gzip data");
+                }
+                inflater.setInput(buffer, position, limit - position);
+            } else if (inflater.needsDictionary()) {
+                throw new IOException("Corrupted gzip data: dictionary required");
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            inflater.end();
+            in.close();
+        }
+    }
+
+    /**
+     * 解析成员头部，到达数据末尾时结束
+     */
+    private void startMember() throws IOException {
+        if (position == limit && !fillBuffer()) {
+            if (!memberRead) {
+                throw new EOFException("Empty gzip data");
+            }
+            endOfStream = true;
+            return;
+        }
+        long memberOffset = bufferOffset + position;
+        if ((buffer[position] & 0xFF) != 0x1F && memberRead) {
+            // 成员之后的填充数据（例如 tar 的补零），与 gzip 工具一样忽略
+            endOfStream = true;
+            return;
+        }
+        if (readByte() != 0x1F || readByte() != 0x8B || readByte() != 8) {
+            throw new IOException("Not in gzip format");
+        }
+        int flags = readByte();
+        if ((flags & FRESERVED) != 0) {
+            throw new IOException("Unsupported gzip flags: " + flags);
+        }
+        // MTIME 4 字节、XFL、OS
+        skipBytes(6);
+        if ((flags & FEXTRA) != 0) {
+            skipBytes(readByte() | readByte() << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FCOMMENT) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & FHCRC) != 0) {
+            skipBytes(2);
+        }
+        if (listener != null) {
+            listener.onMemberStart(memberOffset, uncompressedOffset);
+        }
+        inflater.reset();
+        crc.reset();
+        memberLength = 0;
+        inflater.setInput(buffer, position, limit - position);
+        inMember = true;
+        memberRead = true;
+    }
+
+    private void readTrailer() throws IOException {
+        long expectedCrc = readInt();
+        long expectedLength = readInt();
+        if (expectedCrc != crc.getValue() || expectedLength != (memberLength & 0xFFFFFFFFL)) {
+            throw new IOException("Gzip member CRC32 mismatch");
+        }
+        inMember = false;
+    }
+
+    private long readInt() throws IOException {
+        return readByte() | readByte() << 8 | readByte() << 16 | (long) readByte() << 24;
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (readByte() != 0) {
+            // 跳过以 0 结尾的文件名或注释
+        }
+    }
+
+    private void skipBytes(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            readByte();
+        }
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fillBuffer()) {
+            throw new EOFException("Truncated gzip data");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * 缓冲中的数据已经全部用完时读取下一段压缩数据
+     *
+     * @return 是否读到数据
+     */
+    private boolean fillBuffer() throws IOException {
+        bufferOffset += limit;
+        position = 0;
+        limit = 0;
+        int count = in.readNBytes(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        limit = count;
+        return true;
+    }
+}
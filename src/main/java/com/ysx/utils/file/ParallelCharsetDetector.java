@@ -0,0 +1,105 @@
+package com.ysx.utils.file;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 并行评估候选编码
+ * 每个候选编码一个任务，在 ForkJoinPool 中对同一份只读数据解码，
+ * 优先级更高的候选编码全部失败、且当前候选编码解码成功时，即确定结果，其余任务在下一个分块处退出
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class ParallelCharsetDetector {
+
+    /**
+     * 每个分块解码的字符数，每解码完一个分块检查一次是否已经被取消
+     */
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    private ParallelCharsetDetector() {
+    }
+
+    /**
+     * 返回第一个（优先级最高的）可以有效解码的候选编码
+     *
+     * @param bytes      文件字节数组
+     * @param candidates 按优先级排序的候选编码
+     * @return 优先级最高的有效编码，全部无效时返回 null
+     */
+    static Charset detect(byte[] bytes, Charset[] candidates) {
+        ByteBuffer shared = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        AtomicReferenceArray<Boolean> results = new AtomicReferenceArray<>(candidates.length);
+        CompletableFuture<Charset> winner = new CompletableFuture<>();
+
+        for (int i = 0; i < candidates.length; i++) {
+            int index = i;
+            CompletableFuture.runAsync(() -> {
+                results.set(index, isValid(shared.duplicate(), candidates[index], winner));
+                resolve(results, candidates, winner);
+            }, ForkJoinPool.commonPool()).exceptionally(e -> {
+                winner.completeExceptionally(e);
+                return null;
+            });
+        }
+        return winner.join();
+    }
+
+    /**
+     * 按优先级检查结果，优先级更高的候选编码还没有结果时不能确定
+     *
+     * @param results    每个候选编码的结果，null 表示还没有结果
+     * @param candidates 按优先级排序的候选编码
+     * @param winner     最终结果
+     */
+    private static void resolve(AtomicReferenceArray<Boolean> results, Charset[] candidates,
+                                CompletableFuture<Charset> winner) {
+        for (int i = 0; i < candidates.length; i++) {
+            Boolean valid = results.get(i);
+            if (valid == null) {
+                return;
+            }
+            if (valid) {
+                winner.complete(candidates[i]);
+                return;
+            }
+        }
+        winner.complete(null);
+    }
+
+    /**
+     * 分块严格解码，每个分块之间检查结果是否已经确定
+     *
+     * @param in      待解码的数据
+     * @param charset 候选编码
+     * @param winner  最终结果，已完成时表示当前任务被取消
+     * @return 是否可以有效解码，被取消时返回 false
+     */
+    private static boolean isValid(ByteBuffer in, Charset charset, CompletableFuture<Charset> winner) {
+        CharsetDecoder decoder = charset.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPORT);
+        decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharBuffer out = CharBuffer.allocate(CHUNK_CHARS);
+        while (!winner.isDone()) {
+            out.clear();
+            CoderResult result = decoder.decode(in, out, true);
+            if (result.isError()) {
+                return false;
+            }
+            if (result.isUnderflow()) {
+                out.clear();
+                return !decoder.flush(out).isError();
+            }
+        }
+        return false;
+    }
+}
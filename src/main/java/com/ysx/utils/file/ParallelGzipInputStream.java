@@ -0,0 +1,228 @@
+package com.ysx.utils.file;
+
+import com.ysx.utils.threadpool.ThreadPoolConfig;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Inflater;
+
+/**
+ * 并行 gzip 解压输入流
+ * 由 {@link ParallelGzipOutputStream} 生成的成员在头部记录了成员长度，读线程只需按长度切分，
+ * 多个成员在线程池中并行解压，再按顺序输出；
+ * 遇到其他工具生成的 gzip 数据时（没有成员长度，无法在不解压的情况下找到成员边界），
+ * 从该位置开始回退为单线程解压，支持多个成员首尾相连
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream in;
+
+    private final ExecutorService executor;
+
+    private final int maxInFlight;
+
+    /**
+     * 空闲的解压器，解压任务之间复用，关闭流时释放本地内存
+     */
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 按顺序排列的解压任务
+     */
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private final byte[] single = new byte[1];
+
+    private byte[] current = EMPTY;
+
+    private int currentPosition;
+
+    /**
+     * 单线程解压其余数据，为 null 表示仍在并行解压
+     */
+    private InputStream fallback;
+
+    /**
+     * 原始输入已经全部切分完毕
+     */
+    private boolean endOfInput;
+
+    /**
+     * 是否读到过成员，用于区分空输入
+     */
+    private boolean memberRead;
+
+    private volatile boolean closed;
+
+    /**
+     * 使用 ThreadPoolConfig.calculateCorePoolCount() 个解压线程
+     *
+     * @param in gzip 输入流
+     */
+    public ParallelGzipInputStream(InputStream in) {
+        this(in, ThreadPoolConfig.calculateCorePoolCount());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param in      gzip 输入流
+     * @param threads 解压线程数
+     */
+    public ParallelGzipInputStream(InputStream in, int threads) {
+        this.in = Objects.requireNonNull(in, "in");
+        this.executor = GzipMember.newExecutor(threads);
+        this.maxInFlight = 2 * threads;
+    }
+
+    /**
+     * 是否正在使用并行解压，即目前为止读到的成员都带有成员长度
+     *
+     * @return 是否正在并行解压
+     */
+    public boolean isParallel() {
+        return fallback == null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureOpen();
+        if (len == 0) {
+            return 0;
+        }
+        while (currentPosition == current.length) {
+            if (!advance()) {
+                return fallback == null ? -1 : fallback.read(b, off, len);
+            }
+        }
+        int count = Math.min(len, current.length - currentPosition);
+        System.arraycopy(current, currentPosition, b, off, count);
+        currentPosition += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return current.length - currentPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdownNow();
+        Inflater inflater;
+        while (null != (inflater = inflaters.poll())) {
+            inflater.end();
+        }
+        if (fallback != null) {
+            fallback.close();
+        }
+        in.close();
+    }
+
+    /**
+     * 取下一个解压完成的成员
+     *
+     * @return 是否取到，false 表示并行解压部分已经结束
+     */
+    private boolean advance() throws IOException {
+        while (pending.size() < maxInFlight && !endOfInput) {
+            readMember();
+        }
+        if (pending.isEmpty()) {
+            return false;
+        }
+        try {
+            current = pending.removeFirst().get();
+            currentPosition = 0;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Decompress gzip member failed", e.getCause());
+        }
+    }
+
+    /**
+     * 读取一个成员并提交解压，不是本格式的成员时切换为单线程解压
+     */
+    private void readMember() throws IOException {
+        byte[] header = new byte[GzipMember.HEADER_LENGTH];
+        int headerLength = in.readNBytes(header, 0, header.length);
+        if (headerLength == 0 && memberRead) {
+            endOfInput = true;
+            return;
+        }
+        int memberLength = headerLength == header.length ? GzipMember.memberLength(header) : -1;
+        if (memberLength < 0) {
+            endOfInput = true;
+            fallback = GzipCompressorInputStream.builder()
+                    .setInputStream(new SequenceInputStream(new ByteArrayInputStream(header, 0, headerLength), in))
+                    .setDecompressConcatenated(true)
+                    .get();
+            return;
+        }
+        byte[] member = Arrays.copyOf(header, memberLength);
+        if (in.readNBytes(member, header.length, memberLength - header.length) != memberLength - header.length) {
+            throw new EOFException("Truncated gzip member");
+        }
+        memberRead = true;
+        pending.addLast(executor.submit(() -> inflate(member)));
+    }
+
+    /**
+     * 在解压线程中解压一个成员，使用完的解压器放回空闲队列
+     */
+    private byte[] inflate(byte[] member) throws IOException {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            return GzipMember.inflate(member, inflater);
+        } finally {
+            inflaters.offer(inflater);
+            // 流已经关闭时 close 可能已经清空过队列，由放回的线程释放
+            if (closed && inflaters.remove(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.ysx.utils.file;
+
+import com.ysx.utils.threadpool.ThreadPoolConfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * 分块并行 gzip 压缩输出流（类似 pigz）
+ * 输入按 blockSize 切分成数据块，每个数据块在线程池中独立压缩成一个 gzip 成员，按顺序写出，
+ * 输出是标准的多成员 gzip 文件，可以被任意 gzip 工具解压，使用 {@link ParallelGzipInputStream} 解压时可以并行解压
+ * 同时在压缩中的数据块数有上限，内存占用约为 2 × threads × blockSize
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    /**
+     * 默认数据块大小
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private final OutputStream out;
+
+    private final ExecutorService executor;
+
+    private final int blockSize;
+
+    private final int maxInFlight;
+
+    private final int level;
+
+    /**
+     * 空闲的压缩器，压缩任务之间复用，关闭流时释放本地内存
+     */
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 按提交顺序排列的压缩任务
+     */
+    private final Deque<PendingBlock> pending = new ArrayDeque<>();
+
+    /**
+     * 压缩完成、可以复用的数据块
+     */
+    private final Deque<byte[]> freeBlocks = new ArrayDeque<>();
+
+    private byte[] block;
+
+    private int blockLength;
+
+    /**
+     * 是否已经写出过成员，空输入也需要写出一个空成员
+     */
+    private boolean memberWritten;
+
+    private volatile boolean closed;
+
+    /**
+     * 使用默认压缩级别、默认数据块大小和 ThreadPoolConfig.calculateCorePoolCount() 个压缩线程
+     *
+     * @param out 输出流
+     */
+    public ParallelGzipOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE, ThreadPoolConfig.calculateCorePoolCount());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param out       输出流
+     * @param level     压缩级别 (0~9)，或者 Deflater.DEFAULT_COMPRESSION
+     * @param blockSize 数据块大小
+     * @param threads   压缩线程数
+     */
+    public ParallelGzipOutputStream(OutputStream out, int level, int blockSize, int threads) {
+        if (blockSize <= 0 || blockSize > GzipMember.MAX_MEMBER_LENGTH / 2) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        this.out = Objects.requireNonNull(out, "out");
+        this.executor = GzipMember.newExecutor(threads);
+        this.blockSize = blockSize;
+        this.maxInFlight = 2 * threads;
+        this.level = level;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureOpen();
+        while (len > 0) {
+            int count = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, count);
+            blockLength += count;
+            off += count;
+            len -= count;
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * 压缩并写出已缓存的数据，未满的数据块会单独成为一个成员
+     *
+     * @throws IOException 压缩或写出失败
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLength > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        out.flush();
+    }
+
+    /**
+     * 写完所有数据，但不关闭底层输出流
+     *
+     * @throws IOException 压缩或写出失败
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        if (blockLength > 0 || !memberWritten && pending.isEmpty()) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            executor.shutdownNow();
+            Deflater deflater;
+            while (null != (deflater = deflaters.poll())) {
+                deflater.end();
+            }
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] data = block;
+        int length = blockLength;
+        Future<byte[]> future = executor.submit(() -> compress(data, length));
+        pending.addLast(new PendingBlock(data, future));
+        block = freeBlocks.isEmpty() ? new byte[blockSize] : freeBlocks.pop();
+        blockLength = 0;
+        if (pending.size() >= maxInFlight) {
+            writeNext();
+        }
+    }
+
+    /**
+     * 在压缩线程中压缩一个数据块，使用完的压缩器放回空闲队列
+     */
+    private byte[] compress(byte[] data, int length) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            return GzipMember.compress(data, length, deflater);
+        } finally {
+            deflaters.offer(deflater);
+            // 流已经关闭时 close 可能已经清空过队列，由放回的线程释放
+            if (closed && deflaters.remove(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * 等待最早提交的数据块压缩完成并写出
+     */
+    private void writeNext() throws IOException {
+        PendingBlock next = pending.removeFirst();
+        try {
+            out.write(next.member.get());
+            memberWritten = true;
+            freeBlocks.push(next.data);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Compress block failed", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private static final class PendingBlock {
+
+        private final byte[] data;
+
+        private final Future<byte[]> member;
+
+        PendingBlock(byte[] data, Future<byte[]> member) {
+            this.data = data;
+            this.member = member;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.ysx.utils.file;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * tar 流水线解压
+ * 调用线程负责解压 gzip 并按 tar 条目切分成数据块，写线程池并发地把数据块按位置写入文件，
+ * 每次解压从共享的 BufferPool 中取出固定数量的缓冲，写线程跟不上时调用线程阻塞等待空闲缓冲（背压），内存占用有上限，
+ * 解压结束后缓冲归还给 BufferPool，下一次解压可以复用
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class ParallelTarExtractor {
+
+    private final ExecutorService writers;
+
+    private final BufferPool sharedPool;
+
+    /**
+     * 本次解压可用的空闲数据块缓冲
+     */
+    private final BlockingQueue<ByteBuffer> bufferPool;
+
+    /**
+     * 每个数据块的大小
+     */
+    private final int chunkSize;
+
+    /**
+     * 计算每个文件条目的摘要，为 null 时不计算
+     */
+    private final MessageDigest digest;
+
+    /**
+     * 本次解压已经创建的目录
+     */
+    private final DirectoryCache directories;
+
+    /**
+     * 文件条目名称到摘要值（十六进制）的清单，按归档中的顺序
+     */
+    private final Map<String, String> manifest = new LinkedHashMap<>();
+
+    /**
+     * 第一个写入失败的异常
+     */
+    private final AtomicReference<IOException> firstError = new AtomicReference<>();
+
+    private ParallelTarExtractor(int writerThreads, BufferPool sharedPool, MessageDigest digest,
+                                 DirectoryCache directories) {
+        this.digest = digest;
+        this.directories = directories;
+        this.writers = Executors.newFixedThreadPool(writerThreads);
+        this.sharedPool = sharedPool;
+        this.chunkSize = sharedPool.bufferSize();
+        int bufferCount = 2 * writerThreads;
+        this.bufferPool = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            bufferPool.add(sharedPool.acquire());
+        }
+    }
+
+    /**
+     * 解压 tar 流中的所有条目到目标目录
+     *
+     * @param ais           tar 输入流
+     * @param destDirPath   目标目录
+     * @param writerThreads 写线程数
+     * @param sharedPool    数据块缓冲的来源
+     * @throws IOException 读取、写入或者创建目录失败
+     */
+    static void extract(TarArchiveInputStream ais, String destDirPath, int writerThreads, BufferPool sharedPool)
+            throws IOException {
+        extract(ais, destDirPath, writerThreads, sharedPool, null);
+    }
+
+    /**
+     * 解压 tar 流中的所有条目到目标目录，同时计算每个文件条目的摘要
+     * 摘要在调用线程中按顺序计算，使用的就是交给写线程写入的数据块，不需要解压后再读取一遍文件
+     *
+     * @param ais           tar 输入流
+     * @param destDirPath   目标目录
+     * @param writerThreads 写线程数
+     * @param sharedPool    数据块缓冲的来源
+     * @param digest        摘要算法，为 null 时不计算摘要
+     * @return 文件条目名称到摘要值（十六进制）的清单，不计算摘要时为空
+     * @throws IOException 读取、写入或者创建目录失败
+     */
+    static Map<String, String> extract(TarArchiveInputStream ais, String destDirPath, int writerThreads,
+                                       BufferPool sharedPool, MessageDigest digest)
+            throws IOException {
+        return extract(ais, writerThreads, sharedPool, digest, new DirectoryCache(destDirPath));
+    }
+
+    /**
+     * 解压 tar 流中的所有条目到目录缓存对应的目标目录
+     * 目录缓存中可以预先创建好目录骨架，已经缓存的目录不会再次创建
+     *
+     * @param ais           tar 输入流
+     * @param writerThreads 写线程数
+     * @param sharedPool    数据块缓冲的来源
+     * @param digest        摘要算法，为 null 时不计算摘要
+     * @param directories   目录缓存
+     * @return 文件条目名称到摘要值（十六进制）的清单，不计算摘要时为空
+     * @throws IOException 读取、写入或者创建目录失败
+     */
+    static Map<String, String> extract(TarArchiveInputStream ais, int writerThreads, BufferPool sharedPool,
+                                       MessageDigest digest, DirectoryCache directories) throws IOException {
+        if (writerThreads <= 0) {
+            throw new IllegalArgumentException("writerThreads must be positive: " + writerThreads);
+        }
+        ParallelTarExtractor extractor = new ParallelTarExtractor(writerThreads, sharedPool, digest, directories);
+        try {
+            extractor.demux(ais);
+        } finally {
+            extractor.awaitWriters();
+            extractor.returnBuffers();
+        }
+        IOException error = extractor.firstError.get();
+        if (error != null) {
+            throw error;
+        }
+        return extractor.manifest;
+    }
+
+    /**
+     * 按条目切分数据块并提交给写线程
+     *
+     * @param ais tar 输入流
+     * @throws IOException 读取或者创建目录失败，或者写线程已经失败
+     */
+    private void demux(TarArchiveInputStream ais) throws IOException {
+        TarArchiveEntry archiveEntry;
+        while (null != (archiveEntry = ais.getNextEntry())) {
+            checkWriters();
+            String entryName = archiveEntry.getName();
+            if (archiveEntry.isDirectory()) {
+                directories.createDirectory(entryName);
+                continue;
+            }
+            // 写线程开始写入之前父目录必须已经存在，同一个目录只创建一次
+            Path target = directories.resolve(entryName);
+            directories.createParent(target);
+
+            if (digest != null) {
+                digest.reset();
+            }
+            ByteBuffer first = takeBuffer();
+            if (fill(ais, first) < chunkSize) {
+                // 小文件只有一个数据块，由写线程完成打开、写入、关闭
+                writers.execute(() -> writeWhole(target, first));
+            } else {
+                writeChunked(ais, target, first);
+            }
+            if (digest != null) {
+                manifest.put(entryName, Hex.toHexString(digest.digest()));
+            }
+        }
+    }
+
+    /**
+     * 大文件在调用线程中打开，各个数据块按位置并发写入，最后一个完成的数据块负责关闭文件
+     *
+     * @param ais    tar 输入流，位于当前条目
+     * @param target 目标文件
+     * @param first  已经读满的第一个数据块
+     * @throws IOException 读取或打开文件失败
+     */
+    private void writeChunked(TarArchiveInputStream ais, Path target, ByteBuffer first) throws IOException {
+        OpenFile file;
+        try {
+            file = new OpenFile(FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            bufferPool.add(first);
+            throw e;
+        }
+        try {
+            long position = 0;
+            ByteBuffer chunk = first;
+            int length = chunkSize;
+            while (length > 0) {
+                submitChunk(file, chunk, position);
+                position += length;
+                if (length < chunkSize) {
+                    break;
+                }
+                checkWriters();
+                chunk = takeBuffer();
+                length = fill(ais, chunk);
+                if (length == 0) {
+                    bufferPool.add(chunk);
+                }
+            }
+        } finally {
+            // 释放调用线程持有的引用
+            file.release();
+        }
+    }
+
+    private void submitChunk(OpenFile file, ByteBuffer chunk, long position) {
+        file.retain();
+        writers.execute(() -> {
+            try {
+                if (firstError.get() == null) {
+                    writeFully(file.channel, chunk, position);
+                }
+            } catch (IOException e) {
+                firstError.compareAndSet(null, e);
+            } finally {
+                bufferPool.add(chunk);
+                file.release();
+            }
+        });
+    }
+
+    private void writeWhole(Path target, ByteBuffer chunk) {
+        try {
+            if (firstError.get() == null) {
+                try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeFully(channel, chunk, 0);
+                }
+            }
+        } catch (IOException e) {
+            firstError.compareAndSet(null, e);
+        } finally {
+            bufferPool.add(chunk);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * 从当前条目读取数据直到填满缓冲或者条目结束，缓冲切换为读模式，需要计算摘要时同时更新摘要
+     *
+     * @return 读取的字节数，小于缓冲大小表示条目已经结束
+     */
+    private int fill(TarArchiveInputStream ais, ByteBuffer buffer) throws IOException {
+        int length = ais.readNBytes(buffer.array(), 0, buffer.capacity());
+        buffer.clear().limit(length);
+        if (digest != null) {
+            digest.update(buffer.array(), 0, length);
+        }
+        return length;
+    }
+
+    /**
+     * 把本次解压使用的缓冲归还给共享的 BufferPool
+     */
+    private void returnBuffers() {
+        ByteBuffer buffer;
+        while (null != (buffer = bufferPool.poll())) {
+            sharedPool.release(buffer);
+        }
+    }
+
+    private ByteBuffer takeBuffer() throws IOException {
+        try {
+            return bufferPool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for buffer", e);
+        }
+    }
+
+    /**
+     * 写线程已经失败时不再继续解压
+     */
+    private void checkWriters() throws IOException {
+        IOException error = firstError.get();
+        if (error != null) {
+            throw new IOException("Write entry failed", error);
+        }
+    }
+
+    private void awaitWriters() throws IOException {
+        writers.shutdown();
+        try {
+            while (!writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // 等待所有已提交的数据块写完，文件全部关闭后才能返回
+            }
+        } catch (InterruptedException e) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for writers", e);
+        }
+    }
+
+    /**
+     * 被多个数据块共享的文件，引用计数归零时关闭
+     */
+    private final class OpenFile {
+
+        private final FileChannel channel;
+
+        /**
+         * 初始为 1，表示调用线程持有的引用
+         */
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        OpenFile(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void retain() {
+            references.incrementAndGet();
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    firstError.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+}
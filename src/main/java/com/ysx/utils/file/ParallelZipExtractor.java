@@ -0,0 +1,149 @@
+package com.ysx.utils.file;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * zip 并行解压
+ * zip 的中央目录记录了每个条目的位置，各个条目可以独立解压：
+ * 调用线程先创建所有目录（每个目录只创建一次，也可以按层并行创建目录骨架），
+ * 再把每个文件条目交给线程池，各自从文件中按位置读取、解压、写入
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class ParallelZipExtractor {
+
+    private ParallelZipExtractor() {
+    }
+
+    /**
+     * 解压 zip 文件中的所有条目到目标目录
+     *
+     * @param zipPath     zip 文件
+     * @param destDirPath 目标目录
+     * @param threads     解压线程数
+     * @param bufferPool  写入时使用的缓冲
+     * @throws IOException 读取、写入或者创建目录失败
+     */
+    static void extract(Path zipPath, String destDirPath, int threads, BufferPool bufferPool) throws IOException {
+        extract(zipPath, destDirPath, threads, bufferPool, false);
+    }
+
+    /**
+     * 解压 zip 文件中的所有条目到目标目录
+     *
+     * @param zipPath        zip 文件
+     * @param destDirPath    目标目录
+     * @param threads        解压线程数
+     * @param bufferPool     写入时使用的缓冲
+     * @param parallelMkdirs 是否在 threads 个线程中按层并行创建目录骨架，否则在调用线程中依次创建
+     * @throws IOException 读取、写入或者创建目录失败
+     */
+    static void extract(Path zipPath, String destDirPath, int threads, BufferPool bufferPool,
+                        boolean parallelMkdirs) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        // 基于 FileChannel 的 ZipFile 按位置读取条目，多个线程可以同时读取不同的条目
+        try (ZipFile zipFile = ZipFile.builder().setPath(zipPath).get()) {
+            DirectoryCache directories = new DirectoryCache(destDirPath);
+            List<String> entryNames = new ArrayList<>();
+            List<ZipArchiveEntry> files = new ArrayList<>();
+            Enumeration<ZipArchiveEntry> archiveEntries = zipFile.getEntriesInPhysicalOrder();
+            while (archiveEntries.hasMoreElements()) {
+                ZipArchiveEntry archiveEntry = archiveEntries.nextElement();
+                entryNames.add(archiveEntry.getName());
+                if (!archiveEntry.isDirectory()) {
+                    files.add(archiveEntry);
+                }
+            }
+            // 写线程开始写入之前目录必须已经存在
+            if (parallelMkdirs) {
+                directories.createSkeleton(entryNames, threads);
+            } else {
+                for (String entryName : entryNames) {
+                    if (entryName.endsWith("/")) {
+                        directories.createDirectory(entryName);
+                    } else {
+                        directories.createParent(directories.resolve(entryName));
+                    }
+                }
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Void>> futures = new ArrayList<>(files.size());
+                for (ZipArchiveEntry archiveEntry : files) {
+                    Path target = directories.resolve(archiveEntry.getName());
+                    futures.add(executor.submit(() -> {
+                        ByteBuffer buffer = bufferPool.acquire();
+                        try (InputStream is = zipFile.getInputStream(archiveEntry)) {
+                            DecompressUtils.writeEntry(is, target, buffer);
+                        } finally {
+                            bufferPool.release(buffer);
+                        }
+                        return null;
+                    }));
+                }
+                awaitAll(futures);
+            } finally {
+                // 失败时其余的写线程可能仍在运行：必须等它们全部停止后才能关闭 ZipFile，调用者才能清理目标目录
+                executor.shutdownNow();
+                awaitTermination(executor);
+            }
+        }
+    }
+
+    /**
+     * 等待所有条目写完，有条目失败时取消其余条目并抛出第一个异常
+     */
+    private static void awaitAll(List<Future<Void>> futures) throws IOException {
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting zip", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+                    : new IOException("Extract zip entry failed", e.getCause());
+        }
+    }
+
+    /**
+     * 等待所有写线程停止，等待期间的中断在返回后恢复
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ysx.utils.file;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
+
+/**
+ * 可恢复的 .tar.gz 解压
+ * 每个条目写完后记录到日志（ExtractionJournal），失败时保留已经解压的文件和日志；
+ * 再次解压同一个归档时校验日志中的条目，从最后一个完好条目之后继续：
+ * 从不超过该位置的 gzip 成员起点开始解压（单成员的 gzip 只能从头解压，但不再写入已完成的文件），跳到下一个条目头后继续解压
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+final class ResumableTarGzExtractor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableTarGzExtractor.class);
+
+    private ResumableTarGzExtractor() {
+    }
+
+    /**
+     * 解压 .tar.gz 文件，失败后再次调用会从中断的位置继续
+     *
+     * @param archive     归档文件
+     * @param destDir     目标目录，没有日志时必须为空；日志与归档不匹配时会先清空
+     * @param journalFile 日志文件，解压成功后删除
+     * @param bufferPool  写入时使用的缓冲
+     * @throws IOException   读取、写入失败，或者目标目录不为空并且没有日志
+     * @throws FileException 清空目标目录失败
+     */
+    static void extract(Path archive, Path destDir, Path journalFile, BufferPool bufferPool)
+            throws IOException, FileException {
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        long archiveSize = attributes.size();
+        long archiveModified = attributes.lastModifiedTime().toMillis();
+        DirectoryCache directories = new DirectoryCache(destDir.toString());
+
+        ExtractionJournal journal = ExtractionJournal.load(journalFile, archiveSize, archiveModified);
+        long resumeOffset = 0;
+        if (journal != null) {
+            resumeOffset = journal.verify(directories);
+            LOGGER.info("Resume extraction of {} after {} entries at offset {}", archive.getFileName(),
+                    journal.getEntries().size(), resumeOffset);
+        } else {
+            if (Files.exists(journalFile)) {
+                // 日志属于另一个归档（或者归档已经修改），目标目录中的文件不可信
+                FileUtils.cleanDirectory(destDir.toString());
+            } else if (!isEmpty(destDir)) {
+                throw new IOException("Dest dir is not empty and has no journal: " + destDir);
+            }
+            journal = ExtractionJournal.create(journalFile, archiveSize, archiveModified);
+        }
+
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            journal.start();
+            long[] checkpoint = journal.checkpointBefore(resumeOffset);
+            extract(archive, journal, directories, checkpoint, resumeOffset, buffer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            bufferPool.release(buffer);
+            journal.close();
+        }
+        journal.delete();
+    }
+
+    private static void extract(Path archive, ExtractionJournal journal, DirectoryCache directories,
+                                long[] checkpoint, long resumeOffset, ByteBuffer buffer) throws IOException {
+        GzipMemberInputStream.MemberListener listener = (compressedOffset, uncompressedOffset) -> {
+            try {
+                journal.addCheckpoint(compressedOffset, uncompressedOffset, TarGzIndex.DEFAULT_CHECKPOINT_SPACING);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        FileChannel channel = FileChannel.open(archive);
+        try {
+            channel.position(checkpoint[0]);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        try (GzipMemberInputStream gzip = new GzipMemberInputStream(Channels.newInputStream(channel),
+                checkpoint[0], checkpoint[1], listener)) {
+            // 从检查点跳到下一个条目头，这部分数据只解压不写入
+            gzip.skipNBytes(resumeOffset - checkpoint[1]);
+            BoundedInputStream counting = BoundedInputStream.builder().setInputStream(gzip).get();
+            TarArchiveInputStream ais = new TarArchiveInputStream(counting);
+            TarArchiveEntry archiveEntry;
+            while (null != (archiveEntry = ais.getNextEntry())) {
+                String entryName = archiveEntry.getName();
+                long size;
+                if (archiveEntry.isDirectory()) {
+                    directories.createDirectory(entryName);
+                    size = ExtractionJournal.DIRECTORY;
+                } else {
+                    Path target = directories.resolve(entryName);
+                    directories.createParent(target);
+                    DecompressUtils.writeEntry(ais, target, buffer);
+                    size = archiveEntry.getSize();
+                }
+                // 条目数据已经读完，补齐到记录边界就是下一个条目头的位置
+                journal.addEntry(entryName, size, alignToRecord(resumeOffset + counting.getCount()));
+            }
+        }
+    }
+
+    private static long alignToRecord(long offset) {
+        long recordSize = TarConstants.DEFAULT_RCDSIZE;
+        return (offset + recordSize - 1) / recordSize * recordSize;
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> children = Files.list(dir)) {
+            return children.findAny().isEmpty();
+        }
+    }
+}
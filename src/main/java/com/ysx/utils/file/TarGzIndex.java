@@ -0,0 +1,353 @@
+package com.ysx.utils.file;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * .tar.gz 随机访问索引
+ * 记录每个条目的数据在解压后数据中的位置，以及若干个解压检查点（gzip 成员的起始位置），
+ * 读取单个条目时从不超过条目位置的最近检查点开始解压，不需要从头解压整个归档
+ * <p>
+ * 检查点只能设置在 gzip 成员的起始位置：JDK 的 Inflater 不支持从任意比特位置恢复解压状态 (zlib 的 inflatePrime)，
+ * 无法像 zran 那样在单成员 gzip 中间保存窗口快照。compressTarGz 生成的归档每 1MB 一个成员，检查点间隔即为 1MB；
+ * 其他工具生成的单成员 gzip 只有起始位置一个检查点，读取条目时仍需从头解压，但不需要解析之前的 tar 条目
+ * <p>
+ * 索引保存在归档旁边的 .idx 文件中，归档的大小或者修改时间变化后索引失效，会重新建立
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TarGzIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TarGzIndex.class);
+
+    /**
+     * 默认的检查点间隔（解压后的字节数）
+     */
+    public static final long DEFAULT_CHECKPOINT_SPACING = 1024 * 1024;
+
+    /**
+     * 索引文件后缀
+     */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * 索引文件魔数 "TGZI"
+     */
+    private static final int MAGIC = 0x54475A49;
+
+    private static final int VERSION = 1;
+
+    /**
+     * 文件头：魔数、版本号、归档文件大小、归档文件修改时间、检查点数量
+     */
+    private static final int HEADER_LENGTH = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+    /**
+     * 每个检查点：压缩数据位置、解压后位置
+     */
+    private static final int CHECKPOINT_LENGTH = 2 * Long.BYTES;
+
+    /**
+     * 每个条目至少：名称长度、数据位置、大小
+     */
+    private static final int MIN_ENTRY_LENGTH = Short.BYTES + 2 * Long.BYTES;
+
+    private final Path archive;
+
+    private final long archiveSize;
+
+    private final long archiveModified;
+
+    /**
+     * 检查点在压缩数据中的位置，升序
+     */
+    private final long[] compressedOffsets;
+
+    /**
+     * 检查点在解压后数据中的位置，升序
+     */
+    private final long[] uncompressedOffsets;
+
+    private final Map<String, long[]> entries;
+
+    private TarGzIndex(Path archive, long archiveSize, long archiveModified, long[] compressedOffsets,
+                       long[] uncompressedOffsets, Map<String, long[]> entries) {
+        this.archive = archive;
+        this.archiveSize = archiveSize;
+        this.archiveModified = archiveModified;
+        this.compressedOffsets = compressedOffsets;
+        this.uncompressedOffsets = uncompressedOffsets;
+        this.entries = entries;
+    }
+
+    /**
+     * 读取归档旁边的索引文件，索引文件不存在或者已经失效时重新建立并保存
+     *
+     * @param archive 归档文件
+     * @return 索引
+     * @throws IOException 读取归档失败
+     */
+    public static TarGzIndex loadOrBuild(Path archive) throws IOException {
+        Path indexFile = indexFileOf(archive);
+        if (Files.exists(indexFile)) {
+            try {
+                TarGzIndex index = load(archive, indexFile);
+                if (index.isValid()) {
+                    return index;
+                }
+                LOGGER.info("Index is stale, rebuild: {}", indexFile);
+            } catch (IOException e) {
+                LOGGER.warn("Load index exception, rebuild: {}", indexFile, e);
+            }
+        }
+        TarGzIndex index = build(archive, DEFAULT_CHECKPOINT_SPACING);
+        try {
+            index.write(indexFile);
+        } catch (IOException e) {
+            // 例如归档所在目录只读，索引仍然可以在内存中使用
+            LOGGER.warn("Write index exception: {}", indexFile, e);
+        }
+        return index;
+    }
+
+    /**
+     * 完整解压一次归档，建立索引
+     *
+     * @param archive           归档文件
+     * @param checkpointSpacing 相邻检查点之间至少间隔的解压后字节数
+     * @return 索引
+     * @throws IOException 读取归档失败
+     */
+    public static TarGzIndex build(Path archive, long checkpointSpacing) throws IOException {
+        if (checkpointSpacing <= 0) {
+            throw new IllegalArgumentException("checkpointSpacing must be positive: " + checkpointSpacing);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        List<long[]> checkpoints = new ArrayList<>();
+        GzipMemberInputStream.MemberListener listener = (compressedOffset, uncompressedOffset) -> {
+            if (checkpoints.isEmpty()
+                    || uncompressedOffset - checkpoints.get(checkpoints.size() - 1)[1] >= checkpointSpacing) {
+                checkpoints.add(new long[]{compressedOffset, uncompressedOffset});
+            }
+        };
+        Map<String, long[]> entries = new LinkedHashMap<>();
+        try (BoundedInputStream counting = BoundedInputStream.builder().setInputStream(new GzipMemberInputStream(
+                new BufferedInputStream(Files.newInputStream(archive)), 0, 0, listener)).get();
+             TarArchiveInputStream ais = new TarArchiveInputStream(counting)) {
+            TarArchiveEntry archiveEntry;
+            while (null != (archiveEntry = ais.getNextEntry())) {
+                // tar 逐个记录读取，getNextEntry 返回时已读取的字节数就是条目数据的起始位置
+                if (archiveEntry.isFile() && !archiveEntry.isSparse()) {
+                    entries.put(archiveEntry.getName(), new long[]{counting.getCount(), archiveEntry.getSize()});
+                }
+            }
+        }
+        long[] compressedOffsets = new long[checkpoints.size()];
+        long[] uncompressedOffsets = new long[checkpoints.size()];
+        for (int i = 0; i < checkpoints.size(); i++) {
+            compressedOffsets[i] = checkpoints.get(i)[0];
+            uncompressedOffsets[i] = checkpoints.get(i)[1];
+        }
+        return new TarGzIndex(archive, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                compressedOffsets, uncompressedOffsets, entries);
+    }
+
+    /**
+     * 读取索引文件
+     *
+     * @param archive   归档文件
+     * @param indexFile 索引文件
+     * @return 索引
+     * @throws IOException 读取失败或者格式不正确
+     */
+    public static TarGzIndex load(Path archive, Path indexFile) throws IOException {
+        // 各个数量在分配数组之前先与文件大小比较，损坏或者被截断的索引文件抛出 IOException，由调用者重新建立
+        long fileSize = Files.size(indexFile);
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                throw new IOException("Not a tar.gz index file: " + indexFile);
+            }
+            long archiveSize = dis.readLong();
+            long archiveModified = dis.readLong();
+            int checkpointCount = dis.readInt();
+            long remaining = fileSize - HEADER_LENGTH;
+            if (checkpointCount <= 0 || checkpointCount > remaining / CHECKPOINT_LENGTH) {
+                throw new IOException("Invalid checkpoint count " + checkpointCount + " in index file: " + indexFile);
+            }
+            long[] compressedOffsets = new long[checkpointCount];
+            long[] uncompressedOffsets = new long[checkpointCount];
+            for (int i = 0; i < checkpointCount; i++) {
+                compressedOffsets[i] = dis.readLong();
+                uncompressedOffsets[i] = dis.readLong();
+                if (compressedOffsets[i] < 0 || uncompressedOffsets[i] < 0
+                        || (i > 0 && (compressedOffsets[i] <= compressedOffsets[i - 1]
+                        || uncompressedOffsets[i] < uncompressedOffsets[i - 1]))) {
+                    throw new IOException("Invalid checkpoint " + i + " in index file: " + indexFile);
+                }
+            }
+            remaining -= (long) checkpointCount * CHECKPOINT_LENGTH + Integer.BYTES;
+            int entryCount = dis.readInt();
+            if (entryCount < 0 || entryCount > remaining / MIN_ENTRY_LENGTH) {
+                throw new IOException("Invalid entry count " + entryCount + " in index file: " + indexFile);
+            }
+            Map<String, long[]> entries = new LinkedHashMap<>();
+            for (int i = 0; i < entryCount; i++) {
+                String name = dis.readUTF();
+                long offset = dis.readLong();
+                long size = dis.readLong();
+                if (offset < 0 || size < 0) {
+                    throw new IOException("Invalid entry " + name + " in index file: " + indexFile);
+                }
+                entries.put(name, new long[]{offset, size});
+            }
+            return new TarGzIndex(archive, archiveSize, archiveModified, compressedOffsets, uncompressedOffsets, entries);
+        }
+    }
+
+    /**
+     * 保存索引文件：先写入同一目录下的临时文件，完成后原子替换，读取方不会看到写了一半的索引
+     *
+     * @param indexFile 索引文件
+     * @throws IOException 写入失败
+     */
+    public void write(Path indexFile) throws IOException {
+        Path absolute = indexFile.toAbsolutePath();
+        Path tempFile = absolute.resolveSibling("." + absolute.getFileName() + ".tmp-" + System.nanoTime());
+        try {
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeLong(archiveSize);
+                dos.writeLong(archiveModified);
+                dos.writeInt(compressedOffsets.length);
+                for (int i = 0; i < compressedOffsets.length; i++) {
+                    dos.writeLong(compressedOffsets[i]);
+                    dos.writeLong(uncompressedOffsets[i]);
+                }
+                dos.writeInt(entries.size());
+                for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+                    dos.writeUTF(entry.getKey());
+                    dos.writeLong(entry.getValue()[0]);
+                    dos.writeLong(entry.getValue()[1]);
+                }
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 打开单个条目，从最近的检查点开始解压
+     *
+     * @param entryName 条目名称
+     * @return 条目内容，使用完毕后需要关闭
+     * @throws IOException 条目不存在、索引已失效或者读取失败
+     */
+    public InputStream openEntry(String entryName) throws IOException {
+        long[] entry = entries.get(entryName);
+        if (entry == null) {
+            throw new NoSuchFileException(entryName, null, "Entry not found in " + archive);
+        }
+        if (!isValid()) {
+            throw new IOException("Index is stale: " + archive);
+        }
+        int checkpoint = checkpointBefore(entry[0]);
+        FileChannel channel = FileChannel.open(archive);
+        try {
+            channel.position(compressedOffsets[checkpoint]);
+            InputStream is = new GzipMemberInputStream(Channels.newInputStream(channel),
+                    compressedOffsets[checkpoint], uncompressedOffsets[checkpoint], null);
+            is.skipNBytes(entry[0] - uncompressedOffsets[checkpoint]);
+            return BoundedInputStream.builder().setInputStream(is).setMaxCount(entry[1]).get();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 条目的大小
+     *
+     * @param entryName 条目名称
+     * @return 条目的大小，条目不存在时返回 -1
+     */
+    public long getEntrySize(String entryName) {
+        long[] entry = entries.get(entryName);
+        return entry == null ? -1 : entry[1];
+    }
+
+    /**
+     * 所有普通文件条目的名称
+     *
+     * @return 条目名称，按归档中的顺序
+     */
+    public Set<String> getEntryNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public int getCheckpointCount() {
+        return compressedOffsets.length;
+    }
+
+    /**
+     * 归档的大小和修改时间是否与建立索引时一致
+     *
+     * @return 索引是否有效
+     */
+    public boolean isValid() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+            return attributes.size() == archiveSize && attributes.lastModifiedTime().toMillis() == archiveModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 索引文件的路径：归档文件名加上 .idx 后缀
+     *
+     * @param archive 归档文件
+     * @return 索引文件
+     */
+    public static Path indexFileOf(Path archive) {
+        return archive.resolveSibling(archive.getFileName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * 查找解压后位置不超过 offset 的最后一个检查点
+     */
+    private int checkpointBefore(long offset) {
+        int index = Arrays.binarySearch(uncompressedOffsets, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,229 @@
+package com.ysx.utils.file;
+
+import com.ysx.utils.threadpool.ThreadPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 文本文件批量读取工具类
+ * 在线程池中并发读取目录下的文件并自动识别编码，按完成的先后顺序返回结果，
+ * 同时在读取中的文件数有上限，消费者处理不过来时不会继续提交新的文件（背压）
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextFileBatchReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextFileBatchReader.class);
+
+    private TextFileBatchReader() {
+    }
+
+    /**
+     * 读取目录下（包括子目录）所有匹配的文件，回调在调用线程中按完成顺序执行，全部完成后返回
+     *
+     * @param dir      目录
+     * @param glob     相对于 dir 的 glob 表达式，例如 "**&#47;*.log"，为 null 时读取所有文件
+     * @param callback 每个文件读取完成后的回调
+     * @throws FileException 目录不存在或无法打开时抛出，单个文件读取失败、子目录无法访问不会抛出
+     */
+    public static void readFiles(Path dir, String glob, Consumer<TextFileResult> callback) throws FileException {
+        try (Stream<TextFileResult> results = readFiles(dir, glob)) {
+            results.forEach(callback);
+        }
+    }
+
+    /**
+     * 读取目录下（包括子目录）所有匹配的文件
+     * 使用 ThreadPoolConfig.calculateCorePoolCount() 个线程，关闭返回的流时关闭线程池
+     *
+     * @param dir  目录
+     * @param glob 相对于 dir 的 glob 表达式，为 null 时读取所有文件
+     * @return 按完成顺序排列的读取结果，使用完毕后需要关闭
+     * @throws FileException 目录不存在或无法打开时抛出，遍历过程中无法访问的子目录记录为失败的结果
+     */
+    public static Stream<TextFileResult> readFiles(Path dir, String glob) throws FileException {
+        int threadCount = ThreadPoolConfig.calculateCorePoolCount();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            return readFiles(dir, glob, executor, 2 * threadCount).onClose(executor::shutdownNow);
+        } catch (FileException e) {
+            executor.shutdownNow();
+            throw e;
+        }
+    }
+
+    /**
+     * 在指定的线程池中读取目录下（包括子目录）所有匹配的文件
+     * 例如可以传入 Executors.newVirtualThreadPerTaskExecutor()，线程池由调用者负责关闭
+     *
+     * @param dir         目录
+     * @param glob        相对于 dir 的 glob 表达式，为 null 时读取所有文件
+     * @param executor    线程池
+     * @param maxInFlight 最多同时在读取中、尚未被消费的文件数
+     * @return 按完成顺序排列的读取结果，使用完毕后需要关闭
+     * @throws FileException 目录不存在或无法打开时抛出，遍历过程中无法访问的子目录记录为失败的结果
+     */
+    public static Stream<TextFileResult> readFiles(Path dir, String glob, ExecutorService executor, int maxInFlight)
+            throws FileException {
+        if (dir == null) {
+            throw new FileException("Directory is null");
+        }
+        if (!Files.isDirectory(dir)) {
+            throw new FileException("Not a directory: " + dir);
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+
+        Stream<Path> paths;
+        try {
+            paths = Files.walk(dir);
+        } catch (IOException e) {
+            LOGGER.error("Walk directory exception: {}", dir, e);
+            throw new FileException("Walk directory exception: " + dir, e);
+        }
+        PathMatcher matcher = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        Predicate<Path> filter = path -> !Files.isDirectory(path)
+                && (matcher == null || matcher.matches(dir.relativize(path)));
+        ResultSpliterator spliterator = new ResultSpliterator(dir, paths.iterator(), filter,
+                new ExecutorCompletionService<>(executor), maxInFlight);
+        return StreamSupport.stream(spliterator, false).onClose(paths::close);
+    }
+
+    /**
+     * 读取单个文件，异常记录在结果中
+     *
+     * @param path 文件路径
+     * @return 读取结果
+     */
+    private static TextFileResult read(Path path) {
+        try {
+            return TextFileResult.success(path, TextFileReader.readFile(path.toFile()));
+        } catch (FileException e) {
+            return TextFileResult.failure(path, e);
+        } catch (RuntimeException e) {
+            LOGGER.error("Read file exception: {}", path, e);
+            return TextFileResult.failure(path, new FileException("Read file exception: " + path, e));
+        }
+    }
+
+    /**
+     * 遍历目录失败（例如子目录没有权限、遍历过程中被删除），记录为失败的结果，不中断整个批次
+     *
+     * @param dir 遍历的目录
+     * @param e   Files.walk 的迭代器抛出的异常
+     * @return 读取结果，路径为无法访问的文件或目录
+     */
+    private static TextFileResult walkFailure(Path dir, UncheckedIOException e) {
+        IOException cause = e.getCause();
+        String file = cause instanceof FileSystemException ? ((FileSystemException) cause).getFile() : null;
+        Path path = file == null ? dir : dir.getFileSystem().getPath(file);
+        LOGGER.error("Walk directory exception: {}", path, cause);
+        return TextFileResult.failure(path, new FileException("Walk directory exception: " + path, cause));
+    }
+
+    /**
+     * 消费者每取一个结果，才会提交新的文件，保证读取中的文件数不超过 maxInFlight
+     */
+    private static final class ResultSpliterator extends Spliterators.AbstractSpliterator<TextFileResult> {
+
+        private final Path dir;
+
+        /**
+         * Files.walk 的迭代器，抛出 UncheckedIOException 之后跳过出错的条目，可以继续遍历
+         */
+        private final Iterator<Path> paths;
+
+        private final Predicate<Path> filter;
+
+        private final CompletionService<TextFileResult> completionService;
+
+        private final int maxInFlight;
+
+        private int inFlight;
+
+        ResultSpliterator(Path dir, Iterator<Path> paths, Predicate<Path> filter,
+                          CompletionService<TextFileResult> completionService, int maxInFlight) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.dir = dir;
+            this.paths = paths;
+            this.filter = filter;
+            this.completionService = completionService;
+            this.maxInFlight = maxInFlight;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TextFileResult> action) {
+            while (inFlight < maxInFlight) {
+                Callable<TextFileResult> task;
+                try {
+                    Path path = nextFile();
+                    if (path == null) {
+                        break;
+                    }
+                    task = () -> read(path);
+                } catch (UncheckedIOException e) {
+                    TextFileResult failure = walkFailure(dir, e);
+                    task = () -> failure;
+                }
+                completionService.submit(task);
+                inFlight++;
+            }
+            if (inFlight == 0) {
+                return false;
+            }
+            try {
+                Future<TextFileResult> future = completionService.take();
+                inFlight--;
+                action.accept(future.get());
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for file results", e);
+            } catch (ExecutionException e) {
+                // read() 不会抛出异常
+                throw new IllegalStateException("Unexpected read exception", e.getCause());
+            }
+        }
+
+        /**
+         * 下一个匹配的文件
+         *
+         * @return 文件，遍历结束时返回 null
+         * @throws UncheckedIOException 无法访问某个文件或目录
+         */
+        private Path nextFile() {
+            while (paths.hasNext()) {
+                Path path = paths.next();
+                if (filter.test(path)) {
+                    return path;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.ysx.utils.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 持续读取不断追加的文本文件（类似 tail -f）
+ * 记住已读取的字节位置和解码器状态，每次只读取、解码新追加的字节；被拆分在两次读取之间的多字节字符会保留在解码器中，
+ * 下次读取时拼接完整。编码在文件第一次有内容时检测一次，之后不再检测。
+ * 每次读取时比较文件标识（fileKey）和大小：文件被重命名并重新创建（轮转）时，先读完旧文件剩余的内容再从头读取新文件；
+ * 文件被截断（copytruncate）时从头读取。
+ * 文件系统不提供 fileKey 时（例如 Windows）改为比较创建时间，并且路径上的文件比已经读取的位置短、而打开的文件没有变短时
+ * 也认为发生了轮转；新文件与旧文件创建时间相同（例如 Windows 的文件名隧道）并且在检查之前已经超过旧文件的读取位置时，
+ * 无法识别这次轮转。不是线程安全的
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextFileFollower implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextFileFollower.class);
+
+    /**
+     * 读取缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 等待新内容时，即使没有收到文件变化的通知，也至少每隔这么久检查一次（例如网络文件系统不支持通知）
+     */
+    private static final long POLL_INTERVAL_MILLIS = 500;
+
+    private final Path path;
+
+    /**
+     * 待解码的字节，始终处于读模式
+     */
+    private final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private final CharBuffer charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * 还没有遇到换行符的最后一行
+     */
+    private final StringBuilder partialLine = new StringBuilder();
+
+    private FileChannel channel;
+
+    private Object fileKey;
+
+    /**
+     * 文件系统不提供 fileKey 时用来识别文件的创建时间，不可靠时为 null
+     */
+    private FileTime creationTime;
+
+    /**
+     * 下一个要读取的字节在文件中的位置
+     */
+    private long position;
+
+    private Charset charset;
+
+    private CharsetDecoder decoder;
+
+    private WatchService watchService;
+
+    /**
+     * 文件系统不支持 WatchService，只使用定时检查
+     */
+    private boolean watchUnsupported;
+
+    private boolean closed;
+
+    private TextFileFollower(Path path) {
+        this.path = path;
+        byteBuffer.flip();
+    }
+
+    /**
+     * 从文件开头开始读取
+     *
+     * @param path 文件路径，可以暂时不存在
+     * @return 读取器，使用完毕后需要关闭
+     * @throws FileException 打开文件失败时抛出
+     */
+    public static TextFileFollower open(Path path) throws FileException {
+        return open(path, 0);
+    }
+
+    /**
+     * 从指定位置开始读取，例如传入 Files.size(path) 只读取之后追加的内容，
+     * 或者传入上次保存的 getPosition()，位置必须位于字符边界
+     *
+     * @param path     文件路径，可以暂时不存在
+     * @param position 开始读取的字节位置，超过文件大小时从文件末尾开始
+     * @return 读取器，使用完毕后需要关闭
+     * @throws FileException 打开文件失败时抛出
+     */
+    public static TextFileFollower open(Path path, long position) throws FileException {
+        if (path == null) {
+            throw new FileException("File path is null");
+        }
+        if (position < 0) {
+            throw new IllegalArgumentException("position must not be negative: " + position);
+        }
+        TextFileFollower follower = new TextFileFollower(path);
+        try {
+            if (follower.reopen()) {
+                follower.position = Math.min(position, follower.channel.size());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Open file exception: {}", path, e);
+            throw new FileException("Open file exception: " + path, e);
+        }
+        return follower;
+    }
+
+    /**
+     * 读取上次读取之后追加的内容，不会阻塞
+     *
+     * @return 新的内容，没有新内容时返回空字符串
+     * @throws FileException 读取失败时抛出
+     */
+    public String poll() throws FileException {
+        if (closed) {
+            throw new FileException("Follower is closed: " + path);
+        }
+        StringBuilder text = new StringBuilder();
+        try {
+            BasicFileAttributes attributes = readAttributes();
+            if (channel != null && isRotated(attributes)) {
+                // 轮转：旧文件已经被删除或者重命名，读完旧文件中剩余的内容
+                read(text, true);
+                LOGGER.info("File rotated: {}", path);
+                closeChannel();
+            } else if (channel != null && channel.size() < position) {
+                LOGGER.info("File truncated: {}", path);
+                resetDecoder();
+                position = 0;
+            }
+            if (channel == null && attributes != null && !reopen()) {
+                return text.toString();
+            }
+            if (channel != null) {
+                read(text, false);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Follow file exception: {}", path, e);
+            throw new FileException("Follow file exception: " + path, e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 读取上次读取之后追加的内容，没有新内容时等待文件变化，直到有新内容或者超时
+     * 使用 WatchService 监听文件所在目录，同时每隔 POLL_INTERVAL_MILLIS 主动检查一次
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 新的内容，超时时返回空字符串
+     * @throws FileException        读取失败时抛出
+     * @throws InterruptedException 等待时被中断
+     */
+    public String poll(long timeout, TimeUnit unit) throws FileException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            String text = poll();
+            long remaining = deadline - System.nanoTime();
+            if (!text.isEmpty() || remaining <= 0) {
+                return text;
+            }
+            long wait = Math.min(TimeUnit.NANOSECONDS.toMillis(remaining) + 1, POLL_INTERVAL_MILLIS);
+            WatchService watcher = watchService();
+            if (watcher == null) {
+                Thread.sleep(wait);
+                continue;
+            }
+            WatchKey key = watcher.poll(wait, TimeUnit.MILLISECONDS);
+            if (key != null) {
+                key.pollEvents();
+                key.reset();
+            }
+        }
+    }
+
+    /**
+     * 读取上次读取之后追加的完整的行，不包括换行符；最后一行没有换行符时保留到下次读取
+     *
+     * @return 新的行，没有新的完整的行时返回空列表
+     * @throws FileException 读取失败时抛出
+     */
+    public List<String> pollLines() throws FileException {
+        partialLine.append(poll());
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < partialLine.length(); i++) {
+            if (partialLine.charAt(i) == '\n') {
+                int end = i > start && partialLine.charAt(i - 1) == '\r' ? i - 1 : i;
+                lines.add(partialLine.substring(start, end));
+                start = i + 1;
+            }
+        }
+        partialLine.delete(0, start);
+        return lines;
+    }
+
+    /**
+     * 下一个要读取的字节在当前文件中的位置，可以保存下来，之后通过 open(path, position) 继续读取
+     * 解码器中还没有组成完整字符的字节不计入
+     *
+     * @return 字节位置
+     */
+    public long getPosition() {
+        return position - byteBuffer.remaining();
+    }
+
+    /**
+     * 文件的编码，文件还没有内容时返回 null
+     *
+     * @return 字符集
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            closeChannel();
+        } finally {
+            if (watchService != null) {
+                watchService.close();
+            }
+        }
+    }
+
+    /**
+     * 打开当前路径上的文件
+     *
+     * @return 是否打开成功，文件不存在时返回 false
+     */
+    private boolean reopen() throws IOException {
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        fileKey = attributes.fileKey();
+        FileTime created = attributes.creationTime();
+        // 不支持创建时间的文件系统通常返回修改时间，与修改时间相同时不能用来识别文件
+        creationTime = fileKey == null && created != null && !created.equals(attributes.lastModifiedTime())
+                ? created : null;
+        position = 0;
+        resetDecoder();
+        return true;
+    }
+
+    /**
+     * 路径上的文件是否已经不是打开的文件
+     *
+     * @param attributes 路径上的文件的属性，文件不存在时为 null
+     */
+    private boolean isRotated(BasicFileAttributes attributes) throws IOException {
+        if (attributes == null) {
+            return true;
+        }
+        if (fileKey != null || attributes.fileKey() != null) {
+            return !Objects.equals(fileKey, attributes.fileKey());
+        }
+        if (creationTime != null && !creationTime.equals(attributes.creationTime())) {
+            return true;
+        }
+        // 同一个文件只追加时不会比已经读取的位置短，被截断时打开的文件也会变短
+        return attributes.size() < position && channel.size() >= position;
+    }
+
+    /**
+     * 从 position 读取到文件末尾并解码
+     *
+     * @param text       解码后的内容
+     * @param endOfInput 是否是这个文件的最后一次读取，为 true 时输出解码器中剩余的内容
+     */
+    private void read(StringBuilder text, boolean endOfInput) throws IOException {
+        if (channel.size() == position && byteBuffer.remaining() == 0 && !endOfInput) {
+            return;
+        }
+        if (charset == null) {
+            if (channel.size() == 0) {
+                return;
+            }
+            charset = TextFileReader.withByteOrder(TextFileReader.detectCharset(path, channel),
+                    TextFileReader.readHead(channel));
+            resetDecoder();
+        }
+        if (position == 0) {
+            // Skip BOM bytes if present
+            position = TextFileReader.bomLength(TextFileReader.readHead(channel), charset);
+        }
+        boolean eof = false;
+        while (!eof) {
+            byteBuffer.compact();
+            int count = channel.read(byteBuffer, position);
+            byteBuffer.flip();
+            if (count > 0) {
+                position += count;
+            } else {
+                eof = true;
+            }
+            decode(text, eof && endOfInput);
+        }
+        if (endOfInput) {
+            while (decoder.flush(charBuffer).isOverflow()) {
+                drain(text);
+            }
+            drain(text);
+        }
+    }
+
+    private void decode(StringBuilder text, boolean endOfInput) throws IOException {
+        CoderResult result;
+        do {
+            result = decoder.decode(byteBuffer, charBuffer, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            drain(text);
+        } while (result.isOverflow());
+    }
+
+    private void drain(StringBuilder text) {
+        charBuffer.flip();
+        text.append(charBuffer);
+        charBuffer.clear();
+    }
+
+    private void resetDecoder() {
+        byteBuffer.clear().flip();
+        if (charset != null) {
+            decoder = TextFileReader.newDecoder(charset);
+        }
+    }
+
+    private BasicFileAttributes readAttributes() throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            fileKey = null;
+            creationTime = null;
+        }
+    }
+
+    /**
+     * 监听文件所在目录，创建失败时（例如文件系统不支持）返回 null，只使用定时检查
+     */
+    private WatchService watchService() {
+        if (watchService == null && !watchUnsupported) {
+            Path dir = path.toAbsolutePath().getParent();
+            WatchService watcher = null;
+            try {
+                watcher = path.getFileSystem().newWatchService();
+                dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                watchService = watcher;
+            } catch (IOException | UnsupportedOperationException e) {
+                LOGGER.warn("Watch directory exception, fall back to polling: {}", dir, e);
+                watchUnsupported = true;
+                TextFileReader.closeQuietly(watcher);
+            }
+        }
+        return watchService;
+    }
+}
@@ -5,7 +5,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.*;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
 
 /**
  * 文本文件读取工具类，支持自动识别编码格式
@@ -33,6 +40,64 @@ public class TextFileReader {
             Charset.forName("EUC-KR")
     };
 
+    /**
+     * 编码检测时单个采样窗口的大小
+     */
+    private static final int DETECT_SAMPLE_SIZE = 64 * 1024;
+
+    /**
+     * 默认的编码检测预算（字节），超过该大小的文件只采样头部、中部和尾部三个窗口
+     */
+    public static final int DEFAULT_DETECT_BUDGET = 3 * DETECT_SAMPLE_SIZE;
+
+    /**
+     * 候选编码得分达到该值时认为已经足够领先，不再评估优先级更低的候选编码
+     */
+    private static final double CONFIDENT_SCORE = 0.95;
+
+    /**
+     * 评估候选编码时复用的字符缓冲区大小
+     */
+    private static final int SCORE_BUFFER_SIZE = 8192;
+
+    /**
+     * 流式读取时的解码缓冲区大小
+     */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 文件大小达到该阈值时使用内存映射读取，小文件建立映射的开销比直接读取更大
+     */
+    private static final long MAPPED_READ_THRESHOLD = 1024 * 1024;
+
+    /**
+     * 并行检测编码的阈值，数据量较小时线程调度的开销比解码本身更大
+     */
+    private static final int PARALLEL_DETECT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * 编码检测结果缓存，为 null 时不使用缓存
+     */
+    private static volatile CharsetCache charsetCache;
+
+    /**
+     * 设置编码检测结果缓存，重复读取未变化的文件时跳过编码检测
+     *
+     * @param cache 缓存，为 null 时关闭缓存
+     */
+    public static void setCharsetCache(CharsetCache cache) {
+        charsetCache = cache;
+    }
+
+    /**
+     * 获取编码检测结果缓存
+     *
+     * @return 缓存，未开启时返回 null
+     */
+    public static CharsetCache getCharsetCache() {
+        return charsetCache;
+    }
+
     /**
      * 读取文本文件，自动识别编码
      *
@@ -49,24 +114,22 @@ public class TextFileReader {
 
     /**
      * 读取文本文件，自动识别编码
+     * 整个文件读入堆内存，编码根据全部内容检测（detectCharset(byte[])）。
+     * 与 readFile(Path) 不同：后者对不小于 1MB 的文件只根据头部、中部、尾部的采样数据检测编码，
+     * 非 Unicode 的混合编码文件在两种方式下可能得到不同的结果，需要与这个方法结果一致时使用本方法
      *
      * @param file 文件对象
      * @return 文件内容
      * @throws FileException 读取失败时抛出
      */
     public static String readFile(File file) throws FileException {
-        if (file == null) {
-            throw new FileException("File is null");
-        }
-        if (!file.exists()) {
-            throw new FileException("File does not exist: " + file);
-        }
-        if (!file.isFile()) {
-            throw new FileException("Not a file: " + file);
-        }
+        checkFile(file);
 
         try (FileInputStream fis = new FileInputStream(file);
              ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            // 先取文件标识再读取内容，读取过程中文件发生变化时，缓存的结果不会被之后的读取命中
+            CharsetCache cache = charsetCache;
+            CharsetCache.Key key = cache == null ? null : CharsetCache.keyOf(file.toPath());
 
             byte[] buffer = new byte[8192];
             int bytesRead;
@@ -75,10 +138,20 @@ public class TextFileReader {
             }
             byte[] fileBytes = baos.toByteArray();
 
-            Charset charset = detectCharset(fileBytes);
-            LOGGER.info("Detected charset for file {}: {}", file.getName(), charset.name());
+            // 只使用根据全部内容检测的缓存结果，不会命中 open、lines 等方法采样检测的结果
+            Charset charset = cache == null ? null : cache.get(key, true);
+            if (charset == null) {
+                charset = detectCharset(fileBytes);
+                LOGGER.info("Detected charset for file {}: {}", file.getName(), charset.name());
+                if (cache != null) {
+                    cache.put(key, charset, true);
+                }
+            } else {
+                LOGGER.debug("Cached charset for file {}: {}", file.getName(), charset.name());
+            }
 
             // Skip BOM bytes if present
+            charset = withByteOrder(charset, fileBytes);
             byte[] contentBytes = skipBOM(fileBytes, charset);
 
             return new String(contentBytes, charset);
@@ -89,6 +162,110 @@ public class TextFileReader {
         }
     }
 
+    /**
+     * 读取文本文件，自动识别编码
+     * 根据文件大小选择读取方式：小于 MAPPED_READ_THRESHOLD（1MB）时与 readFile(File) 相同，读入堆内存并根据全部内容检测编码；
+     * 否则使用 readFileMapped，编码只根据头部、中部、尾部的采样数据检测（最多 DEFAULT_DETECT_BUDGET 字节）。
+     * 因此对于大文件，采样窗口之外出现其他编码的字节时，检测结果可能与 readFile(File) 不同，
+     * 解码时这些字节被替换为替换字符，不会抛出异常
+     *
+     * @param path 文件路径
+     * @return 文件内容
+     * @throws FileException 读取失败时抛出
+     */
+    public static String readFile(Path path) throws FileException {
+        if (path == null) {
+            throw new FileException("File path is null");
+        }
+        File file = path.toFile();
+        checkFile(file);
+        if (file.length() < MAPPED_READ_THRESHOLD) {
+            return readFile(file);
+        }
+        return readFileMapped(path);
+    }
+
+    /**
+     * 使用内存映射读取文本文件，自动识别编码
+     * 直接从只读的 MappedByteBuffer 解码，不再将文件内容复制到堆内存的字节数组中
+     * 编码根据文件头部、中部、尾部的采样数据检测，文件大小不能超过 2GB
+     *
+     * @param path 文件路径
+     * @return 文件内容
+     * @throws FileException 读取失败时抛出
+     */
+    public static String readFileMapped(Path path) throws FileException {
+        if (path == null) {
+            throw new FileException("File path is null");
+        }
+        checkFile(path.toFile());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new FileException("File is too large to map: " + path);
+            }
+            byte[] head = readHead(channel);
+            Charset charset = withByteOrder(detectCharset(path, channel), head);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            // Skip BOM bytes if present
+            buffer.position(bomLength(head, charset));
+            return newDecoder(charset).decode(buffer).toString();
+        } catch (IOException e) {
+            LOGGER.error("Read file exception: {}", path, e);
+            throw new FileException("Read file exception: " + path, e);
+        }
+    }
+
+    /**
+     * 以流的方式打开文本文件，自动识别编码
+     * 仅根据文件的采样数据检测编码，之后增量解码，内存占用与文件大小无关
+     *
+     * @param path 文件路径
+     * @return 解码后的字符流，使用完毕后需要关闭
+     * @throws FileException 打开失败时抛出
+     */
+    public static Reader open(Path path) throws FileException {
+        if (path == null) {
+            throw new FileException("File path is null");
+        }
+        checkFile(path.toFile());
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            byte[] head = readHead(channel);
+            Charset charset = withByteOrder(detectCharset(path, channel), head);
+
+            // Skip BOM bytes if present
+            channel.position(bomLength(head, charset));
+            return new ChannelDecodingReader(channel, newDecoder(charset), STREAM_BUFFER_SIZE);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            LOGGER.error("Open file exception: {}", path, e);
+            throw new FileException("Open file exception: " + path, e);
+        }
+    }
+
+    /**
+     * 按行流式读取文本文件，自动识别编码
+     *
+     * @param path 文件路径
+     * @return 行流，使用完毕后需要关闭
+     * @throws FileException 打开失败时抛出
+     */
+    public static Stream<String> lines(Path path) throws FileException {
+        BufferedReader reader = new BufferedReader(open(path));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     /**
      * 检测字节数组的字符编码
      *
@@ -100,6 +277,52 @@ public class TextFileReader {
             return StandardCharsets.UTF_8;
         }
 
+        // 1~3. BOM、UTF-16 (无BOM情况)、UTF-8
+        Charset unicodeCharset = detectUnicodeCharset(bytes);
+        if (unicodeCharset != null) {
+            return unicodeCharset;
+        }
+
+        // 4. 尝试检测常见编码
+        for (Charset charset : COMMON_CHARSETS) {
+            if (isValidCharset(bytes, charset)) {
+                return charset;
+            }
+        }
+
+        // 5. 默认返回 UTF-8
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 检测字节数组的字符编码，并行评估候选编码
+     * 结果与 detectCharset(byte[]) 一致：不是 Unicode 编码时，各个候选编码在 ForkJoinPool 中并行地对同一份只读数据解码，
+     * 优先级最高的有效编码确定后，取消其余候选编码的解码。适用于较大的非 UTF-8 文件，小于 1MB 时直接顺序检测
+     *
+     * @param bytes 文件字节数组
+     * @return 检测到的字符集
+     */
+    public static Charset detectCharsetParallel(byte[] bytes) {
+        if (bytes == null || bytes.length < PARALLEL_DETECT_THRESHOLD) {
+            return detectCharset(bytes);
+        }
+
+        Charset unicodeCharset = detectUnicodeCharset(bytes);
+        if (unicodeCharset != null) {
+            return unicodeCharset;
+        }
+
+        Charset charset = ParallelCharsetDetector.detect(bytes, COMMON_CHARSETS);
+        return charset != null ? charset : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 检测 Unicode 编码
+     *
+     * @param bytes 文件字节数组，不为空
+     * @return 检测到的 Unicode 字符集，不是 Unicode 编码时返回 null
+     */
+    private static Charset detectUnicodeCharset(byte[] bytes) {
         // 1. 首先尝试检测 BOM (Byte Order Mark)
         Charset bomCharset = detectBOM(bytes);
         if (bomCharset != null) {
@@ -113,19 +336,352 @@ public class TextFileReader {
         }
 
         // 3. 尝试验证是否为有效的 UTF-8
-        if (isValidUtf8(bytes)) {
+        if (isValidUtf8(bytes, 0, true)) {
             return StandardCharsets.UTF_8;
         }
+        return null;
+    }
 
-        // 4. 尝试检测常见编码
+    /**
+     * 在检测预算内采样检测字节数组的字符编码
+     * 数据量超过预算时，只采样头部、中部和尾部三个窗口，在采样数据上对候选编码打分，
+     * 按优先级评估候选编码，某个候选编码足够领先时提前结束
+     *
+     * @param bytes  文件字节数组
+     * @param budget 检测预算，即最多采样的字节数
+     * @return 检测结果，包含字符集和置信度
+     */
+    public static CharsetDetectResult detectCharset(byte[] bytes, int budget) {
+        if (bytes == null) {
+            bytes = new byte[0];
+        }
+        long[][] ranges = sampleRanges(bytes.length, budget);
+        byte[][] windows = new byte[ranges.length][];
+        for (int i = 0; i < ranges.length; i++) {
+            int from = (int) ranges[i][0];
+            windows[i] = Arrays.copyOfRange(bytes, from, from + (int) ranges[i][1]);
+        }
+        return detectCharset(windows, bytes.length);
+    }
+
+    /**
+     * 在检测预算内采样检测文件的字符编码，不会将整个文件读入内存
+     *
+     * @param path   文件路径
+     * @param budget 检测预算，即最多采样的字节数
+     * @return 检测结果，包含字符集和置信度
+     * @throws FileException 读取失败时抛出
+     */
+    public static CharsetDetectResult detectCharset(Path path, int budget) throws FileException {
+        if (path == null) {
+            throw new FileException("File path is null");
+        }
+        checkFile(path.toFile());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return detectCharset(readSampleWindows(channel, budget), channel.size());
+        } catch (IOException e) {
+            LOGGER.error("Detect charset exception: {}", path, e);
+            throw new FileException("Detect charset exception: " + path, e);
+        }
+    }
+
+    /**
+     * 根据采样窗口检测字符编码
+     *
+     * @param windows 采样窗口，第一个窗口从文件头开始，最后一个窗口到文件末尾结束
+     * @param size    文件总大小
+     * @return 检测结果
+     */
+    private static CharsetDetectResult detectCharset(byte[][] windows, long size) {
+        if (size == 0) {
+            return new CharsetDetectResult(StandardCharsets.UTF_8, 1.0);
+        }
+
+        // 1. 首先尝试检测 BOM (Byte Order Mark)
+        Charset bomCharset = detectBOM(windows[0]);
+        if (bomCharset != null) {
+            return new CharsetDetectResult(bomCharset, 1.0);
+        }
+
+        // 2. 一次遍历统计奇偶位置的 NULL 字节，检测 UTF-16BE/LE (无BOM情况)
+        // 文件大小为偶数时各窗口的起始位置都是偶数，窗口内下标的奇偶性与文件中的位置一致
+        if (size >= 4 && size % 2 == 0) {
+            long sampled = 0;
+            long nullCountBe = 0;
+            long nullCountLe = 0;
+            for (byte[] window : windows) {
+                for (int i = 0; i + 1 < window.length; i += 2) {
+                    if (window[i] == 0x00) {
+                        nullCountBe++;
+                    }
+                    if (window[i + 1] == 0x00) {
+                        nullCountLe++;
+                    }
+                }
+                sampled += window.length / 2;
+            }
+            double nullRatioBe = (double) nullCountBe / sampled;
+            double nullRatioLe = (double) nullCountLe / sampled;
+            if (nullRatioBe > 0.3) {
+                return new CharsetDetectResult(StandardCharsets.UTF_16BE, nullRatioBe);
+            }
+            if (nullRatioLe > 0.3) {
+                return new CharsetDetectResult(StandardCharsets.UTF_16LE, nullRatioLe);
+            }
+        }
+
+        // 3. 尝试验证是否为有效的 UTF-8，窗口边界处被截断的字符不算错误
+        boolean validUtf8 = true;
+        for (int i = 0; i < windows.length && validUtf8; i++) {
+            int from = i == 0 ? 0 : skipUtf8ContinuationBytes(windows[i]);
+            validUtf8 = isValidUtf8(windows[i], from, i == windows.length - 1);
+        }
+        if (validUtf8) {
+            return new CharsetDetectResult(StandardCharsets.UTF_8, 1.0);
+        }
+
+        // 4. 按优先级对常见编码打分，得分足够高时提前结束
+        Charset bestCharset = StandardCharsets.UTF_8;
+        double bestScore = 0;
+        CharBuffer out = CharBuffer.allocate(SCORE_BUFFER_SIZE);
         for (Charset charset : COMMON_CHARSETS) {
-            if (isValidCharset(bytes, charset)) {
+            double score = scoreCharset(windows, charset, out);
+            if (score > bestScore) {
+                bestCharset = charset;
+                bestScore = score;
+            }
+            if (bestScore >= CONFIDENT_SCORE) {
+                break;
+            }
+        }
+        return new CharsetDetectResult(bestCharset, bestScore);
+    }
+
+    /**
+     * 在默认检测预算内采样检测文件编码，开启缓存时优先使用缓存的结果（采样检测或者根据全部内容检测的结果都可以使用）
+     *
+     * @param path    文件路径
+     * @param channel 文件通道
+     * @return 检测到的字符集
+     * @throws IOException 读取失败
+     */
+    static Charset detectCharset(Path path, FileChannel channel) throws IOException {
+        CharsetCache cache = charsetCache;
+        CharsetCache.Key key = null;
+        if (cache != null) {
+            key = CharsetCache.keyOf(path);
+            Charset charset = cache.get(key, false);
+            if (charset != null) {
+                LOGGER.debug("Cached charset for file {}: {}", path.getFileName(), charset.name());
                 return charset;
             }
         }
 
-        // 5. 默认返回 UTF-8
-        return StandardCharsets.UTF_8;
+        Charset charset = detectCharset(readSampleWindows(channel, DEFAULT_DETECT_BUDGET), channel.size()).getCharset();
+        LOGGER.info("Detected charset for file {}: {}", path.getFileName(), charset.name());
+        if (cache != null) {
+            cache.put(key, charset, false);
+        }
+        return charset;
+    }
+
+    /**
+     * 读取文件开头用于判断 BOM 的字节
+     *
+     * @param channel 文件通道
+     * @return 文件开头最多 4 个字节
+     * @throws IOException 读取失败
+     */
+    static byte[] readHead(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(4);
+        while (head.hasRemaining() && channel.read(head, head.position()) != -1) {
+            // keep reading until 4 bytes are read or the file ends
+        }
+        return Arrays.copyOf(head.array(), head.position());
+    }
+
+    /**
+     * 计算采样窗口，数据量不超过预算时只有一个覆盖全部数据的窗口，
+     * 否则为头部、中部、尾部三个窗口，头部和中部窗口的起始位置为偶数，以便检测 UTF-16
+     *
+     * @param size   文件总大小
+     * @param budget 检测预算
+     * @return 每个窗口的起始位置和长度
+     */
+    private static long[][] sampleRanges(long size, int budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Detect budget must be positive: " + budget);
+        }
+        if (size <= budget) {
+            return new long[][]{{0, size}};
+        }
+        long window = Math.max(2, (budget / 3) & ~1L);
+        long middle = (size / 2 - window / 2) & ~1L;
+        return new long[][]{{0, window}, {middle, window}, {size - window, window}};
+    }
+
+    /**
+     * 读取文件的采样窗口
+     *
+     * @param channel 文件通道
+     * @param budget  检测预算
+     * @return 采样窗口
+     * @throws IOException 读取失败
+     */
+    private static byte[][] readSampleWindows(FileChannel channel, int budget) throws IOException {
+        long[][] ranges = sampleRanges(channel.size(), budget);
+        byte[][] windows = new byte[ranges.length][];
+        for (int i = 0; i < ranges.length; i++) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) ranges[i][1]);
+            long position = ranges[i][0];
+            while (buffer.hasRemaining()) {
+                int bytesRead = channel.read(buffer, position);
+                if (bytesRead < 0) {
+                    break;
+                }
+                position += bytesRead;
+            }
+            windows[i] = Arrays.copyOf(buffer.array(), buffer.position());
+        }
+        return windows;
+    }
+
+    /**
+     * 跳过窗口开头不完整字符的 UTF-8 后续字节 (10xxxxxx)，最多 3 个
+     *
+     * @param window 采样窗口
+     * @return 第一个非后续字节的位置
+     */
+    private static int skipUtf8ContinuationBytes(byte[] window) {
+        int i = 0;
+        while (i < 3 && i < window.length && (window[i] & 0xC0) == 0x80) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 计算候选编码在采样窗口上的得分
+     * 得分 = 非 ASCII 字节中可以正确解码的比例 * 解码出的非 ASCII 字符中常见文字的比例
+     * 只统计非 ASCII 部分，避免大量 ASCII 内容掩盖少量的解码错误
+     * 中部和尾部窗口可能从多字节字符的中间开始，因此尝试跳过开头的 0~3 个字节，取错误最少的一种
+     *
+     * @param windows 采样窗口
+     * @param charset 候选编码
+     * @param out     复用的字符缓冲区
+     * @return 得分，取值范围 [0, 1]
+     */
+    private static double scoreCharset(byte[][] windows, Charset charset, CharBuffer out) {
+        CharsetDecoder decoder = charset.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPORT);
+        decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        long nonAsciiBytes = 0;
+        long errors = 0;
+        long nonAscii = 0;
+        long plausible = 0;
+        for (int i = 0; i < windows.length; i++) {
+            boolean endOfInput = i == windows.length - 1;
+            int maxSkip = i == 0 ? 0 : Math.min(3, windows[i].length);
+            long[] best = null;
+            for (int skip = 0; skip <= maxSkip; skip++) {
+                long[] stats = decodeWindow(decoder, windows[i], skip, endOfInput, out);
+                if (best == null || stats[1] < best[1]) {
+                    best = stats;
+                }
+                if (best[1] == 0) {
+                    break;
+                }
+            }
+            nonAsciiBytes += best[0];
+            errors += best[1];
+            nonAscii += best[2];
+            plausible += best[3];
+        }
+        if (nonAsciiBytes == 0) {
+            return 1.0;
+        }
+        double cleanRatio = Math.max(0, 1.0 - (double) errors / nonAsciiBytes);
+        double plausibleRatio = nonAscii == 0 ? 1.0 : (double) plausible / nonAscii;
+        return cleanRatio * plausibleRatio;
+    }
+
+    /**
+     * 解码一个采样窗口，遇到错误时跳过错误字节继续解码
+     *
+     * @param decoder    解码器
+     * @param window     采样窗口
+     * @param skip       跳过开头的字节数
+     * @param endOfInput 窗口是否到文件末尾结束
+     * @param out        复用的字符缓冲区
+     * @return {非 ASCII 字节数, 错误字节数, 非 ASCII 字符数, 常见文字字符数}
+     */
+    private static long[] decodeWindow(CharsetDecoder decoder, byte[] window, int skip, boolean endOfInput,
+                                       CharBuffer out) {
+        long nonAsciiBytes = 0;
+        for (int i = skip; i < window.length; i++) {
+            if (window[i] < 0) {
+                nonAsciiBytes++;
+            }
+        }
+
+        decoder.reset();
+        ByteBuffer in = ByteBuffer.wrap(window, skip, window.length - skip);
+        long errors = 0;
+        long nonAscii = 0;
+        long plausible = 0;
+        while (true) {
+            out.clear();
+            CoderResult result = decoder.decode(in, out, endOfInput);
+            out.flip();
+            while (out.hasRemaining()) {
+                char c = out.get();
+                if (c >= 0x80) {
+                    nonAscii++;
+                    if (isPlausibleChar(c)) {
+                        plausible++;
+                    }
+                }
+            }
+            if (result.isError()) {
+                errors += result.length();
+                in.position(in.position() + result.length());
+            } else if (result.isUnderflow()) {
+                break;
+            }
+        }
+        return new long[]{nonAsciiBytes, errors, nonAscii, plausible};
+    }
+
+    /**
+     * 判断字符是否为常见文字，用于区分正确解码和“可以解码但是乱码”的情况
+     *
+     * @param c 非 ASCII 字符
+     * @return 是否为常见文字
+     */
+    private static boolean isPlausibleChar(char c) {
+        if (Character.isSurrogate(c) || Character.isISOControl(c)) {
+            return false;
+        }
+        int type = Character.getType(c);
+        if (type == Character.PRIVATE_USE || type == Character.UNASSIGNED) {
+            return false;
+        }
+        switch (Character.UnicodeScript.of(c)) {
+            case HAN:
+            case HIRAGANA:
+            case KATAKANA:
+            case HANGUL:
+            case BOPOMOFO:
+            case LATIN:
+            case GREEK:
+            case CYRILLIC:
+            case COMMON:
+                return true;
+            default:
+                return false;
+        }
     }
 
     /**
@@ -228,81 +784,78 @@ public class TextFileReader {
      * @return 跳过 BOM 后的字节数组
      */
     private static byte[] skipBOM(byte[] bytes, Charset charset) {
+        int bomLength = bomLength(bytes, charset);
+        if (bomLength == 0) {
+            return bytes;
+        }
+        return Arrays.copyOfRange(bytes, bomLength, bytes.length);
+    }
+
+    /**
+     * 计算 BOM 字节数
+     *
+     * @param bytes  文件字节数组（或文件头部采样）
+     * @param charset 检测到的字符集
+     * @return BOM 字节数，无 BOM 时返回 0
+     */
+    static int bomLength(byte[] bytes, Charset charset) {
         if (charset == StandardCharsets.UTF_8) {
             // Skip UTF-8 BOM (3 bytes)
             if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF
                     && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
-                byte[] result = new byte[bytes.length - 3];
-                System.arraycopy(bytes, 3, result, 0, bytes.length - 3);
-                return result;
+                return 3;
             }
-        } else if (charset == StandardCharsets.UTF_16) {
-            // Skip UTF-16 BOM (2 bytes)
+        } else if (charset == StandardCharsets.UTF_16 || charset == StandardCharsets.UTF_16BE
+                || charset == StandardCharsets.UTF_16LE) {
+            // Skip UTF-16 BOM (2 bytes), UTF-16BE/LE only skip the BOM of the same byte order
             if (bytes.length >= 2) {
                 int b0 = bytes[0] & 0xFF;
                 int b1 = bytes[1] & 0xFF;
-                if ((b0 == 0xFE && b1 == 0xFF) || (b0 == 0xFF && b1 == 0xFE)) {
-                    byte[] result = new byte[bytes.length - 2];
-                    System.arraycopy(bytes, 2, result, 0, bytes.length - 2);
-                    return result;
+                boolean bigEndianBom = b0 == 0xFE && b1 == 0xFF;
+                boolean littleEndianBom = b0 == 0xFF && b1 == 0xFE;
+                if (charset == StandardCharsets.UTF_16 ? bigEndianBom || littleEndianBom
+                        : charset == StandardCharsets.UTF_16BE ? bigEndianBom : littleEndianBom) {
+                    return 2;
                 }
             }
-        } else if (charset == StandardCharsets.UTF_16BE || charset == StandardCharsets.UTF_16LE) {
-            // UTF-16BE/LE without BOM - no need to skip anything
-            return bytes;
         }
-        return bytes;
+        // UTF-16BE/LE without BOM - no need to skip anything
+        return 0;
+    }
+
+    /**
+     * 没有指定字节序的 UTF-16、UTF-32 根据 BOM 确定字节序，没有 BOM 时为大端，其他字符集原样返回
+     * BOM 被跳过之后，UTF-16 解码器无法再得知字节序，会按大端解码，因此跳过 BOM 之前必须先确定字节序
+     *
+     * @param charset 检测到的字符集
+     * @param head    文件开头的字节
+     * @return 明确字节序的字符集
+     */
+    static Charset withByteOrder(Charset charset, byte[] head) {
+        String name = charset.name();
+        if (!"UTF-16".equals(name) && !"UTF-32".equals(name)) {
+            return charset;
+        }
+        boolean littleEndian = head.length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE;
+        return Charset.forName(name + (littleEndian ? "LE" : "BE"));
     }
 
     /**
      * 验证字节数组是否为有效的 UTF-8 编码
+     * 使用 Utf8Validator 按 8 字节一组跳过 ASCII，并拒绝超长编码和代理区字符
      *
-     * @param bytes 字节数组
+     * @param bytes      字节数组
+     * @param from       开始验证的位置
+     * @param endOfInput 为 false 时允许末尾存在不完整的字符
      * @return 是否为有效的 UTF-8
      */
-    private static boolean isValidUtf8(byte[] bytes) {
-        int i = 0;
-        while (i < bytes.length) {
-            int b = bytes[i] & 0xFF;
-
-            // 单字节字符 (0xxxxxxx)
-            if (b < 0x80) {
-                i++;
-                continue;
-            }
-
-            // 判断字符长度
-            int charLength;
-            if ((b & 0xE0) == 0xC0) {
-                // 2字节字符 (110xxxxx 10xxxxxx)
-                charLength = 2;
-            } else if ((b & 0xF0) == 0xE0) {
-                // 3字节字符 (1110xxxx 10xxxxxx 10xxxxxx)
-                charLength = 3;
-            } else if ((b & 0xF8) == 0xF0) {
-                // 4字节字符 (11110xxx 10xxxxxx 10xxxxxx 10xxxxxx)
-                charLength = 4;
-            } else {
-                // 无效的 UTF-8 首字节
-                return false;
-            }
-
-            // 检查是否有足够的字节
-            if (i + charLength > bytes.length) {
-                return false;
-            }
-
-            // 验证后续字节是否为 10xxxxxx 格式
-            for (int j = 1; j < charLength; j++) {
-                int followingByte = bytes[i + j] & 0xFF;
-                if ((followingByte & 0xC0) != 0x80) {
-                    return false;
-                }
-            }
-
-            i += charLength;
+    private static boolean isValidUtf8(byte[] bytes, int from, boolean endOfInput) {
+        int length = bytes.length - from;
+        if (!endOfInput) {
+            // 采样数据末尾的字符可能被截断
+            length -= Utf8Validator.incompleteTailLength(bytes, from, length);
         }
-        return true;
+        return Utf8Validator.isValid(bytes, from, length);
     }
 
     /**
@@ -324,6 +877,46 @@ public class TextFileReader {
         }
     }
 
+    /**
+     * 创建解码器，与 new String(bytes, charset) 一致，无法解码的字节使用替换字符
+     *
+     * @param charset 字符集
+     * @return 解码器
+     */
+    static CharsetDecoder newDecoder(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * 校验文件
+     *
+     * @param file 文件对象
+     * @throws FileException 文件为空、不存在或者不是文件时抛出
+     */
+    private static void checkFile(File file) throws FileException {
+        if (file == null) {
+            throw new FileException("File is null");
+        }
+        if (!file.exists()) {
+            throw new FileException("File does not exist: " + file);
+        }
+        if (!file.isFile()) {
+            throw new FileException("Not a file: " + file);
+        }
+    }
+
+    static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                LOGGER.warn("Close exception", e);
+            }
+        }
+    }
+
     /**
      * 获取支持的常见编码列表
      *
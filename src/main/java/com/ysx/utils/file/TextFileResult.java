@@ -0,0 +1,63 @@
+package com.ysx.utils.file;
+
+import java.nio.file.Path;
+
+/**
+ * 批量读取时单个文件的读取结果，读取失败时记录异常，不会中断整个批次
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextFileResult {
+
+    private final Path path;
+
+    /**
+     * 文件内容，读取失败时为 null
+     */
+    private final String content;
+
+    /**
+     * 读取失败时的异常，读取成功时为 null
+     */
+    private final FileException error;
+
+    private TextFileResult(Path path, String content, FileException error) {
+        this.path = path;
+        this.content = content;
+        this.error = error;
+    }
+
+    static TextFileResult success(Path path, String content) {
+        return new TextFileResult(path, content, null);
+    }
+
+    static TextFileResult failure(Path path, FileException error) {
+        return new TextFileResult(path, null, error);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public FileException getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "TextFileResult{" +
+                "path=" + path +
+                ", success=" + isSuccess() +
+                '}';
+    }
+}
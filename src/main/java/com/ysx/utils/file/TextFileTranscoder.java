@@ -0,0 +1,347 @@
+package com.ysx.utils.file;
+
+import com.ysx.utils.threadpool.ThreadPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 文本文件编码转换工具类
+ * 自动识别源文件的编码，从文件通道读取字节，经过源编码的解码器和目标编码的编码器直接写入目标文件，
+ * 中间不生成完整的 String，内存占用只与缓冲区大小有关，与文件大小无关。
+ * 每个线程复用同一组直接内存缓冲区，批量转换时多个文件在线程池中并发转换
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextFileTranscoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextFileTranscoder.class);
+
+    /**
+     * 缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * 每个线程复用的缓冲区
+     */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private TextFileTranscoder() {
+    }
+
+    /**
+     * 转换文件编码，自动识别源文件的编码，源文件的 BOM 不会写入目标文件；
+     * 目标编码为不指定字节序的 UTF-16 时，由编码器写出大端的 BOM，源文件为带 BOM 的 UTF-16LE 时同样按大端重新编码
+     * 先写入目标文件所在目录的临时文件，成功后替换目标文件，因此 out 可以与 in 相同（原地转换）
+     * 源编码与目标编码相同时直接复制字节
+     *
+     * @param in     源文件
+     * @param out    目标文件，所在目录必须存在，已存在时覆盖
+     * @param target 目标编码
+     * @return 源文件的编码，UTF-16 为根据 BOM 确定了字节序的字符集
+     * @throws FileException 读写失败，或者源文件中有目标编码无法表示的字符时抛出
+     */
+    public static Charset transcode(Path in, Path out, Charset target) throws FileException {
+        return transcode(in, null, out, target);
+    }
+
+    /**
+     * 按指定的源编码转换文件编码，编码检测是基于采样的推测，已知源编码时（例如 Big5、Shift_JIS 这类难以区分的编码）使用此方法
+     *
+     * @param in     源文件
+     * @param source 源编码，为 null 时自动识别
+     * @param out    目标文件，所在目录必须存在，已存在时覆盖，可以与 in 相同
+     * @param target 目标编码
+     * @return 源文件的编码，UTF-16 为根据 BOM 确定了字节序的字符集
+     * @throws FileException 读写失败，或者源文件中有目标编码无法表示的字符时抛出
+     */
+    public static Charset transcode(Path in, Charset source, Path out, Charset target) throws FileException {
+        if (in == null || out == null || target == null) {
+            throw new FileException("Transcode arguments must not be null");
+        }
+        if (!Files.isRegularFile(in)) {
+            throw new FileException("Not a file: " + in);
+        }
+        if (!target.canEncode()) {
+            throw new FileException("Charset does not support encoding: " + target);
+        }
+
+        Path tempFile = null;
+        try {
+            // 不使用 Files.createTempFile，它创建的文件权限为 600，而不是按 umask 创建的普通文件权限
+            Path absolute = out.toAbsolutePath();
+            tempFile = absolute.resolveSibling("." + absolute.getFileName() + ".transcode-" + System.nanoTime());
+            Charset charset;
+            try (FileChannel channel = FileChannel.open(in, StandardOpenOption.READ);
+                 FileChannel dest = FileChannel.open(tempFile, StandardOpenOption.WRITE,
+                         StandardOpenOption.CREATE_NEW)) {
+                // 跳过 BOM 之前先按 BOM 确定 UTF-16 的字节序，否则跳过 BOM 后的数据会被当作大端解码
+                byte[] head = TextFileReader.readHead(channel);
+                charset = TextFileReader.withByteOrder(
+                        source == null ? TextFileReader.detectCharset(in, channel) : source, head);
+                long position = TextFileReader.bomLength(head, charset);
+                if (charset.equals(target)) {
+                    copy(channel, position, dest);
+                } else {
+                    transcode(channel, position, newDecoder(charset), newEncoder(target), dest);
+                }
+            }
+            // 源文件关闭之后再替换，原地转换时不会替换仍然打开着的文件
+            Files.move(tempFile, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Transcoded {} from {} to {}", in.getFileName(), charset.name(), target.name());
+            return charset;
+        } catch (MalformedSourceException e) {
+            deleteQuietly(tempFile);
+            LOGGER.error("Source file is not valid {}: {}", e.getCharset().name(), in, e);
+            throw new FileException("Source file is not valid " + e.getCharset().name() + ": " + in, e);
+        } catch (CharacterCodingException e) {
+            deleteQuietly(tempFile);
+            LOGGER.error("Unmappable character for charset {}: {}", target.name(), in, e);
+            throw new FileException("Unmappable character for charset " + target.name() + ": " + in, e);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            LOGGER.error("Transcode file exception: {}", in, e);
+            throw new FileException("Transcode file exception: " + in, e);
+        }
+    }
+
+    /**
+     * 转换目录下（包括子目录）所有匹配的文件，使用 ThreadPoolConfig.calculateCorePoolCount() 个线程
+     *
+     * @param srcDir  源目录
+     * @param glob    相对于 srcDir 的 glob 表达式，例如 "**&#47;*.txt"，为 null 时转换所有文件
+     * @param destDir 目标目录，保持相对路径，可以与 srcDir 相同（原地转换）
+     * @param target  目标编码
+     * @return 转换失败的文件及其异常，全部成功时为空，单个文件失败不影响其它文件
+     * @throws FileException 目录不存在或遍历目录失败时抛出
+     */
+    public static Map<Path, FileException> transcodeFiles(Path srcDir, String glob, Path destDir, Charset target)
+            throws FileException {
+        ExecutorService executor = Executors.newFixedThreadPool(ThreadPoolConfig.calculateCorePoolCount());
+        try {
+            return transcodeFiles(srcDir, glob, destDir, target, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 在指定的线程池中转换目录下（包括子目录）所有匹配的文件，线程池由调用者负责关闭
+     *
+     * @param srcDir   源目录
+     * @param glob     相对于 srcDir 的 glob 表达式，为 null 时转换所有文件
+     * @param destDir  目标目录，保持相对路径，可以与 srcDir 相同（原地转换）
+     * @param target   目标编码
+     * @param executor 线程池
+     * @return 转换失败的文件及其异常，全部成功时为空
+     * @throws FileException 目录不存在或遍历目录失败时抛出
+     */
+    public static Map<Path, FileException> transcodeFiles(Path srcDir, String glob, Path destDir, Charset target,
+                                                          ExecutorService executor) throws FileException {
+        if (srcDir == null || destDir == null) {
+            throw new FileException("Directory is null");
+        }
+        if (!Files.isDirectory(srcDir)) {
+            throw new FileException("Not a directory: " + srcDir);
+        }
+
+        List<Path> files;
+        PathMatcher matcher = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        try (Stream<Path> paths = Files.walk(srcDir)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher == null || matcher.matches(srcDir.relativize(path)))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            LOGGER.error("Walk directory exception: {}", srcDir, e);
+            throw new FileException("Walk directory exception: " + srcDir, e);
+        }
+
+        Map<Path, Future<?>> futures = new LinkedHashMap<>();
+        for (Path file : files) {
+            Path out = destDir.resolve(srcDir.relativize(file).toString());
+            futures.put(file, executor.submit(() -> {
+                Files.createDirectories(out.toAbsolutePath().getParent());
+                return transcode(file, out, target);
+            }));
+        }
+        Map<Path, FileException> failures = new LinkedHashMap<>();
+        for (Map.Entry<Path, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                throw new FileException("Interrupted while transcoding files", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                failures.put(entry.getKey(), cause instanceof FileException ? (FileException) cause
+                        : new FileException("Transcode file exception: " + entry.getKey(), cause));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 从 position 开始逐块解码、编码，缓冲区始终复用
+     */
+    private static void transcode(FileChannel source, long position, CharsetDecoder decoder, CharsetEncoder encoder,
+                                  FileChannel dest) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        ByteBuffer in = buffers.in.clear();
+        CharBuffer chars = buffers.chars.clear();
+        ByteBuffer out = buffers.out.clear();
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            int count = source.read(in, position);
+            if (count > 0) {
+                position += count;
+            } else {
+                endOfInput = true;
+            }
+            in.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(in, chars, endOfInput);
+                if (result.isError()) {
+                    throw new MalformedSourceException(decoder.charset(), position - in.remaining(), result);
+                }
+                encode(encoder, chars, out, dest, false);
+            } while (result.isOverflow());
+            in.compact();
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            encode(encoder, chars, out, dest, false);
+        }
+        encode(encoder, chars, out, dest, true);
+        while (encoder.flush(out).isOverflow()) {
+            writeFully(out, dest);
+        }
+        writeFully(out, dest);
+    }
+
+    /**
+     * 编码 chars 中已解码的字符，输出缓冲区满时写入文件，不完整的代理对留在 chars 中
+     */
+    private static void encode(CharsetEncoder encoder, CharBuffer chars, ByteBuffer out, FileChannel dest,
+                               boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, out, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isOverflow()) {
+                writeFully(out, dest);
+            }
+        } while (result.isOverflow());
+        chars.compact();
+    }
+
+    private static void writeFully(ByteBuffer out, FileChannel dest) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            dest.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * 源编码与目标编码相同，由操作系统直接复制字节
+     */
+    private static void copy(FileChannel source, long position, FileChannel dest) throws IOException {
+        long size = source.size();
+        while (position < size) {
+            position += source.transferTo(position, size - position, dest);
+        }
+    }
+
+    /**
+     * 源文件中不符合源编码的字节抛出异常，不会悄悄替换成 U+FFFD：编码检测是推测，检测错误时必须失败，而不是写出损坏的内容
+     */
+    private static CharsetDecoder newDecoder(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * 无法用目标编码表示的字符抛出异常，不会悄悄替换成问号
+     */
+    private static CharsetEncoder newEncoder(Charset charset) {
+        return charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Delete temp file exception: {}", file, e);
+        }
+    }
+
+    /**
+     * 一个线程转换文件时使用的缓冲区
+     */
+    private static final class Buffers {
+
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * 源文件中的字节不符合源编码（编码检测错误，或者指定的源编码不正确）
+     */
+    private static final class MalformedSourceException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Charset charset;
+
+        MalformedSourceException(Charset charset, long position, CoderResult result) {
+            super((result.isMalformed() ? "Malformed" : "Unmappable") + " input of length " + result.length()
+                    + " for charset " + charset.name() + " near byte " + position);
+            this.charset = charset;
+        }
+
+        Charset getCharset() {
+            return charset;
+        }
+    }
+}
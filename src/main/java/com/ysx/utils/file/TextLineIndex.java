@@ -0,0 +1,533 @@
+package com.ysx.utils.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 文本文件行索引
+ * 通过内存映射一次扫描整个文件，记录每一行的起始字节位置，之后读取第 N 行或者一段行时只读取、解码这部分字节，不需要解码整个文件
+ * <p>
+ * 行的位置按块存储：每 BLOCK_LINES 行记录一个绝对位置（long），块内其余行记录与上一行的差值，使用变长整数 (varint) 编码，
+ * 一般的文本每行只占 1~2 个字节；查找第 N 行时最多解码 BLOCK_LINES - 1 个差值
+ * <p>
+ * 行以 '\n' 分隔，行内容不包括行尾的 "\n" 或者 "\r\n"；文件以换行符结尾时，最后不会多出一个空行。
+ * 支持 UTF-16、UTF-32 以及与 ASCII 兼容的编码（UTF-8、GBK、GB18030、Big5、Shift_JIS、EUC-KR 等，这些编码的多字节字符中不会出现 0x0A），
+ * 与 ASCII 兼容的编码每次读取 8 个字节，用位运算同时判断其中是否有 '\n'，不需要解码
+ * <p>
+ * 索引保存在文件旁边的 .lidx 文件中，文件的大小或者修改时间变化后索引失效，会重新建立
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextLineIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextLineIndex.class);
+
+    /**
+     * 索引文件后缀
+     */
+    public static final String INDEX_SUFFIX = ".lidx";
+
+    /**
+     * 索引文件魔数 "LIDX"
+     */
+    private static final int MAGIC = 0x4C494458;
+
+    private static final int VERSION = 1;
+
+    /**
+     * 每块的行数，必须是 2 的幂
+     */
+    private static final int BLOCK_LINES = 64;
+
+    private static final int BLOCK_SHIFT = Integer.numberOfTrailingZeros(BLOCK_LINES);
+
+    /**
+     * 每次映射的文件大小
+     */
+    private static final long MAP_SIZE = 256L * 1024 * 1024;
+
+    private static final VarHandle LONG_BUFFER_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final Path file;
+
+    private final long fileSize;
+
+    private final long fileModified;
+
+    private final Charset charset;
+
+    private final long lineCount;
+
+    /**
+     * 每块第一行的起始位置
+     */
+    private final long[] blockOffsets;
+
+    /**
+     * 每块的第一个差值在 deltas 中的位置
+     */
+    private final int[] blockDeltaStarts;
+
+    /**
+     * 块内各行与上一行的差值，varint 编码
+     */
+    private final byte[] deltas;
+
+    private TextLineIndex(Path file, long fileSize, long fileModified, Charset charset, long lineCount,
+                          long[] blockOffsets, int[] blockDeltaStarts, byte[] deltas) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.charset = charset;
+        this.lineCount = lineCount;
+        this.blockOffsets = blockOffsets;
+        this.blockDeltaStarts = blockDeltaStarts;
+        this.deltas = deltas;
+    }
+
+    /**
+     * 读取文件旁边的索引文件，索引文件不存在或者已经失效时重新建立并保存
+     *
+     * @param file 文本文件
+     * @return 索引
+     * @throws IOException 读取文件失败
+     */
+    public static TextLineIndex loadOrBuild(Path file) throws IOException {
+        Path indexFile = indexFileOf(file);
+        if (Files.exists(indexFile)) {
+            try {
+                TextLineIndex index = load(file, indexFile);
+                if (index.isValid()) {
+                    return index;
+                }
+                LOGGER.info("Line index is stale, rebuild: {}", indexFile);
+            } catch (IOException e) {
+                LOGGER.warn("Load line index exception, rebuild: {}", indexFile, e);
+            }
+        }
+        TextLineIndex index = build(file);
+        try {
+            index.write(indexFile);
+        } catch (IOException e) {
+            // 例如文件所在目录只读，索引仍然可以在内存中使用
+            LOGGER.warn("Write line index exception: {}", indexFile, e);
+        }
+        return index;
+    }
+
+    /**
+     * 扫描整个文件，建立索引
+     *
+     * @param file 文本文件
+     * @return 索引
+     * @throws IOException 读取文件失败
+     */
+    public static TextLineIndex build(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Charset charset = TextFileReader.detectCharset(file, channel);
+            byte[] head = TextFileReader.readHead(channel);
+            Builder builder = new Builder();
+            int unitSize = unitSize(charset);
+            if (unitSize == 1) {
+                long start = TextFileReader.bomLength(head, charset);
+                if (start < size) {
+                    builder.add(start);
+                }
+                scan(channel, start, size, builder);
+            } else {
+                // 按 BOM 确定字节序，之后按行解码时使用明确字节序的字符集
+                charset = TextFileReader.withByteOrder(charset, head);
+                ByteOrder order = charset.name().endsWith("LE") ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+                long start = hasBom(head, unitSize, order) ? unitSize : 0;
+                if (start < size) {
+                    builder.add(start);
+                }
+                scanUnits(channel, start, size, unitSize, order, builder);
+            }
+            return builder.build(file, attributes.size(), attributes.lastModifiedTime().toMillis(), charset);
+        }
+    }
+
+    /**
+     * 读取索引文件
+     *
+     * @param file      文本文件
+     * @param indexFile 索引文件
+     * @return 索引
+     * @throws IOException 读取失败或者格式不正确
+     */
+    public static TextLineIndex load(Path file, Path indexFile) throws IOException {
+        // 各个长度在分配数组之前先与索引文件大小比较，损坏或者被截断的索引文件抛出 IOException，由调用者重新建立
+        long indexSize = Files.size(indexFile);
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                throw new IOException("Not a line index file: " + indexFile);
+            }
+            long fileSize = dis.readLong();
+            long fileModified = dis.readLong();
+            Charset charset = forName(dis.readUTF(), indexFile);
+            long lineCount = dis.readLong();
+            int blockCount = dis.readInt();
+            if (lineCount < 0 || blockCount != (lineCount + BLOCK_LINES - 1) >>> BLOCK_SHIFT
+                    || blockCount > indexSize / (Long.BYTES + Integer.BYTES)) {
+                throw new IOException("Invalid line count " + lineCount + " or block count " + blockCount
+                        + " in line index file: " + indexFile);
+            }
+            long[] blockOffsets = new long[blockCount];
+            int[] blockDeltaStarts = new int[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                blockOffsets[i] = dis.readLong();
+                blockDeltaStarts[i] = dis.readInt();
+                if (blockOffsets[i] < 0 || blockDeltaStarts[i] < 0 || (i > 0
+                        && (blockOffsets[i] <= blockOffsets[i - 1] || blockDeltaStarts[i] < blockDeltaStarts[i - 1]))) {
+                    throw new IOException("Invalid block " + i + " in line index file: " + indexFile);
+                }
+            }
+            int deltaLength = dis.readInt();
+            if (deltaLength < 0 || deltaLength > indexSize
+                    || (blockCount > 0 && blockDeltaStarts[blockCount - 1] > deltaLength)) {
+                throw new IOException("Invalid delta length " + deltaLength + " in line index file: " + indexFile);
+            }
+            byte[] deltas = new byte[deltaLength];
+            dis.readFully(deltas);
+            return new TextLineIndex(file, fileSize, fileModified, charset, lineCount, blockOffsets,
+                    blockDeltaStarts, deltas);
+        }
+    }
+
+    /**
+     * 保存索引文件：先写入同一目录下的临时文件，完成后原子替换，读取方不会看到写了一半的索引
+     *
+     * @param indexFile 索引文件
+     * @throws IOException 写入失败
+     */
+    public void write(Path indexFile) throws IOException {
+        Path absolute = indexFile.toAbsolutePath();
+        Path tempFile = absolute.resolveSibling("." + absolute.getFileName() + ".tmp-" + System.nanoTime());
+        try {
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeLong(fileSize);
+                dos.writeLong(fileModified);
+                dos.writeUTF(charset.name());
+                dos.writeLong(lineCount);
+                dos.writeInt(blockOffsets.length);
+                for (int i = 0; i < blockOffsets.length; i++) {
+                    dos.writeLong(blockOffsets[i]);
+                    dos.writeInt(blockDeltaStarts[i]);
+                }
+                dos.writeInt(deltas.length);
+                dos.write(deltas);
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 读取一行
+     *
+     * @param line 行号，从 0 开始
+     * @return 行内容，不包括换行符
+     * @throws IOException 行号超出范围、索引已失效或者读取失败
+     */
+    public String readLine(long line) throws IOException {
+        return readLines(line, 1).get(0);
+    }
+
+    /**
+     * 读取连续的多行，只读取这些行所在的字节并解码
+     *
+     * @param fromLine 第一行的行号，从 0 开始
+     * @param count    行数，超过文件末尾时只返回到最后一行
+     * @return 行内容，不包括换行符
+     * @throws IOException 行号超出范围、索引已失效或者读取失败
+     */
+    public List<String> readLines(long fromLine, int count) throws IOException {
+        if (fromLine < 0 || fromLine >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + fromLine + " out of range [0, " + lineCount + ")");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        if (!isValid()) {
+            throw new IOException("Line index is stale: " + file);
+        }
+        int lines = (int) Math.min(count, lineCount - fromLine);
+        long[] offsets = new long[lines + 1];
+        for (int i = 0; i < lines; i++) {
+            offsets[i] = getLineOffset(fromLine + i);
+        }
+        offsets[lines] = fromLine + lines < lineCount ? getLineOffset(fromLine + lines) : fileSize;
+        long length = offsets[lines] - offsets[0];
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Lines are too large to read at once: " + length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, offsets[0] + buffer.position()) != -1) {
+                // keep reading until the whole range is read
+            }
+        }
+        List<String> result = new ArrayList<>(lines);
+        CharsetDecoder decoder = TextFileReader.newDecoder(charset);
+        for (int i = 0; i < lines; i++) {
+            int from = (int) (offsets[i] - offsets[0]);
+            int to = (int) (offsets[i + 1] - offsets[0]);
+            String text = decoder.reset().decode(buffer.duplicate().position(from).limit(to)).toString();
+            result.add(stripLineTerminator(text));
+        }
+        return result;
+    }
+
+    /**
+     * 行的起始字节位置
+     *
+     * @param line 行号，从 0 开始
+     * @return 字节位置
+     */
+    public long getLineOffset(long line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " out of range [0, " + lineCount + ")");
+        }
+        int block = (int) (line >>> BLOCK_SHIFT);
+        long offset = blockOffsets[block];
+        int position = blockDeltaStarts[block];
+        for (int i = (int) (line & (BLOCK_LINES - 1)); i > 0; i--) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = deltas[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            offset += delta;
+        }
+        return offset;
+    }
+
+    /**
+     * 行数
+     *
+     * @return 行数
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * 建立索引时检测到的编码，UTF-16、UTF-32 为根据 BOM 确定了字节序的字符集
+     *
+     * @return 字符集
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 索引占用的内存（字节），不包括对象头
+     *
+     * @return 字节数
+     */
+    public long getMemorySize() {
+        return blockOffsets.length * (long) (Long.BYTES + Integer.BYTES) + deltas.length;
+    }
+
+    /**
+     * 文件的大小和修改时间是否与建立索引时一致
+     *
+     * @return 索引是否有效
+     */
+    public boolean isValid() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.size() == fileSize && attributes.lastModifiedTime().toMillis() == fileModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 索引文件的路径：文件名加上 .lidx 后缀
+     *
+     * @param file 文本文件
+     * @return 索引文件
+     */
+    public static Path indexFileOf(Path file) {
+        return file.resolveSibling(file.getFileName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * 扫描与 ASCII 兼容的编码，每次读取 8 个字节，用位运算同时判断 8 个字节是否为 '\n'
+     */
+    private static void scan(FileChannel channel, long start, long size, Builder builder) throws IOException {
+        for (long mapStart = start; mapStart < size; mapStart += MAP_SIZE) {
+            int mapSize = (int) Math.min(MAP_SIZE, size - mapStart);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapSize);
+            int i = 0;
+            for (; i + Long.BYTES <= mapSize; i += Long.BYTES) {
+                long v = (long) LONG_BUFFER_VIEW.get(buffer, i) ^ NEWLINES;
+                // 等于 '\n' 的字节在 found 中对应字节的最高位为 1，其余为 0，不会误判
+                long found = ~(((v & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | v | LOW_SEVEN_BITS);
+                while (found != 0) {
+                    long next = mapStart + i + (Long.numberOfTrailingZeros(found) >>> 3) + 1;
+                    if (next < size) {
+                        builder.add(next);
+                    }
+                    found &= found - 1;
+                }
+            }
+            for (; i < mapSize; i++) {
+                if (buffer.get(i) == '\n' && mapStart + i + 1 < size) {
+                    builder.add(mapStart + i + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 扫描 UTF-16、UTF-32，'\n' 为一个完整的编码单元，只检查编码单元的起始位置
+     */
+    private static void scanUnits(FileChannel channel, long start, long size, int unitSize, ByteOrder order,
+                                  Builder builder) throws IOException {
+        // MAP_SIZE 是编码单元大小的整数倍，每次映射的起始位置都位于编码单元边界
+        for (long mapStart = start; mapStart + unitSize <= size; mapStart += MAP_SIZE) {
+            int mapSize = (int) Math.min(MAP_SIZE, size - mapStart);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapSize);
+            buffer.order(order);
+            for (int i = 0; i + unitSize <= mapSize; i += unitSize) {
+                int unit = unitSize == 2 ? buffer.getChar(i) : buffer.getInt(i);
+                if (unit == '\n' && mapStart + i + unitSize < size) {
+                    builder.add(mapStart + i + unitSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * 编码单元的字节数，与 ASCII 兼容的编码为 1
+     */
+    private static int unitSize(Charset charset) {
+        String name = charset.name();
+        if (name.startsWith("UTF-32")) {
+            return 4;
+        }
+        return name.startsWith("UTF-16") ? 2 : 1;
+    }
+
+    private static boolean hasBom(byte[] head, int unitSize, ByteOrder order) {
+        if (head.length < unitSize) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(head).order(order);
+        return (unitSize == 2 ? buffer.getChar(0) : buffer.getInt(0)) == 0xFEFF;
+    }
+
+    /**
+     * 索引文件中保存的字符集，当前 JVM 不支持时视为索引不可用
+     */
+    private static Charset forName(String charsetName, Path indexFile) throws IOException {
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported charset " + charsetName + " in line index file: " + indexFile, e);
+        }
+    }
+
+    private static String stripLineTerminator(String text) {
+        int end = text.length();
+        if (end > 0 && text.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > 0 && text.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * 按顺序添加每一行的起始位置
+     */
+    private static final class Builder {
+
+        private long[] blockOffsets = new long[16];
+
+        private int[] blockDeltaStarts = new int[16];
+
+        private byte[] deltas = new byte[1024];
+
+        private int deltaLength;
+
+        private long lineCount;
+
+        private long lastOffset;
+
+        void add(long offset) {
+            if ((lineCount & (BLOCK_LINES - 1)) == 0) {
+                int block = (int) (lineCount >>> BLOCK_SHIFT);
+                if (block == blockOffsets.length) {
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                    blockDeltaStarts = Arrays.copyOf(blockDeltaStarts, block * 2);
+                }
+                blockOffsets[block] = offset;
+                blockDeltaStarts[block] = deltaLength;
+            } else {
+                if (deltaLength + 10 > deltas.length) {
+                    deltas = Arrays.copyOf(deltas, Math.max(deltas.length * 2, deltaLength + 10));
+                }
+                long delta = offset - lastOffset;
+                while ((delta & ~0x7FL) != 0) {
+                    deltas[deltaLength++] = (byte) (delta | 0x80);
+                    delta >>>= 7;
+                }
+                deltas[deltaLength++] = (byte) delta;
+            }
+            lastOffset = offset;
+            lineCount++;
+        }
+
+        TextLineIndex build(Path file, long fileSize, long fileModified, Charset charset) {
+            int blockCount = (int) ((lineCount + BLOCK_LINES - 1) >>> BLOCK_SHIFT);
+            return new TextLineIndex(file, fileSize, fileModified, charset, lineCount,
+                    Arrays.copyOf(blockOffsets, blockCount), Arrays.copyOf(blockDeltaStarts, blockCount),
+                    Arrays.copyOf(deltas, deltaLength));
+        }
+    }
+}
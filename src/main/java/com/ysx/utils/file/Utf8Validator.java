@@ -0,0 +1,216 @@
+package com.ysx.utils.file;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * UTF-8 校验工具类
+ * 每次按 long 读取 8 个字节，批量跳过纯 ASCII 的部分，只对多字节字符逐字节校验
+ * 按照 RFC 3629 校验，会拒绝超长编码 (overlong)、代理区字符 (U+D800~U+DFFF) 以及大于 U+10FFFF 的字符
+ *
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public final class Utf8Validator {
+
+    private static final VarHandle LONG_ARRAY_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final VarHandle LONG_BUFFER_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * 8 个字节的最高位，全部为 0 时表示 8 个字节都是 ASCII
+     */
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
+    /**
+     * 非法的字节序列
+     */
+    private static final int MALFORMED = -1;
+
+    /**
+     * 字节序列前缀合法，但是字节数不足
+     */
+    private static final int INCOMPLETE = 0;
+
+    private Utf8Validator() {
+    }
+
+    /**
+     * 校验字节数组是否为有效的 UTF-8
+     *
+     * @param bytes 字节数组
+     * @return 是否为有效的 UTF-8
+     */
+    public static boolean isValid(byte[] bytes) {
+        return isValid(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 校验字节数组的指定区间是否为有效的 UTF-8
+     *
+     * @param bytes  字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 是否为有效的 UTF-8
+     */
+    public static boolean isValid(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            if (bytes[i] >= 0) {
+                // 遇到 ASCII 后，8 个字节一组跳过后面的纯 ASCII；多字节字符之间不做这一步，避免拖慢中日韩文本
+                i++;
+                while (i + Long.BYTES <= end && ((long) LONG_ARRAY_VIEW.get(bytes, i) & NON_ASCII_MASK) == 0) {
+                    i += Long.BYTES;
+                }
+                continue;
+            }
+            int available = end - i;
+            if (available >= 3) {
+                // 快速路径：中日韩文字大多是 3 字节字符
+                int b0 = bytes[i] & 0xFF;
+                int b1 = bytes[i + 1] & 0xFF;
+                if (b0 >= 0xE1 && b0 <= 0xEF && b0 != 0xED && isContinuation(b1) && isContinuation(bytes[i + 2])) {
+                    i += 3;
+                    continue;
+                }
+            }
+            int charLength = available >= 4
+                    ? sequenceLength(bytes[i] & 0xFF, bytes[i + 1] & 0xFF, bytes[i + 2] & 0xFF, bytes[i + 3] & 0xFF, 4)
+                    : sequenceLength(bytes[i] & 0xFF,
+                    available > 1 ? bytes[i + 1] & 0xFF : 0,
+                    available > 2 ? bytes[i + 2] & 0xFF : 0,
+                    0,
+                    available);
+            if (charLength <= 0) {
+                return false;
+            }
+            i += charLength;
+        }
+        return true;
+    }
+
+    /**
+     * 校验 ByteBuffer 中 position 到 limit 之间的数据是否为有效的 UTF-8，不会改变 buffer 的 position
+     * 支持堆内存和直接内存的 ByteBuffer
+     *
+     * @param buffer 字节缓冲区
+     * @return 是否为有效的 UTF-8
+     */
+    public static boolean isValid(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return isValid(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        int i = buffer.position();
+        int end = buffer.limit();
+        while (i < end) {
+            if (buffer.get(i) >= 0) {
+                i++;
+                while (i + Long.BYTES <= end && ((long) LONG_BUFFER_VIEW.get(buffer, i) & NON_ASCII_MASK) == 0) {
+                    i += Long.BYTES;
+                }
+                continue;
+            }
+            int available = end - i;
+            int charLength = available >= 4
+                    ? sequenceLength(buffer.get(i) & 0xFF, buffer.get(i + 1) & 0xFF, buffer.get(i + 2) & 0xFF,
+                    buffer.get(i + 3) & 0xFF, 4)
+                    : sequenceLength(buffer.get(i) & 0xFF,
+                    available > 1 ? buffer.get(i + 1) & 0xFF : 0,
+                    available > 2 ? buffer.get(i + 2) & 0xFF : 0,
+                    0,
+                    available);
+            if (charLength <= 0) {
+                return false;
+            }
+            i += charLength;
+        }
+        return true;
+    }
+
+    /**
+     * 计算末尾被截断的字符的字节数
+     * 例如采样数据的末尾可能只有一个多字节字符的前半部分，校验时需要排除这部分字节
+     *
+     * @param bytes  字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 末尾不完整字符的字节数 (0~3)，末尾为完整字符或者为非法字节时返回 0
+     */
+    public static int incompleteTailLength(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int end = offset + length;
+        for (int k = 1; k <= 3 && end - k >= offset; k++) {
+            int b0 = bytes[end - k] & 0xFF;
+            if (b0 < 0x80) {
+                return 0;
+            }
+            if ((b0 & 0xC0) == 0x80) {
+                // 后续字节，继续向前查找首字节
+                continue;
+            }
+            int result = sequenceLength(b0,
+                    k > 1 ? bytes[end - k + 1] & 0xFF : 0,
+                    k > 2 ? bytes[end - k + 2] & 0xFF : 0,
+                    0,
+                    k);
+            return result == INCOMPLETE ? k : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * 校验以 b0 开头的多字节字符
+     *
+     * @param b0        首字节 (>= 0x80)
+     * @param b1        第 2 个字节，不存在时为 0
+     * @param b2        第 3 个字节，不存在时为 0
+     * @param b3        第 4 个字节，不存在时为 0
+     * @param available 剩余可用的字节数
+     * @return 字符的字节数；前缀合法但字节数不足时返回 INCOMPLETE；非法时返回 MALFORMED
+     */
+    private static int sequenceLength(int b0, int b1, int b2, int b3, int available) {
+        int charLength;
+        if (b0 < 0xC2) {
+            // 后续字节 (10xxxxxx) 或者超长编码的 2 字节首字节 C0/C1
+            return MALFORMED;
+        } else if (b0 < 0xE0) {
+            charLength = 2;
+        } else if (b0 < 0xF0) {
+            charLength = 3;
+        } else if (b0 < 0xF5) {
+            charLength = 4;
+        } else {
+            return MALFORMED;
+        }
+
+        if (available >= 2) {
+            if (!isContinuation(b1)) {
+                return MALFORMED;
+            }
+            // E0: 超长编码；ED: 代理区字符；F0: 超长编码；F4: 大于 U+10FFFF
+            if ((b0 == 0xE0 && b1 < 0xA0) || (b0 == 0xED && b1 > 0x9F)
+                    || (b0 == 0xF0 && b1 < 0x90) || (b0 == 0xF4 && b1 > 0x8F)) {
+                return MALFORMED;
+            }
+        }
+        if (charLength >= 3 && available >= 3 && !isContinuation(b2)) {
+            return MALFORMED;
+        }
+        if (charLength == 4 && available >= 4 && !isContinuation(b3)) {
+            return MALFORMED;
+        }
+        return available >= charLength ? charLength : INCOMPLETE;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+}
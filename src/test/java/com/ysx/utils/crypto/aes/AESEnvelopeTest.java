@@ -0,0 +1,89 @@
+package com.ysx.utils.crypto.aes;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 16:30
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description
+ */
+public class AESEnvelopeTest {
+
+    private static final byte[] IV = Hex.decode("000102030405060708090a0b");
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE})
+    public void headerTest(int keyId) throws AESException {
+        int headerLength = AESEnvelope.getHeaderLength(keyId);
+        byte[] cipherData = new byte[20];
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength + cipherData.length);
+        AESEnvelope.writeHeader(keyId, IV, buffer);
+        Assertions.assertEquals(headerLength, buffer.position());
+        buffer.put(cipherData).flip();
+
+        AESEnvelope envelope = AESEnvelope.parse(buffer);
+        Assertions.assertEquals(keyId, envelope.getKeyId());
+        Assertions.assertArrayEquals(IV, envelope.getIv(new byte[AESEnvelope.IV_BYTE_LENGTH]));
+        Assertions.assertEquals(cipherData.length, envelope.getCipherData().remaining());
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void varintTest() {
+        Assertions.assertEquals(1 + 1 + 12, AESEnvelope.getHeaderLength(1));
+        Assertions.assertEquals(1 + 2 + 12, AESEnvelope.getHeaderLength(300));
+        Assertions.assertEquals(1 + 5 + 12, AESEnvelope.getHeaderLength(Integer.MAX_VALUE));
+        ByteBuffer buffer = ByteBuffer.allocate(AESEnvelope.getHeaderLength(300));
+        AESEnvelope.writeHeader(300, IV, buffer);
+        Assertions.assertEquals("01ac02", Hex.toHexString(buffer.array(), 0, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AESEnvelope.getHeaderLength(-1));
+    }
+
+    @Test
+    public void zeroCopyTest() throws AESException {
+        byte[] bytes = new byte[AESEnvelope.getHeaderLength(1) + 20];
+        AESEnvelope.writeHeader(1, IV, ByteBuffer.wrap(bytes));
+        AESEnvelope envelope = AESEnvelope.parse(bytes);
+        ByteBuffer cipherData = envelope.getCipherData();
+        Assertions.assertSame(bytes, cipherData.array());
+        Assertions.assertEquals(AESEnvelope.getHeaderLength(1), cipherData.arrayOffset() + cipherData.position());
+        Assertions.assertTrue(envelope.getIv().isReadOnly());
+    }
+
+    @Test
+    public void invalidTest() {
+        Assertions.assertThrows(AESException.class, () -> AESEnvelope.parse(new byte[0]));
+        // 版本号不支持
+        Assertions.assertThrows(AESException.class, () -> AESEnvelope.parse(new byte[40]));
+        // 截断
+        byte[] bytes = new byte[AESEnvelope.getHeaderLength(1) + 16];
+        AESEnvelope.writeHeader(1, IV, ByteBuffer.wrap(bytes));
+        Assertions.assertThrows(AESException.class, () -> AESEnvelope.parse(ByteBuffer.wrap(bytes, 0, bytes.length - 1)));
+        // varint 超出范围
+        Assertions.assertThrows(AESException.class,
+                () -> AESEnvelope.parse(Hex.decode("01ffffffff7f000102030405060708090a0b00000000000000000000000000000000")));
+        // 非法 Base64
+        Assertions.assertThrows(AESException.class, () -> AESEnvelope.parse("AQ#="));
+    }
+
+    @Test
+    public void textTest() throws AESException {
+        byte[] bytes = new byte[AESEnvelope.getHeaderLength(1) + 17];
+        AESEnvelope.writeHeader(1, IV, ByteBuffer.wrap(bytes));
+        bytes[bytes.length - 1] = (byte) 0xFF;
+        String text = AESEnvelope.toText(bytes);
+        Assertions.assertFalse(text.contains("+") || text.contains("/") || text.contains("="));
+        AESEnvelope envelope = AESEnvelope.parse(text);
+        Assertions.assertEquals(1, envelope.getKeyId());
+        Assertions.assertEquals(17, envelope.getCipherData().remaining());
+    }
+}
@@ -3,6 +3,7 @@ package com.ysx.utils.crypto.aes;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -45,4 +46,40 @@ public class AESPractiseTest {
         Assertions.assertArrayEquals(data, decryptedData);
         Assertions.assertEquals(dataString, new String(decryptedData));
     }
+
+    @Test
+    public void envelopeTest() throws AESException {
+        AESPractise practise = new AESPractise();
+        String dataString = "Beijing 2008";
+        byte[] data = dataString.getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = practise.encryptToEnvelope(data);
+        // 版本号(1) + 密钥id(1) + iv(12) + 密文(12) + 认证标签(16)
+        Assertions.assertEquals(1 + 1 + 12 + data.length + 16, envelope.length);
+        Assertions.assertArrayEquals(data, practise.decryptEnvelope(envelope));
+
+        String envelopeString = practise.encryptToEnvelopeString(data);
+        System.out.println(envelopeString);
+        Assertions.assertTrue(envelopeString.length() < practise.encrypt(data).length() / 2 + 10);
+        Assertions.assertArrayEquals(data, practise.decryptEnvelopeString(envelopeString));
+
+        // 使用另一个密钥加密的信封同样可以解密
+        practise.setCurrentSecretKeyId("002");
+        byte[] envelope2 = practise.encryptToEnvelope(data);
+        Assertions.assertEquals(2, AESEnvelope.parse(envelope2).getKeyId());
+        Assertions.assertArrayEquals(data, new AESPractise().decryptEnvelope(ByteBuffer.wrap(envelope2)));
+
+        String cipherString = "AQH7j96iwWb8HluvjwF0SqffYGjD5BPuMCV4Yt3b5jS1r9AOyDhHjdNL";
+        Assertions.assertArrayEquals(data, practise.decryptEnvelopeString(cipherString));
+    }
+
+    @Test
+    public void envelopeInvalidTest() throws AESException {
+        AESPractise practise = new AESPractise();
+        byte[] envelope = practise.encryptToEnvelope("Beijing 2008".getBytes(StandardCharsets.UTF_8));
+        envelope[envelope.length - 1] ^= 1;
+        Assertions.assertThrows(AESException.class, () -> practise.decryptEnvelope(envelope));
+        // 不存在的密钥id
+        envelope[1] = 3;
+        Assertions.assertThrows(AESException.class, () -> practise.decryptEnvelope(envelope));
+    }
 }
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -97,6 +99,22 @@ public class AESUtilsTest {
         Assertions.assertNotEquals(PLAIN_DATA_HEX_STRING + "fa", Hex.toHexString(plainData));
     }
 
+    @Test
+    public void byteBufferTest() throws GeneralSecurityException {
+        byte[] secretKey = Hex.decode(SECRET_KEY_HEX_STRING);
+        byte[] iv = Hex.decode(IV_HEX_STRING);
+        ByteBuffer plain = ByteBuffer.allocateDirect(48).put(Hex.decode(PLAIN_DATA_HEX_STRING)).flip();
+        ByteBuffer cipher = ByteBuffer.allocateDirect(64);
+        Assertions.assertEquals(64, AESUtils.encrypt(secretKey, iv, plain, cipher));
+        byte[] cipherData = new byte[64];
+        cipher.flip().duplicate().get(cipherData);
+        Assertions.assertEquals(CIPHER_DATA_HEX_STRING, Hex.toHexString(cipherData));
+
+        ByteBuffer decrypted = ByteBuffer.allocate(48);
+        Assertions.assertEquals(48, AESUtils.decrypt(secretKey, iv, cipher, decrypted));
+        Assertions.assertEquals(PLAIN_DATA_HEX_STRING, Hex.toHexString(decrypted.array()));
+    }
+
 
     /**
      * 生成随机数
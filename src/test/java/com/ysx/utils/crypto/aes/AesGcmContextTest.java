@@ -0,0 +1,220 @@
+package com.ysx.utils.crypto.aes;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 10:30
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description
+ */
+public class AesGcmContextTest {
+
+    /**
+     * 与 AESUtilsTest 使用相同的数据，结果必须一致
+     */
+    private static final String SECRET_KEY_HEX_STRING = "4bf05f9e002f650920cdc6a4e274c41a749f1995fa55958bdcb4cc3d1f029b70";
+
+    private static final String IV_HEX_STRING = "775048c30bc37d567bef7681512dfb4b411fc030048912f208e83b598e690ad5";
+
+    private static final String PLAIN_DATA_HEX_STRING = "d80517332cd3f7807ddcbf79c999f93483715716ec9b97094d65872650de633bb975aa3ac5587972eb2609e8935b7e09";
+
+    private static final String CIPHER_DATA_HEX_STRING = "3559d4020986bfd846a0cf24df9dea53fb0a90ec199ae6d488146e081e609e1a1957a9ad5650269f305a57c6f34477a8484d7a33e5348c5cf85b09d32eb82a59";
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Test
+    public void encryptSameAsAESUtilsTest() throws AESException {
+        AesGcmContext context = new AesGcmContext(Hex.decode(SECRET_KEY_HEX_STRING));
+        byte[] cipherData = context.encrypt(Hex.decode(IV_HEX_STRING), Hex.decode(PLAIN_DATA_HEX_STRING));
+        Assertions.assertEquals(CIPHER_DATA_HEX_STRING, Hex.toHexString(cipherData));
+    }
+
+    @Test
+    public void decryptSuccessTest() throws AESException {
+        AesGcmContext context = new AesGcmContext(Hex.decode(SECRET_KEY_HEX_STRING));
+        byte[] plainData = context.decrypt(Hex.decode(IV_HEX_STRING), Hex.decode(CIPHER_DATA_HEX_STRING));
+        Assertions.assertEquals(PLAIN_DATA_HEX_STRING, Hex.toHexString(plainData));
+    }
+
+    @Test
+    public void reuseContextTest() throws Exception {
+        byte[] secretKey = random(32);
+        AesGcmContext context = new AesGcmContext(secretKey);
+        for (int i = 0; i < 100; i++) {
+            byte[] iv = random(12);
+            byte[] plainData = random(i);
+            byte[] cipherData = context.encrypt(iv, plainData);
+            Assertions.assertEquals(i + AesGcmContext.TAG_BYTE_LENGTH, cipherData.length);
+            Assertions.assertArrayEquals(AESUtils.encrypt(secretKey, iv, plainData), cipherData);
+            Assertions.assertArrayEquals(plainData, context.decrypt(iv, cipherData));
+        }
+    }
+
+    @Test
+    public void decryptFailedTest() throws AESException {
+        AesGcmContext context = new AesGcmContext(Hex.decode(SECRET_KEY_HEX_STRING));
+        byte[] iv = Hex.decode(IV_HEX_STRING);
+        byte[] cipherData = Hex.decode(CIPHER_DATA_HEX_STRING);
+        cipherData[0] ^= 1;
+        Assertions.assertThrows(AESException.class, () -> context.decrypt(iv, cipherData));
+        Assertions.assertThrows(AESException.class, () -> context.decrypt(iv, new byte[15]));
+        // 失败后仍然可以继续使用
+        cipherData[0] ^= 1;
+        Assertions.assertEquals(PLAIN_DATA_HEX_STRING, Hex.toHexString(context.decrypt(iv, cipherData)));
+    }
+
+    @Test
+    public void invalidParameterTest() throws AESException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AesGcmContext(new byte[10]));
+        AesGcmContext context = new AesGcmContext(random(16));
+        Assertions.assertThrows(AESException.class, () -> context.encrypt(new byte[0], random(16)));
+        // 连续两次使用相同的 iv 加密会被拒绝
+        byte[] iv = random(12);
+        context.encrypt(iv, random(16));
+        Assertions.assertThrows(AESException.class, () -> context.encrypt(iv, random(16)));
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        byte[] secretKey = random(32);
+        AesGcmContext context = new AesGcmContext(secretKey);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        byte[] iv = random(12);
+                        byte[] plainData = random(64);
+                        byte[] cipherData = context.encrypt(iv, plainData);
+                        Assertions.assertArrayEquals(AESUtils.encrypt(secretKey, iv, plainData), cipherData);
+                        Assertions.assertArrayEquals(plainData, context.decrypt(iv, cipherData));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void encryptIntoArrayTest() throws Exception {
+        byte[] secretKey = random(32);
+        AesGcmContext context = new AesGcmContext(secretKey);
+        byte[] iv = random(12);
+        byte[] plainData = random(100);
+        byte[] expected = AESUtils.encrypt(secretKey, iv, plainData);
+
+        // 输入、输出都带偏移
+        byte[] in = new byte[10 + plainData.length];
+        System.arraycopy(plainData, 0, in, 10, plainData.length);
+        byte[] out = new byte[5 + AesGcmContext.getCipherLength(plainData.length)];
+        Assertions.assertEquals(expected.length, context.encrypt(iv, in, 10, plainData.length, out, 5));
+        Assertions.assertArrayEquals(expected, Arrays.copyOfRange(out, 5, out.length));
+
+        byte[] plain = new byte[plainData.length + 3];
+        Assertions.assertEquals(plainData.length, context.decrypt(iv, out, 5, expected.length, plain, 3));
+        Assertions.assertArrayEquals(plainData, Arrays.copyOfRange(plain, 3, plain.length));
+
+        // 输出空间不足
+        Assertions.assertThrows(AESException.class,
+                () -> context.encrypt(random(12), plainData, 0, plainData.length, new byte[plainData.length], 0));
+    }
+
+    @Test
+    public void inPlaceTest() throws Exception {
+        byte[] secretKey = random(16);
+        AesGcmContext context = new AesGcmContext(secretKey);
+        byte[] iv = random(12);
+        byte[] plainData = random(1000);
+        byte[] buffer = Arrays.copyOf(plainData, AesGcmContext.getCipherLength(plainData.length));
+
+        context.encrypt(iv, buffer, 0, plainData.length, buffer, 0);
+        Assertions.assertArrayEquals(AESUtils.encrypt(secretKey, iv, plainData), buffer);
+        context.decrypt(iv, buffer, 0, buffer.length, buffer, 0);
+        Assertions.assertArrayEquals(plainData, Arrays.copyOf(buffer, plainData.length));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"false, false", "true, true", "false, true", "true, false"})
+    public void byteBufferTest(boolean directIn, boolean directOut) throws Exception {
+        byte[] secretKey = random(32);
+        AesGcmContext context = new AesGcmContext(secretKey);
+        byte[] iv = random(12);
+        // 超过直接内存缓冲区的分块大小
+        byte[] plainData = random(20_000 + 7);
+        byte[] expected = AESUtils.encrypt(secretKey, iv, plainData);
+
+        ByteBuffer in = allocate(plainData.length, directIn).put(plainData).flip();
+        ByteBuffer out = allocate(expected.length + 10, directOut).position(10);
+        Assertions.assertEquals(expected.length, context.encrypt(iv, in, out));
+        Assertions.assertFalse(in.hasRemaining());
+        Assertions.assertEquals(10 + expected.length, out.position());
+        byte[] cipherData = new byte[expected.length];
+        out.flip().position(10);
+        out.duplicate().get(cipherData);
+        Assertions.assertArrayEquals(expected, cipherData);
+
+        ByteBuffer plain = allocate(plainData.length, directIn);
+        Assertions.assertEquals(plainData.length, context.decrypt(iv, out, plain));
+        Assertions.assertFalse(plain.hasRemaining());
+        Assertions.assertArrayEquals(plainData, toArray(plain));
+    }
+
+    @Test
+    public void byteBufferDecryptFailedTest() throws Exception {
+        AesGcmContext context = new AesGcmContext(random(32));
+        byte[] iv = random(12);
+        byte[] cipherData = context.encrypt(iv, random(20_000));
+        cipherData[cipherData.length - 1] ^= 1;
+
+        ByteBuffer in = ByteBuffer.allocateDirect(cipherData.length).put(cipherData).flip();
+        ByteBuffer out = ByteBuffer.allocateDirect(cipherData.length);
+        Assertions.assertThrows(AESException.class, () -> context.decrypt(iv, in, out));
+        // 位置不变，已经写入的未经认证的明文被清零
+        Assertions.assertEquals(0, in.position());
+        Assertions.assertEquals(0, out.position());
+        Assertions.assertArrayEquals(new byte[cipherData.length], toArray(out));
+
+        Assertions.assertThrows(AESException.class,
+                () -> context.encrypt(random(12), in, ByteBuffer.allocate(cipherData.length)));
+        Assertions.assertEquals(0, in.position());
+    }
+
+    private ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private byte[] toArray(ByteBuffer buffer) {
+        ByteBuffer duplicate = buffer.duplicate().clear();
+        byte[] bytes = new byte[duplicate.remaining()];
+        duplicate.get(bytes);
+        return bytes;
+    }
+
+    private byte[] random(int length) {
+        byte[] data = new byte[length];
+        random.nextBytes(data);
+        return data;
+    }
+}
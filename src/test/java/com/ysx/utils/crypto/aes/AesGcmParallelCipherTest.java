@@ -0,0 +1,184 @@
+package com.ysx.utils.crypto.aes;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 15:30
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description
+ */
+public class AesGcmParallelCipherTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    private static final int PLAIN_SEGMENT_SIZE = SEGMENT_SIZE - AesGcmContext.TAG_BYTE_LENGTH;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final byte[] masterKey = random(32);
+
+    /**
+     * 窗口为 3 段，少量数据就能覆盖多个窗口
+     */
+    private final AesGcmParallelCipher parallelCipher = new AesGcmParallelCipher(masterKey, SEGMENT_SIZE, POOL,
+            SEGMENT_SIZE * 3);
+
+    private final AesGcmStreaming streaming = new AesGcmStreaming(masterKey, SEGMENT_SIZE);
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterAll
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, PLAIN_SEGMENT_SIZE, PLAIN_SEGMENT_SIZE * 3, PLAIN_SEGMENT_SIZE * 3 + 1, 100000})
+    public void roundTripTest(int size) throws IOException {
+        byte[] plainData = random(size);
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), plainData);
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        Path resultFile = tempDir.resolve("result.bin");
+        Assertions.assertEquals(AesGcmStreaming.getCipherSize(size, SEGMENT_SIZE),
+                parallelCipher.encrypt(plainFile, cipherFile));
+        Assertions.assertEquals(AesGcmStreaming.getCipherSize(size, SEGMENT_SIZE), Files.size(cipherFile));
+        Assertions.assertEquals(size, parallelCipher.decrypt(cipherFile, resultFile));
+        Assertions.assertArrayEquals(plainData, Files.readAllBytes(resultFile));
+    }
+
+    @Test
+    public void compatibleWithStreamingTest() throws IOException {
+        byte[] plainData = random(100000);
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), plainData);
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        parallelCipher.encrypt(plainFile, cipherFile);
+        try (InputStream in = streaming.newDecryptingStream(Files.newInputStream(cipherFile))) {
+            Assertions.assertArrayEquals(plainData, in.readAllBytes());
+        }
+
+        Path streamingCipherFile = tempDir.resolve("streaming.bin");
+        try (OutputStream out = streaming.newEncryptingStream(Files.newOutputStream(streamingCipherFile))) {
+            out.write(plainData);
+        }
+        Path resultFile = tempDir.resolve("result.bin");
+        parallelCipher.decrypt(streamingCipherFile, resultFile);
+        Assertions.assertArrayEquals(plainData, Files.readAllBytes(resultFile));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {AesGcmStreaming.MIN_SEGMENT_SIZE, 4096, 64 * 1024})
+    public void headerSegmentSizeTest(int segmentSize) throws IOException {
+        // 解密使用头部中的段大小，与构造函数中的段大小不同
+        byte[] plainData = random(200000);
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        try (OutputStream out = new AesGcmStreaming(masterKey, segmentSize)
+                .newEncryptingStream(Files.newOutputStream(cipherFile))) {
+            out.write(plainData);
+        }
+        Path resultFile = tempDir.resolve("result.bin");
+        Assertions.assertEquals(plainData.length, parallelCipher.decrypt(cipherFile, resultFile));
+        Assertions.assertArrayEquals(plainData, Files.readAllBytes(resultFile));
+
+        AesGcmParallelCipher defaultCipher = new AesGcmParallelCipher(masterKey);
+        Assertions.assertEquals(plainData.length, defaultCipher.decrypt(cipherFile, resultFile));
+        Assertions.assertArrayEquals(plainData, Files.readAllBytes(resultFile));
+    }
+
+    @Test
+    public void defaultPoolTest() throws IOException {
+        byte[] plainData = random(3 * 1024 * 1024 + 5);
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), plainData);
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        Path resultFile = tempDir.resolve("result.bin");
+        AesGcmParallelCipher defaultCipher = new AesGcmParallelCipher(masterKey);
+        defaultCipher.encrypt(plainFile, cipherFile);
+        defaultCipher.decrypt(cipherFile, resultFile);
+        Assertions.assertArrayEquals(plainData, Files.readAllBytes(resultFile));
+    }
+
+    @Test
+    public void tamperedTest() throws IOException {
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), random(10000));
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        parallelCipher.encrypt(plainFile, cipherFile);
+        byte[] cipherData = Files.readAllBytes(cipherFile);
+        cipherData[AesGcmStreaming.HEADER_LENGTH + SEGMENT_SIZE * 7 + 3] ^= 1;
+        Files.write(cipherFile, cipherData);
+
+        Path resultFile = tempDir.resolve("result.bin");
+        IOException exception = Assertions.assertThrows(IOException.class,
+                () -> parallelCipher.decrypt(cipherFile, resultFile));
+        Assertions.assertInstanceOf(AESException.class, exception.getCause());
+        // 不完整的明文文件被删除
+        Assertions.assertFalse(Files.exists(resultFile));
+    }
+
+    @Test
+    public void truncatedTest() throws IOException {
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), random(10000));
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        parallelCipher.encrypt(plainFile, cipherFile);
+        byte[] cipherData = Files.readAllBytes(cipherFile);
+        // 在段边界截断
+        Path truncatedFile = tempDir.resolve("truncated.bin");
+        Files.write(truncatedFile, Arrays.copyOf(cipherData, AesGcmStreaming.HEADER_LENGTH + SEGMENT_SIZE * 6));
+        Path resultFile = tempDir.resolve("result.bin");
+        Assertions.assertThrows(IOException.class, () -> parallelCipher.decrypt(truncatedFile, resultFile));
+        Assertions.assertFalse(Files.exists(resultFile));
+    }
+
+    @Test
+    public void wrongKeyTest() throws IOException {
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), random(1000));
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        parallelCipher.encrypt(plainFile, cipherFile);
+        AesGcmParallelCipher other = new AesGcmParallelCipher(random(32), SEGMENT_SIZE, POOL);
+        Assertions.assertThrows(IOException.class, () -> other.decrypt(cipherFile, tempDir.resolve("result.bin")));
+    }
+
+    @Test
+    public void tooManySegmentsTest() throws IOException {
+        AesGcmParallelCipher minSegmentCipher = new AesGcmParallelCipher(masterKey, AesGcmStreaming.MIN_SEGMENT_SIZE,
+                POOL);
+        long plainSize = (AesGcmStreaming.MIN_SEGMENT_SIZE - AesGcmContext.TAG_BYTE_LENGTH)
+                * AesGcmStreamHeader.MAX_SEGMENT_COUNT + 1;
+        // 稀疏文件，不实际占用磁盘空间
+        Path plainFile = tempDir.resolve("plain.bin");
+        try (FileChannel channel = FileChannel.open(plainFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.SPARSE)) {
+            channel.write(ByteBuffer.wrap(new byte[1]), plainSize - 1);
+        }
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        Assertions.assertThrows(IOException.class, () -> minSegmentCipher.encrypt(plainFile, cipherFile));
+        Assertions.assertFalse(Files.exists(cipherFile));
+    }
+
+    private byte[] random(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
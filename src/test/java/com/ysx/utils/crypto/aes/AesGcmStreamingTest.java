@@ -0,0 +1,258 @@
+package com.ysx.utils.crypto.aes;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18 14:20
+ * @blog https://blog.csdn.net/next_second
+ * @github https://github.com/YoungBear
+ * @description
+ */
+public class AesGcmStreamingTest {
+
+    /**
+     * 使用较小的段，少量数据就能覆盖多段的情况，明文段大小为 240
+     */
+    private static final int SEGMENT_SIZE = 256;
+
+    private static final int PLAIN_SEGMENT_SIZE = SEGMENT_SIZE - AesGcmContext.TAG_BYTE_LENGTH;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final byte[] masterKey = random(32);
+
+    private final AesGcmStreaming streaming = new AesGcmStreaming(masterKey, SEGMENT_SIZE);
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, PLAIN_SEGMENT_SIZE - 1, PLAIN_SEGMENT_SIZE, PLAIN_SEGMENT_SIZE + 1,
+            PLAIN_SEGMENT_SIZE * 3, 10000})
+    public void streamRoundTripTest(int size) throws IOException {
+        byte[] plainData = random(size);
+        byte[] cipherData = encrypt(plainData);
+        Assertions.assertEquals(AesGcmStreaming.getCipherSize(size, SEGMENT_SIZE), cipherData.length);
+        Assertions.assertArrayEquals(plainData, decrypt(cipherData));
+    }
+
+    @Test
+    public void streamSmallWritesTest() throws IOException {
+        byte[] plainData = random(1000);
+        ByteArrayOutputStream cipher = new ByteArrayOutputStream();
+        try (OutputStream out = streaming.newEncryptingStream(cipher)) {
+            for (byte b : plainData) {
+                out.write(b);
+            }
+        }
+        try (InputStream in = streaming.newDecryptingStream(new ByteArrayInputStream(cipher.toByteArray()))) {
+            byte[] result = new byte[plainData.length];
+            for (int i = 0; i < result.length; i++) {
+                int b = in.read();
+                Assertions.assertNotEquals(-1, b);
+                result[i] = (byte) b;
+            }
+            Assertions.assertEquals(-1, in.read());
+            Assertions.assertArrayEquals(plainData, result);
+        }
+    }
+
+    @Test
+    public void randomHeaderTest() throws IOException {
+        byte[] plainData = random(100);
+        byte[] cipherData1 = encrypt(plainData);
+        byte[] cipherData2 = encrypt(plainData);
+        Assertions.assertFalse(Arrays.equals(cipherData1, cipherData2));
+    }
+
+    @Test
+    public void tamperedSegmentTest() throws IOException {
+        byte[] cipherData = encrypt(random(1000));
+        cipherData[AesGcmStreaming.HEADER_LENGTH + SEGMENT_SIZE + 10] ^= 1;
+        IOException exception = Assertions.assertThrows(IOException.class, () -> decrypt(cipherData));
+        Assertions.assertInstanceOf(AESException.class, exception.getCause());
+    }
+
+    @Test
+    public void tamperedHeaderTest() throws IOException {
+        byte[] cipherData = encrypt(random(1000));
+        // salt 被修改，派生出的流密钥不同
+        cipherData[10] ^= 1;
+        Assertions.assertThrows(IOException.class, () -> decrypt(cipherData));
+    }
+
+    @Test
+    public void unsupportedVersionTest() throws IOException {
+        byte[] cipherData = encrypt(random(10));
+        cipherData[0] = 2;
+        Assertions.assertThrows(IOException.class, () -> decrypt(cipherData));
+    }
+
+    @Test
+    public void wrongKeyTest() throws IOException {
+        byte[] cipherData = encrypt(random(1000));
+        AesGcmStreaming other = new AesGcmStreaming(random(32), SEGMENT_SIZE);
+        Assertions.assertThrows(IOException.class,
+                () -> other.newDecryptingStream(new ByteArrayInputStream(cipherData)).readAllBytes());
+    }
+
+    @Test
+    public void truncatedTest() throws IOException {
+        byte[] cipherData = encrypt(random(1000));
+        // 在段边界截断：剩下的最后一段不是按最后一段加密的
+        int length = AesGcmStreaming.HEADER_LENGTH + SEGMENT_SIZE * 2;
+        Assertions.assertThrows(IOException.class, () -> decrypt(Arrays.copyOf(cipherData, length)));
+        Assertions.assertThrows(IOException.class, () -> decrypt(Arrays.copyOf(cipherData, cipherData.length - 1)));
+        Assertions.assertThrows(IOException.class, () -> decrypt(Arrays.copyOf(cipherData, 20)));
+    }
+
+    @Test
+    public void swappedSegmentsTest() throws IOException {
+        byte[] cipherData = encrypt(random(1000));
+        int first = AesGcmStreaming.HEADER_LENGTH;
+        int second = first + SEGMENT_SIZE;
+        byte[] swapped = cipherData.clone();
+        System.arraycopy(cipherData, first, swapped, second, SEGMENT_SIZE);
+        System.arraycopy(cipherData, second, swapped, first, SEGMENT_SIZE);
+        Assertions.assertThrows(IOException.class, () -> decrypt(swapped));
+    }
+
+    @Test
+    public void invalidArgumentTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AesGcmStreaming(random(15)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AesGcmStreaming(masterKey, AesGcmStreaming.MIN_SEGMENT_SIZE - 1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AesGcmStreaming(masterKey, AesGcmStreaming.MAX_SEGMENT_SIZE + 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, PLAIN_SEGMENT_SIZE, 10000})
+    public void fileChannelTest(int size) throws IOException {
+        byte[] plainData = random(size);
+        Path plainFile = Files.write(tempDir.resolve("plain.bin"), plainData);
+        Path cipherFile = tempDir.resolve("cipher.bin");
+        Path resultFile = tempDir.resolve("result.bin");
+        try (FileChannel in = FileChannel.open(plainFile);
+             FileChannel out = FileChannel.open(cipherFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long written = streaming.encrypt(in, out);
+            Assertions.assertEquals(AesGcmStreaming.getCipherSize(size, SEGMENT_SIZE), written);
+        }
+        // 文件格式与流一致
+        byte[] cipherData = Files.readAllBytes(cipherFile);
+        Assertions.assertArrayEquals(plainData, decrypt(cipherData));
+
+        try (FileChannel in = FileChannel.open(cipherFile);
+             FileChannel out = FileChannel.open(resultFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            Assertions.assertEquals(size, streaming.decrypt(in, out));
+        }
+        Assertions.assertArrayEquals(plainData, Files.readAllBytes(resultFile));
+    }
+
+    @Test
+    public void segmentReaderTest() throws IOException {
+        byte[] plainData = random(10000);
+        Path cipherFile = Files.write(tempDir.resolve("cipher.bin"), encrypt(plainData));
+        try (FileChannel channel = FileChannel.open(cipherFile)) {
+            AesGcmSegmentReader reader = streaming.openSegmentReader(channel);
+            Assertions.assertEquals(plainData.length, reader.getPlainSize());
+            Assertions.assertEquals((plainData.length + PLAIN_SEGMENT_SIZE - 1) / PLAIN_SEGMENT_SIZE,
+                    reader.getSegmentCount());
+
+            // 跨段读取
+            ByteBuffer buffer = ByteBuffer.allocate(1000);
+            Assertions.assertEquals(1000, reader.read(5000, buffer));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(plainData, 5000, 6000), buffer.array());
+
+            // 读到末尾
+            buffer.clear();
+            Assertions.assertEquals(100, reader.read(9900, buffer));
+            Assertions.assertEquals(-1, reader.read(10000, buffer.clear()));
+
+            // 最后一段
+            long lastIndex = reader.getSegmentCount() - 1;
+            ByteBuffer segment = ByteBuffer.allocate(PLAIN_SEGMENT_SIZE);
+            int length = reader.readSegment(lastIndex, segment);
+            Assertions.assertEquals(plainData.length - lastIndex * PLAIN_SEGMENT_SIZE, length);
+            Assertions.assertArrayEquals(Arrays.copyOfRange(plainData, (int) (lastIndex * PLAIN_SEGMENT_SIZE),
+                    plainData.length), Arrays.copyOf(segment.array(), length));
+
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                    () -> reader.readSegment(reader.getSegmentCount(), ByteBuffer.allocate(PLAIN_SEGMENT_SIZE)));
+        }
+    }
+
+    @Test
+    public void segmentReaderTamperedTest() throws IOException {
+        byte[] cipherData = encrypt(random(10000));
+        cipherData[AesGcmStreaming.HEADER_LENGTH + SEGMENT_SIZE * 5 + 1] ^= 1;
+        Path cipherFile = Files.write(tempDir.resolve("cipher.bin"), cipherData);
+        try (FileChannel channel = FileChannel.open(cipherFile)) {
+            AesGcmSegmentReader reader = streaming.openSegmentReader(channel);
+            // 其他段不受影响
+            Assertions.assertEquals(PLAIN_SEGMENT_SIZE, reader.readSegment(4, ByteBuffer.allocate(PLAIN_SEGMENT_SIZE)));
+            IOException exception = Assertions.assertThrows(IOException.class,
+                    () -> reader.readSegment(5, ByteBuffer.allocate(PLAIN_SEGMENT_SIZE)));
+            Assertions.assertInstanceOf(AESException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    public void tooManySegmentsTest() throws IOException {
+        AesGcmStreaming minSegmentStreaming = new AesGcmStreaming(random(32), AesGcmStreaming.MIN_SEGMENT_SIZE);
+        long plainSize = (AesGcmStreaming.MIN_SEGMENT_SIZE - AesGcmContext.TAG_BYTE_LENGTH)
+                * AesGcmStreamHeader.MAX_SEGMENT_COUNT + 1;
+        // 稀疏文件，不实际占用磁盘空间
+        Path plainFile = tempDir.resolve("plain.bin");
+        try (FileChannel channel = FileChannel.open(plainFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.SPARSE)) {
+            channel.write(ByteBuffer.wrap(new byte[1]), plainSize - 1);
+        }
+        try (FileChannel in = FileChannel.open(plainFile);
+             FileChannel out = FileChannel.open(tempDir.resolve("cipher.bin"), StandardOpenOption.CREATE_NEW,
+                     StandardOpenOption.WRITE)) {
+            Assertions.assertThrows(IOException.class, () -> minSegmentStreaming.encrypt(in, out));
+            // 头部也没有写入
+            Assertions.assertEquals(0, out.size());
+        }
+    }
+
+    private byte[] encrypt(byte[] plainData) throws IOException {
+        ByteArrayOutputStream cipher = new ByteArrayOutputStream();
+        try (OutputStream out = streaming.newEncryptingStream(cipher)) {
+            out.write(plainData);
+        }
+        return cipher.toByteArray();
+    }
+
+    private byte[] decrypt(byte[] cipherData) throws IOException {
+        try (InputStream in = streaming.newDecryptingStream(new ByteArrayInputStream(cipherData))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private byte[] random(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ysx.utils.crypto.aes.performance;
+
+import com.ysx.utils.crypto.aes.AESException;
+import com.ysx.utils.crypto.aes.AESUtils;
+import com.ysx.utils.crypto.aes.AesGcmContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 10:30
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description AESUtils 每次创建 Cipher 与 AesGcmContext 复用 GCM 实例的吞吐量对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class AesGcmContextBenchmark {
+
+    /**
+     * 消息大小，单位字节
+     */
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private byte[] secretKey;
+
+    private AesGcmContext context;
+
+    private byte[] iv;
+
+    private byte[] decryptIv;
+
+    private byte[] plainData;
+
+    private byte[] cipherData;
+
+    private ByteBuffer directIn;
+
+    private ByteBuffer directOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AESException {
+        SecureRandom random = new SecureRandom();
+        secretKey = new byte[32];
+        random.nextBytes(secretKey);
+        plainData = new byte[size];
+        random.nextBytes(plainData);
+        iv = new byte[12];
+        decryptIv = new byte[12];
+        random.nextBytes(decryptIv);
+        context = new AesGcmContext(secretKey);
+        cipherData = context.encrypt(decryptIv, plainData);
+        directIn = ByteBuffer.allocateDirect(size).put(plainData).flip();
+        directOut = ByteBuffer.allocateDirect(AesGcmContext.getCipherLength(size));
+    }
+
+    @Benchmark
+    public byte[] aesUtilsEncrypt() throws GeneralSecurityException {
+        return AESUtils.encrypt(secretKey, nextIv(), plainData);
+    }
+
+    @Benchmark
+    public byte[] contextEncrypt() throws AESException {
+        return context.encrypt(nextIv(), plainData);
+    }
+
+    /**
+     * 加密到复用的直接内存缓冲区，不分配输出数组
+     */
+    @Benchmark
+    public int contextEncryptDirectBuffer() throws AESException {
+        return context.encrypt(nextIv(), directIn.rewind(), directOut.clear());
+    }
+
+    @Benchmark
+    public byte[] aesUtilsDecrypt() throws GeneralSecurityException {
+        return AESUtils.decrypt(secretKey, decryptIv, cipherData);
+    }
+
+    @Benchmark
+    public byte[] contextDecrypt() throws AESException {
+        return context.decrypt(decryptIv, cipherData);
+    }
+
+    /**
+     * 加密时每次使用不同的 iv（计数器），与实际使用一致，也避免 GCM 拒绝重复的 iv
+     */
+    private byte[] nextIv() {
+        for (int i = iv.length - 1; i >= 0 && ++iv[i] == 0; i--) {
+            // carry
+        }
+        return iv;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AesGcmContextBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ysx.utils.crypto.aes.performance;
+
+import com.ysx.utils.crypto.aes.AesGcmParallelCipher;
+import com.ysx.utils.crypto.aes.AesGcmStreaming;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 15:30
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description 大文件分段加密：AesGcmStreaming 单线程与 AesGcmParallelCipher 多核并行的耗时对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class AesGcmParallelCipherBenchmark {
+
+    /**
+     * 文件大小，单位 MB
+     */
+    @Param({"64", "1024"})
+    public int sizeMb;
+
+    private AesGcmStreaming streaming;
+
+    private AesGcmParallelCipher parallelCipher;
+
+    private Path in;
+
+    private Path out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SecureRandom random = new SecureRandom();
+        byte[] masterKey = new byte[32];
+        random.nextBytes(masterKey);
+        streaming = new AesGcmStreaming(masterKey);
+        parallelCipher = new AesGcmParallelCipher(masterKey);
+        in = Files.createTempFile("aes-gcm-parallel-benchmark", ".bin");
+        out = Files.createTempFile("aes-gcm-parallel-benchmark", ".enc");
+        byte[] block = new byte[1024 * 1024];
+        try (OutputStream os = Files.newOutputStream(in)) {
+            for (int i = 0; i < sizeMb; i++) {
+                random.nextBytes(block);
+                os.write(block);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(in);
+        Files.deleteIfExists(out);
+    }
+
+    @Benchmark
+    public long streamingEncrypt() throws IOException {
+        try (FileChannel src = FileChannel.open(in);
+             FileChannel dst = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return streaming.encrypt(src, dst);
+        }
+    }
+
+    @Benchmark
+    public long parallelEncrypt() throws IOException {
+        return parallelCipher.encrypt(in, out);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AesGcmParallelCipherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ArchiveFormat 单元测试
+ */
+public class ArchiveFormatTest {
+
+    @Test
+    void testDetectByMagic() {
+        assertEquals(ArchiveFormat.TAR_GZ, detect(0x1F, 0x8B, 0x08));
+        assertEquals(ArchiveFormat.TAR_XZ, detect(0xFD, '7', 'z', 'X', 'Z', 0x00));
+        assertEquals(ArchiveFormat.TAR_BZ2, detect('B', 'Z', 'h', '9'));
+        assertEquals(ArchiveFormat.TAR_ZST, detect(0x28, 0xB5, 0x2F, 0xFD));
+        assertEquals(ArchiveFormat.ZIP, detect('P', 'K', 0x03, 0x04));
+        assertEquals(ArchiveFormat.ZIP, detect('P', 'K', 0x05, 0x06));
+    }
+
+    @Test
+    void testDetectTar() {
+        byte[] head = new byte[512];
+        System.arraycopy("ustar".getBytes(), 0, head, 257, 5);
+        assertEquals(ArchiveFormat.TAR, ArchiveFormat.detect(head, head.length));
+        // 数据不足时无法识别 tar
+        assertNull(ArchiveFormat.detect(head, 260));
+    }
+
+    @Test
+    void testDetectUnknown() {
+        assertNull(detect('h', 'e', 'l', 'l', 'o'));
+        assertNull(detect(0x1F));
+        assertNull(ArchiveFormat.detect(new byte[0], 0));
+    }
+
+    @Test
+    void testTarCodec() {
+        for (ArchiveFormat format : ArchiveFormat.values()) {
+            // 只有 tar 类格式有解压器
+            assertEquals(format != ArchiveFormat.ZIP, format.isTar());
+            assertEquals(format.isTar(), format.getTarCodec() != null);
+        }
+    }
+
+    private ArchiveFormat detect(int... bytes) {
+        byte[] head = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            head[i] = (byte) bytes[i];
+        }
+        return ArchiveFormat.detect(head, head.length);
+    }
+}
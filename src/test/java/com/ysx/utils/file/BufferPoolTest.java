@@ -0,0 +1,51 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BufferPool 单元测试
+ */
+public class BufferPoolTest {
+
+    @Test
+    void testReuse() {
+        BufferPool pool = new BufferPool(1024, 2);
+        ByteBuffer buffer = pool.acquire();
+        assertEquals(1024, buffer.capacity());
+        buffer.position(10).limit(20);
+        pool.release(buffer);
+        assertEquals(1, pool.pooled());
+
+        ByteBuffer reused = pool.acquire();
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1024, reused.limit());
+        assertEquals(0, pool.pooled());
+    }
+
+    @Test
+    void testReleaseWhenFull() {
+        BufferPool pool = new BufferPool(16, 1);
+        pool.release(pool.acquire());
+        pool.release(ByteBuffer.allocate(16));
+        assertEquals(1, pool.pooled());
+    }
+
+    @Test
+    void testReleaseForeignBuffer() {
+        BufferPool pool = new BufferPool(16, 2);
+        pool.release(ByteBuffer.allocate(32));
+        pool.release(ByteBuffer.allocateDirect(16));
+        assertEquals(0, pool.pooled());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BufferPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BufferPool(1, 0));
+    }
+}
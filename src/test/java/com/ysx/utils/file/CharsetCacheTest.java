@@ -0,0 +1,87 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CharsetCache 单元测试
+ */
+public class CharsetCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testGetAndPut() throws IOException {
+        CharsetCache cache = new CharsetCache();
+        Path path = Files.writeString(tempDir.resolve("a.txt"), "a");
+        CharsetCache.Key key = CharsetCache.keyOf(path);
+
+        assertNull(cache.get(key, false));
+        cache.put(key, StandardCharsets.UTF_8, false);
+        assertEquals(StandardCharsets.UTF_8, cache.get(CharsetCache.keyOf(path), false));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testKeyChangesWithSize() throws IOException {
+        Path path = Files.writeString(tempDir.resolve("b.txt"), "b");
+        CharsetCache.Key before = CharsetCache.keyOf(path);
+        Files.writeString(path, "bb");
+        assertNotEquals(before, CharsetCache.keyOf(path));
+    }
+
+    @Test
+    void testLruEviction() throws IOException {
+        CharsetCache cache = new CharsetCache(2);
+        CharsetCache.Key first = CharsetCache.keyOf(Files.writeString(tempDir.resolve("1.txt"), "1"));
+        CharsetCache.Key second = CharsetCache.keyOf(Files.writeString(tempDir.resolve("2.txt"), "2"));
+        CharsetCache.Key third = CharsetCache.keyOf(Files.writeString(tempDir.resolve("3.txt"), "3"));
+
+        cache.put(first, StandardCharsets.UTF_8, false);
+        cache.put(second, Charset.forName("GBK"), false);
+        // 访问 first 后，second 成为最久未使用的条目
+        assertNotNull(cache.get(first, false));
+        cache.put(third, StandardCharsets.UTF_16LE, false);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(second, false));
+        assertNotNull(cache.get(first, false));
+        assertNotNull(cache.get(third, false));
+    }
+
+    @Test
+    void testFullContentResult() throws IOException {
+        CharsetCache cache = new CharsetCache();
+        CharsetCache.Key key = CharsetCache.keyOf(Files.writeString(tempDir.resolve("c.txt"), "c"));
+
+        // 采样检测的结果不能用于需要全部内容检测结果的查询
+        cache.put(key, StandardCharsets.UTF_8, false);
+        assertNull(cache.get(key, true));
+        assertEquals(StandardCharsets.UTF_8, cache.get(key, false));
+
+        // 全部内容检测的结果对两种查询都有效，并且不会被采样检测的结果覆盖
+        cache.put(key, Charset.forName("GBK"), true);
+        cache.put(key, StandardCharsets.UTF_8, false);
+        assertEquals(Charset.forName("GBK"), cache.get(key, true));
+        assertEquals(Charset.forName("GBK"), cache.get(key, false));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testInvalidMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> new CharsetCache(0));
+    }
+}
@@ -1,19 +1,46 @@
 package com.ysx.utils.file;
 
 
+import com.ysx.utils.crypto.dgst.DgstUtils;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 /**
  * @author youngbear
@@ -107,4 +134,477 @@ public class DecompressUtilsTest {
         FileException fileException = Assertions.assertThrows(FileException.class, () -> DecompressUtils.decompressTarGz(srcFile, destDir));
         Assertions.assertEquals("Dest dir is not empty!", fileException.getMessage());
     }
+
+    @Test
+    @DisplayName("decompress .tar.gz in parallel successfully test")
+    public void decompressTarGzParallelSuccessTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("parallel"));
+
+        DecompressUtils.decompressTarGzParallel(archive.toString(), destDir.toString(), 3);
+        assertExtracted(destDir, entries);
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz in parallel with single writer test")
+    public void decompressTarGzParallelSingleWriterTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("single"));
+
+        DecompressUtils.decompressTarGzParallel(archive.toString(), destDir.toString(), 1);
+        assertExtracted(destDir, entries);
+    }
+
+    @Test
+    @DisplayName("decompress corrupted .tar.gz in parallel cleans dest dir test")
+    public void decompressTarGzParallelCorruptedTest() throws IOException {
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), buildEntries());
+        byte[] bytes = Files.readAllBytes(archive);
+        Path truncated = Files.write(tempDir.resolve("truncated.tar.gz"), Arrays.copyOf(bytes, bytes.length / 2));
+        Path destDir = Files.createDirectory(tempDir.resolve("corrupted"));
+
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompressTarGzParallel(truncated.toString(), destDir.toString()));
+        Assertions.assertEquals(0, Objects.requireNonNull(destDir.toFile().list()).length);
+    }
+
+    @Test
+    @DisplayName("compress and decompress .tar.gz round trip test")
+    public void compressTarGzRoundTripTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path srcDir = Files.createDirectory(tempDir.resolve("src"));
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            Path path = srcDir.resolve(entry.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, entry.getValue());
+        }
+        Files.createDirectories(srcDir.resolve("empty/dir"));
+        Path archive = tempDir.resolve("round_trip.tar.gz");
+
+        DecompressUtils.compressTarGz(srcDir.toString(), archive.toString());
+
+        Path parallelDir = Files.createDirectory(tempDir.resolve("parallel"));
+        DecompressUtils.decompressTarGzParallel(archive.toString(), parallelDir.toString(), 2);
+        assertExtracted(parallelDir, entries);
+        Assertions.assertTrue(Files.isDirectory(parallelDir.resolve("empty/dir")));
+
+        // 多成员 gzip 也可以被单线程解压
+        Path sequentialDir = Files.createDirectory(tempDir.resolve("sequential"));
+        DecompressUtils.decompressTarGz(archive.toString(), sequentialDir.toString());
+        assertExtracted(sequentialDir, entries);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("resume .tar.gz extraction after failure test")
+    public void decompressTarGzResumableTest(boolean multiMember) throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("resumable.tar.gz"), entries, multiMember);
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        Path journalFile = ExtractionJournal.journalFileOf(destDir);
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        try (ExtractionJournal journal = ExtractionJournal.create(journalFile, attributes.size(),
+                attributes.lastModifiedTime().toMillis())) {
+            journal.start();
+        }
+
+        // 模拟写入失败：目标文件的位置被一个目录占用
+        Path obstacle = Files.createDirectories(destDir.resolve("large/exact.bin"));
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompressTarGzResumable(archive.toString(), destDir.toString()));
+        ExtractionJournal journal = ExtractionJournal.load(journalFile, attributes.size(),
+                attributes.lastModifiedTime().toMillis());
+        Assertions.assertNotNull(journal);
+        List<ExtractionJournal.Entry> completed = journal.getEntries();
+        // 失败的条目之前的所有条目：dir0/ 以及除 large/exact.bin 之外的所有文件
+        Assertions.assertEquals(entries.size(), completed.size());
+        ExtractionJournal.Entry last = completed.get(completed.size() - 1);
+        Assertions.assertEquals("large/data.bin", last.getName());
+        // 多成员的 gzip 从检查点继续，不需要从头解压
+        Assertions.assertEquals(multiMember, journal.checkpointBefore(last.getNextHeaderOffset())[0] > 0);
+        // 已完成的文件不会再次写入
+        FileTime old = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(destDir.resolve("large/data.bin"), old);
+
+        Files.delete(obstacle);
+        DecompressUtils.decompressTarGzResumable(archive.toString(), destDir.toString());
+        assertExtracted(destDir, entries);
+        Assertions.assertEquals(old, Files.getLastModifiedTime(destDir.resolve("large/data.bin")));
+        Assertions.assertFalse(Files.exists(journalFile));
+    }
+
+    @Test
+    @DisplayName("resume .tar.gz extraction re-extracts damaged files test")
+    public void decompressTarGzResumableDamagedFileTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("resumable.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        Path journalFile = ExtractionJournal.journalFileOf(destDir);
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+
+        // 构造一个所有条目都已完成的日志，其中一个文件在目标目录中被截断
+        try (ExtractionJournal journal = ExtractionJournal.create(journalFile, attributes.size(),
+                attributes.lastModifiedTime().toMillis())) {
+            journal.start();
+        }
+        DecompressUtils.decompressTarGz(archive.toString(), destDir.toString());
+        Files.write(destDir.resolve("large/data.bin"), new byte[10]);
+
+        DecompressUtils.decompressTarGzResumable(archive.toString(), destDir.toString());
+        assertExtracted(destDir, entries);
+        Assertions.assertFalse(Files.exists(journalFile));
+    }
+
+    @Test
+    @DisplayName("resumable extraction into non-empty dir without journal exception test")
+    public void decompressTarGzResumableNotEmptyExceptionTest() throws IOException {
+        Path archive = createTarGz(tempDir.resolve("resumable.tar.gz"), buildEntries());
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        Files.writeString(destDir.resolve("other.txt"), "other");
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompressTarGzResumable(archive.toString(), destDir.toString()));
+        Assertions.assertTrue(Files.exists(destDir.resolve("other.txt")));
+    }
+
+    @Test
+    @DisplayName("compress .tar.gz to existing file exception test")
+    public void compressTarGzDestExistsExceptionTest() throws IOException {
+        Path archive = Files.createFile(tempDir.resolve("exists.tar.gz"));
+        FileException fileException = Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.compressTarGz(tempDir.toString(), archive.toString()));
+        Assertions.assertEquals("Dest file already exists!", fileException.getMessage());
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz from input stream while it arrives test")
+    public void decompressTarGzFromStreamTest() throws Exception {
+        Map<String, byte[]> entries = buildEntries();
+        byte[] archive = Files.readAllBytes(createTarGz(tempDir.resolve("archive.tar.gz"), entries));
+        Path destDir = Files.createDirectory(tempDir.resolve("stream"));
+
+        // 模拟网络下载：另一个线程分小块写入管道
+        PipedOutputStream pos = new PipedOutputStream();
+        PipedInputStream pis = new PipedInputStream(pos, 64 * 1024);
+        Thread downloader = new Thread(() -> {
+            try (pos) {
+                for (int i = 0; i < archive.length; i += 8192) {
+                    pos.write(archive, i, Math.min(8192, archive.length - i));
+                }
+            } catch (IOException e) {
+                LOGGER.error("write pipe exception", e);
+            }
+        });
+        downloader.start();
+        DecompressUtils.decompressTarGz(pis, destDir.toString());
+        downloader.join();
+
+        assertExtracted(destDir, entries);
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz from channel test")
+    public void decompressTarGzFromChannelTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("channel"));
+
+        try (FileChannel channel = FileChannel.open(archive)) {
+            DecompressUtils.decompressTarGz(channel, destDir.toString());
+            // 不会关闭调用者的通道
+            Assertions.assertTrue(channel.isOpen());
+        }
+        assertExtracted(destDir, entries);
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz from input stream in parallel test")
+    public void decompressTarGzParallelFromStreamTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("parallel_stream"));
+
+        try (InputStream is = Files.newInputStream(archive)) {
+            DecompressUtils.decompressTarGzParallel(is, destDir.toString(), 2);
+        }
+        assertExtracted(destDir, entries);
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz from null stream exception test")
+    public void decompressTarGzFromNullStreamExceptionTest() {
+        FileException fileException = Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompressTarGz((InputStream) null, tempDir.toString()));
+        Assertions.assertEquals("Source can not be null!", fileException.getMessage());
+    }
+
+    @Test
+    @DisplayName("extract single entry from .tar.gz test")
+    public void extractEntryTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path srcDir = Files.createDirectory(tempDir.resolve("src"));
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            Path path = srcDir.resolve(entry.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, entry.getValue());
+        }
+        Path archive = tempDir.resolve("index.tar.gz");
+        DecompressUtils.compressTarGz(srcDir.toString(), archive.toString());
+
+        Assertions.assertArrayEquals(entries.get("large/data.bin"),
+                DecompressUtils.extractEntry(archive.toString(), "large/data.bin"));
+        Assertions.assertTrue(Files.exists(TarGzIndex.indexFileOf(archive)));
+
+        Path destFile = tempDir.resolve("out/file3.txt");
+        DecompressUtils.extractEntry(archive.toString(), "dir3/sub/file3.txt", destFile.toString());
+        Assertions.assertArrayEquals(entries.get("dir3/sub/file3.txt"), Files.readAllBytes(destFile));
+
+        Assertions.assertThrows(FileException.class, () -> DecompressUtils.extractEntry(archive.toString(), "missing.txt"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ArchiveFormat.class)
+    @DisplayName("decompress archive by detected format test")
+    public void decompressDetectedFormatTest(ArchiveFormat format) throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        // 扩展名故意不正确，格式只根据魔数识别
+        Path archive = createArchive(tempDir.resolve("archive.bin"), format, entries);
+        Assertions.assertEquals(format, ArchiveFormat.detect(archive));
+
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        DecompressUtils.decompress(archive.toString(), destDir.toString(), 3);
+        assertExtracted(destDir, entries);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ArchiveFormat.class)
+    @DisplayName("decompress archive with directory skeleton created first test")
+    public void decompressWithSkeletonTest(ArchiveFormat format) throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createArchive(tempDir.resolve("archive.bin"), format, entries);
+        if (format == ArchiveFormat.TAR_GZ) {
+            // 有效的索引文件提供条目列表
+            TarGzIndex.loadOrBuild(archive);
+        }
+
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        DecompressUtils.decompress(archive.toString(), destDir.toString(), 3, true);
+        assertExtracted(destDir, entries);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("decompress entry with invalid path cleans target dir test")
+    public void decompressInvalidPathCleanTest(boolean createSkeletonFirst) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>(buildEntries());
+        // 名称中的 NUL 字符不是合法路径，解析时抛出 InvalidPathException（RuntimeException）
+        entries.put("dir/bad\u0000name.txt", "bad".getBytes(StandardCharsets.UTF_8));
+        Path archive = createArchive(tempDir.resolve("archive.zip"), ArchiveFormat.ZIP, entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompress(archive.toString(), destDir.toString(), 3, createSkeletonFirst));
+        try (Stream<Path> files = Files.list(destDir)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ArchiveFormat.class)
+    @DisplayName("decompress entry outside of target dir (zip slip) exception test")
+    public void decompressZipSlipExceptionTest(ArchiveFormat format) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>(buildEntries());
+        entries.put("../evil.txt", "evil".getBytes(StandardCharsets.UTF_8));
+        Path archive = createArchive(tempDir.resolve("archive.bin"), format, entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompress(archive.toString(), destDir.toString(), 3));
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompress(archive.toString(), destDir.toString(), 3, true));
+        if (format == ArchiveFormat.TAR_GZ) {
+            Assertions.assertThrows(FileException.class,
+                    () -> DecompressUtils.decompressTarGz(archive.toString(), destDir.toString()));
+            Assertions.assertThrows(FileException.class,
+                    () -> DecompressUtils.decompressTarGzParallel(archive.toString(), destDir.toString()));
+            Assertions.assertThrows(FileException.class,
+                    () -> DecompressUtils.decompressTarGzResumable(archive.toString(), destDir.toString()));
+        }
+        Assertions.assertFalse(Files.exists(tempDir.resolve("evil.txt")));
+    }
+
+    @Test
+    @DisplayName("decompress zip with failed entry leaves clean target dir test")
+    public void decompressZipFailedEntryCleanTest() throws IOException, InterruptedException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            byte[] data = new byte[64 * 1024];
+            random.nextBytes(data);
+            entries.put("dir" + (i % 5) + "/file" + i + ".bin", data);
+            if (i == 10) {
+                // 目录条目 conflict/ 与文件条目 conflict 冲突，写入文件时失败
+                entries.put("conflict/", new byte[0]);
+                entries.put("conflict", data);
+            }
+        }
+        Path archive = createArchive(tempDir.resolve("archive.zip"), ArchiveFormat.ZIP, entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompress(archive.toString(), destDir.toString(), 4));
+        // 写线程在清理目录之前已经全部停止，之后不会再有文件出现
+        Thread.sleep(100);
+        try (Stream<Path> children = Files.list(destDir)) {
+            Assertions.assertEquals(0, children.count());
+        }
+    }
+
+    @Test
+    @DisplayName("decompress unsupported format exception test")
+    public void decompressUnsupportedFormatExceptionTest() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("plain.txt"), "not an archive");
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        FileException fileException = Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompress(file.toString(), destDir.toString()));
+        Assertions.assertEquals("Unsupported archive format!", fileException.getMessage());
+    }
+
+    private Path createArchive(Path archive, ArchiveFormat format, Map<String, byte[]> entries) throws IOException {
+        if (format == ArchiveFormat.ZIP) {
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    zos.putArchiveEntry(new ZipArchiveEntry(entry.getKey()));
+                    zos.write(entry.getValue());
+                    zos.closeArchiveEntry();
+                }
+            }
+            return archive;
+        }
+        try (OutputStream os = Files.newOutputStream(archive);
+             TarArchiveOutputStream tos = new TarArchiveOutputStream(compress(format, os))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                TarArchiveEntry archiveEntry = new TarArchiveEntry(entry.getKey());
+                archiveEntry.setSize(entry.getValue().length);
+                tos.putArchiveEntry(archiveEntry);
+                tos.write(entry.getValue());
+                tos.closeArchiveEntry();
+            }
+        }
+        return archive;
+    }
+
+    private OutputStream compress(ArchiveFormat format, OutputStream os) throws IOException {
+        switch (format) {
+            case TAR_GZ:
+                return new GzipCompressorOutputStream(os);
+            case TAR_XZ:
+                return new XZCompressorOutputStream(os);
+            case TAR_BZ2:
+                return new BZip2CompressorOutputStream(os);
+            case TAR_ZST:
+                return new ZstdOutputStream(os);
+            default:
+                return os;
+        }
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz with digest manifest test")
+    public void decompressTarGzWithDigestTest() throws Exception {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("digest"));
+
+        Map<String, String> manifest = DecompressUtils.decompressTarGzWithDigest(archive.toString(), destDir.toString(), "SHA-256");
+        Assertions.assertEquals(entries.keySet(), manifest.keySet());
+        for (Map.Entry<String, String> entry : manifest.entrySet()) {
+            // 与解压后再读取文件计算的摘要一致
+            Assertions.assertEquals(DgstUtils.digest(destDir.resolve(entry.getKey()).toFile(), "SHA-256"), entry.getValue());
+        }
+
+        Path verifiedDir = Files.createDirectory(tempDir.resolve("verified"));
+        Assertions.assertEquals(manifest, DecompressUtils.decompressTarGzWithDigest(archive.toString(), verifiedDir.toString(), "SHA-256", manifest));
+        assertExtracted(verifiedDir, entries);
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz with mismatched manifest test")
+    public void decompressTarGzWithDigestMismatchTest() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), entries);
+        Path destDir = Files.createDirectory(tempDir.resolve("digest"));
+        Map<String, String> expected = new LinkedHashMap<>(DecompressUtils.decompressTarGzWithDigest(archive.toString(), destDir.toString(), "SHA3-256"));
+        FileUtils.cleanDirectory(destDir.toString());
+
+        expected.put("empty.txt", "00");
+        expected.put("missing.txt", "00");
+        FileException fileException = Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompressTarGzWithDigest(archive.toString(), destDir.toString(), "SHA3-256", expected));
+        Assertions.assertEquals("Digest mismatch: [empty.txt, missing.txt]", fileException.getMessage());
+        Assertions.assertEquals(0, Objects.requireNonNull(destDir.toFile().list()).length);
+    }
+
+    @Test
+    @DisplayName("decompress .tar.gz with unsupported digest algorithm test")
+    public void decompressTarGzWithUnsupportedDigestTest() throws IOException {
+        Path archive = createTarGz(tempDir.resolve("archive.tar.gz"), buildEntries());
+        Path destDir = Files.createDirectory(tempDir.resolve("digest"));
+        Assertions.assertThrows(FileException.class,
+                () -> DecompressUtils.decompressTarGzWithDigest(archive.toString(), destDir.toString(), "NO-SUCH-DIGEST"));
+    }
+
+    /**
+     * 构造测试用的条目：空文件、小文件、多个数据块的大文件，以及多级目录
+     */
+    private Map<String, byte[]> buildEntries() {
+        Random random = new Random(42);
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("empty.txt", new byte[0]);
+        for (int i = 0; i < 50; i++) {
+            entries.put("dir" + (i % 5) + "/sub/file" + i + ".txt", ("content of file " + i).getBytes());
+        }
+        byte[] large = new byte[3 * 1024 * 1024 + 123];
+        random.nextBytes(large);
+        entries.put("large/data.bin", large);
+        byte[] exact = new byte[1024 * 1024];
+        random.nextBytes(exact);
+        entries.put("large/exact.bin", exact);
+        return entries;
+    }
+
+    private Path createTarGz(Path archive, Map<String, byte[]> entries) throws IOException {
+        return createTarGz(archive, entries, false);
+    }
+
+    /**
+     * 构造 .tar.gz 文件
+     *
+     * @param multiMember 是否使用 ParallelGzipOutputStream 压缩成多个 gzip 成员
+     */
+    private Path createTarGz(Path archive, Map<String, byte[]> entries, boolean multiMember) throws IOException {
+        try (OutputStream os = Files.newOutputStream(archive);
+             TarArchiveOutputStream tos = new TarArchiveOutputStream(multiMember
+                     ? new ParallelGzipOutputStream(os, Deflater.DEFAULT_COMPRESSION, 256 * 1024, 2)
+                     : new GzipCompressorOutputStream(os))) {
+            TarArchiveEntry dirEntry = new TarArchiveEntry("dir0/");
+            tos.putArchiveEntry(dirEntry);
+            tos.closeArchiveEntry();
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                TarArchiveEntry archiveEntry = new TarArchiveEntry(entry.getKey());
+                archiveEntry.setSize(entry.getValue().length);
+                tos.putArchiveEntry(archiveEntry);
+                tos.write(entry.getValue());
+                tos.closeArchiveEntry();
+            }
+        }
+        return archive;
+    }
+
+    private void assertExtracted(Path destDir, Map<String, byte[]> entries) throws IOException {
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            Assertions.assertArrayEquals(entry.getValue(), Files.readAllBytes(destDir.resolve(entry.getKey())), entry.getKey());
+        }
+    }
 }
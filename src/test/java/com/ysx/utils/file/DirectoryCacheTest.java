@@ -0,0 +1,98 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class DirectoryCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("create parent directories once test")
+    public void createParentTest() throws IOException {
+        DirectoryCache directories = new DirectoryCache(tempDir.toString());
+        Path target = directories.resolve("a/b/c/file.txt");
+        directories.createParent(target);
+        Assertions.assertTrue(Files.isDirectory(tempDir.resolve("a/b/c")));
+        // 目标目录 + a + a/b + a/b/c
+        Assertions.assertEquals(4, directories.size());
+
+        directories.createParent(directories.resolve("a/b/c/other.txt"));
+        directories.createParent(directories.resolve("a/b/d/file.txt"));
+        Assertions.assertTrue(Files.isDirectory(tempDir.resolve("a/b/d")));
+        Assertions.assertEquals(5, directories.size());
+    }
+
+    @Test
+    @DisplayName("directory already exists test")
+    public void createExistingDirectoryTest() throws IOException {
+        Files.createDirectories(tempDir.resolve("exists/sub"));
+        DirectoryCache directories = new DirectoryCache(tempDir.toString());
+        directories.createDirectory("exists/sub/");
+        Assertions.assertTrue(Files.isDirectory(tempDir.resolve("exists/sub")));
+    }
+
+    @Test
+    @DisplayName("file in place of directory exception test")
+    public void createDirectoryOverFileExceptionTest() throws IOException {
+        Files.writeString(tempDir.resolve("file"), "content");
+        DirectoryCache directories = new DirectoryCache(tempDir.toString());
+        Assertions.assertThrows(FileAlreadyExistsException.class,
+                () -> directories.createParent(directories.resolve("file/child.txt")));
+    }
+
+    @Test
+    @DisplayName("create directory skeleton in parallel test")
+    public void createSkeletonTest() throws IOException {
+        List<String> entryNames = new ArrayList<>(Arrays.asList("empty/", "top.txt"));
+        for (int i = 0; i < 100; i++) {
+            entryNames.add("dir" + (i % 10) + "/sub" + (i % 3) + "/file" + i + ".txt");
+        }
+        DirectoryCache directories = new DirectoryCache(tempDir.toString());
+        directories.createSkeleton(entryNames, 4);
+
+        Assertions.assertTrue(Files.isDirectory(tempDir.resolve("empty")));
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 3; j++) {
+                Assertions.assertTrue(Files.isDirectory(tempDir.resolve("dir" + i + "/sub" + j)));
+            }
+        }
+        // 目标目录 + empty + 10 个 dirN + 30 个 dirN/subM
+        Assertions.assertEquals(42, directories.size());
+        Assertions.assertFalse(Files.exists(tempDir.resolve("top.txt")));
+
+        // 骨架中的目录已经缓存，不会再次创建
+        directories.createParent(directories.resolve("dir0/sub0/file0.txt"));
+        Assertions.assertEquals(42, directories.size());
+    }
+
+    @Test
+    @DisplayName("entry outside of target dir exception test")
+    public void resolveOutsideExceptionTest() throws IOException {
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        DirectoryCache directories = new DirectoryCache(destDir.toString());
+        Assertions.assertThrows(IOException.class, () -> directories.resolve("../evil.txt"));
+        Assertions.assertThrows(IOException.class, () -> directories.resolve("a/../../evil.txt"));
+        Assertions.assertThrows(IOException.class, () -> directories.resolve("/tmp/evil.txt"));
+        Assertions.assertThrows(IOException.class, () -> directories.createDirectory("../evil/"));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("evil")));
+        // 没有离开目标目录的 .. 是允许的
+        Assertions.assertEquals(destDir.resolve("b.txt"), directories.resolve("a/../b.txt"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class FileUtilsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("clean directory in parallel test")
+    public void cleanDirectoryTest() throws IOException, FileException {
+        Path dir = Files.createDirectory(tempDir.resolve("dir"));
+        int entryCount = createTree(dir);
+
+        AtomicLong lastProgress = new AtomicLong();
+        long deleted = FileUtils.cleanDirectory(dir.toString(), 4, lastProgress::set);
+        Assertions.assertEquals(entryCount, deleted);
+        Assertions.assertEquals(entryCount, lastProgress.get());
+        Assertions.assertTrue(Files.isDirectory(dir));
+        Assertions.assertTrue(isEmpty(dir));
+    }
+
+    @Test
+    @DisplayName("clean directory does not follow symbolic links test")
+    public void cleanDirectoryNotFollowLinksTest() throws IOException, FileException {
+        Path outside = Files.createDirectory(tempDir.resolve("outside"));
+        Path kept = Files.writeString(outside.resolve("kept.txt"), "kept");
+        Path dir = Files.createDirectory(tempDir.resolve("dir"));
+        Files.createSymbolicLink(dir.resolve("link"), outside);
+        Files.createSymbolicLink(dir.resolve("fileLink"), kept);
+
+        Assertions.assertEquals(2, FileUtils.cleanDirectory(dir.toString(), 2, null));
+        Assertions.assertTrue(isEmpty(dir));
+        Assertions.assertEquals("kept", Files.readString(kept));
+    }
+
+    @Test
+    @DisplayName("clean directory in background test")
+    public void cleanDirectoryInBackgroundTest() throws Exception {
+        Path dir = Files.createDirectory(tempDir.resolve("dir"));
+        int entryCount = createTree(dir);
+
+        long deleted = FileUtils.cleanDirectoryInBackground(dir.toString(), 2).get(30, TimeUnit.SECONDS);
+        Assertions.assertEquals(entryCount, deleted);
+        Assertions.assertTrue(isEmpty(dir));
+        // 回收目录已经删除
+        try (Stream<Path> children = Files.list(tempDir)) {
+            Assertions.assertEquals(1, children.count());
+        }
+    }
+
+    @Test
+    @DisplayName("clean directory not exist exception test")
+    public void cleanDirectoryNotExistExceptionTest() {
+        String path = tempDir.resolve("missing").toString();
+        FileException fileException = Assertions.assertThrows(FileException.class,
+                () -> FileUtils.cleanDirectory(path));
+        Assertions.assertEquals("Directory does not exist: " + path, fileException.getMessage());
+        Assertions.assertThrows(FileException.class, () -> FileUtils.cleanDirectoryInBackground(path, 1));
+    }
+
+    /**
+     * 构造多层目录，其中一个目录的文件数超过一批
+     *
+     * @return 文件和目录的总数
+     */
+    private int createTree(Path dir) throws IOException {
+        int count = 0;
+        for (int i = 0; i < 5; i++) {
+            Path sub = Files.createDirectories(dir.resolve("dir" + i).resolve("sub"));
+            count += 2;
+            for (int j = 0; j < 20; j++) {
+                Files.writeString(sub.resolve("file" + j + ".txt"), "content " + j);
+                count++;
+            }
+        }
+        Path flat = Files.createDirectory(dir.resolve("flat"));
+        count++;
+        for (int i = 0; i < 1500; i++) {
+            Files.createFile(flat.resolve("file" + i));
+            count++;
+        }
+        Files.createFile(dir.resolve("top.txt"));
+        return count + 1;
+    }
+
+    private boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> children = Files.list(dir)) {
+            return children.findAny().isEmpty();
+        }
+    }
+}
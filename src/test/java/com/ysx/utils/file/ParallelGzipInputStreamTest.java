@@ -0,0 +1,166 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParallelGzipInputStream 和 ParallelGzipOutputStream 单元测试
+ */
+public class ParallelGzipInputStreamTest {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        byte[] data = randomText(10 * BLOCK_SIZE + 17);
+        byte[] compressed = compress(data);
+
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 3)) {
+            assertArrayEquals(data, gis.readAllBytes());
+            assertTrue(gis.isParallel());
+        }
+    }
+
+    @Test
+    void testOutputIsStandardGzip() throws IOException {
+        byte[] data = randomText(5 * BLOCK_SIZE);
+        // JDK 的 GZIPInputStream 支持多成员
+        try (InputStream gis = new GZIPInputStream(new ByteArrayInputStream(compress(data)))) {
+            assertArrayEquals(data, gis.readAllBytes());
+        }
+    }
+
+    @Test
+    void testEmptyInput() throws IOException {
+        byte[] compressed = compress(new byte[0]);
+        assertTrue(compressed.length > 0);
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2)) {
+            assertEquals(0, gis.readAllBytes().length);
+            assertEquals(-1, gis.read());
+        }
+    }
+
+    @Test
+    void testForeignGzipFallsBack() throws IOException {
+        byte[] data = randomText(3 * BLOCK_SIZE);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // 两个 GZIPOutputStream 生成的成员首尾相连
+        for (int i = 0; i < 2; i++) {
+            try (GZIPOutputStream gos = new GZIPOutputStream(new NonClosingOutputStream(baos))) {
+                gos.write(data);
+            }
+        }
+
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(baos.toByteArray()), 2)) {
+            byte[] result = gis.readAllBytes();
+            assertEquals(2 * data.length, result.length);
+            assertFalse(gis.isParallel());
+        }
+    }
+
+    @Test
+    void testOwnMembersFollowedByForeignMember() throws IOException {
+        byte[] first = randomText(3 * BLOCK_SIZE);
+        byte[] second = randomText(BLOCK_SIZE / 2);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(compress(first));
+        try (GZIPOutputStream gos = new GZIPOutputStream(new NonClosingOutputStream(baos))) {
+            gos.write(second);
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(baos.toByteArray()), 2)) {
+            assertArrayEquals(expected.toByteArray(), gis.readAllBytes());
+        }
+    }
+
+    @Test
+    void testCorruptedMember() throws IOException {
+        byte[] compressed = compress(randomText(2 * BLOCK_SIZE));
+        // 破坏第一个成员的 CRC32
+        int firstMemberLength = (compressed[16] & 0xFF) | (compressed[17] & 0xFF) << 8
+                | (compressed[18] & 0xFF) << 16 | (compressed[19] & 0xFF) << 24;
+        compressed[firstMemberLength - 8] ^= 0x01;
+
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 2)) {
+            assertThrows(IOException.class, gis::readAllBytes);
+        }
+    }
+
+    @Test
+    void testTruncatedMember() throws IOException {
+        byte[] compressed = compress(randomText(2 * BLOCK_SIZE));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 10);
+
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(truncated), 2)) {
+            assertThrows(IOException.class, gis::readAllBytes);
+        }
+    }
+
+    @Test
+    void testCloseWhileMembersInFlight() throws IOException {
+        byte[] data = randomText(20 * BLOCK_SIZE);
+        byte[] compressed = compress(data);
+        // 关闭时仍有解压任务在执行，空闲的解压器由关闭流或者放回的线程释放
+        for (int i = 0; i < 10; i++) {
+            ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 4);
+            byte[] head = gis.readNBytes(BLOCK_SIZE + 1);
+            gis.close();
+            assertArrayEquals(Arrays.copyOf(data, head.length), head);
+            assertThrows(IOException.class, gis::read);
+        }
+        try (ParallelGzipInputStream gis = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), 4)) {
+            assertArrayEquals(data, gis.readAllBytes());
+        }
+    }
+
+    private byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream gos = new ParallelGzipOutputStream(baos, Deflater.DEFAULT_COMPRESSION, BLOCK_SIZE, 3)) {
+            // 分多次写入，覆盖跨数据块的情况
+            int half = data.length / 2;
+            gos.write(data, 0, half);
+            if (data.length > 0) {
+                gos.write(data[half]);
+                gos.write(data, half + 1, data.length - half - 1);
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private byte[] randomText(int length) {
+        Random random = new Random(length);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ysx.utils.file;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TarGzIndex 单元测试
+ */
+public class TarGzIndexTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testBuildAndOpenEntry() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = compressTarGz(entries);
+
+        TarGzIndex index = TarGzIndex.build(archive, TarGzIndex.DEFAULT_CHECKPOINT_SPACING);
+        assertEquals(entries.keySet(), index.getEntryNames());
+        // 约 8MB 数据，每 1MB 一个成员
+        assertTrue(index.getCheckpointCount() > 4, "checkpoints: " + index.getCheckpointCount());
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            assertEquals(entry.getValue().length, index.getEntrySize(entry.getKey()));
+            try (InputStream is = index.openEntry(entry.getKey())) {
+                assertArrayEquals(entry.getValue(), is.readAllBytes(), entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    void testLoadOrBuildWritesIndexFile() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = compressTarGz(entries);
+        Path indexFile = TarGzIndex.indexFileOf(archive);
+
+        TarGzIndex built = TarGzIndex.loadOrBuild(archive);
+        assertTrue(Files.exists(indexFile));
+
+        TarGzIndex loaded = TarGzIndex.load(archive, indexFile);
+        assertTrue(loaded.isValid());
+        assertEquals(built.getEntryNames(), loaded.getEntryNames());
+        assertEquals(built.getCheckpointCount(), loaded.getCheckpointCount());
+        try (InputStream is = loaded.openEntry("data/large1.bin")) {
+            assertArrayEquals(entries.get("data/large1.bin"), is.readAllBytes());
+        }
+    }
+
+    @Test
+    void testStaleIndex() throws IOException, FileException {
+        Path archive = compressTarGz(buildEntries());
+        TarGzIndex index = TarGzIndex.loadOrBuild(archive);
+
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(Files.getLastModifiedTime(archive).toMillis() + 2000));
+        assertFalse(index.isValid());
+        assertThrows(IOException.class, () -> index.openEntry("small/file0.txt"));
+        // 重新建立索引
+        assertTrue(TarGzIndex.loadOrBuild(archive).isValid());
+    }
+
+    @Test
+    void testCorruptIndex() throws IOException, FileException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = compressTarGz(entries);
+        Path indexFile = TarGzIndex.indexFileOf(archive);
+        int checkpointCount = TarGzIndex.loadOrBuild(archive).getCheckpointCount();
+        byte[] valid = Files.readAllBytes(indexFile);
+
+        // 检查点数量为负数
+        corrupt(indexFile, 24, -1);
+        assertThrows(IOException.class, () -> TarGzIndex.load(archive, indexFile));
+        // 条目数量超出文件大小
+        Files.write(indexFile, valid);
+        corrupt(indexFile, 28 + 16 * checkpointCount, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> TarGzIndex.load(archive, indexFile));
+        // 被截断
+        Files.write(indexFile, Arrays.copyOf(valid, valid.length - 5));
+        assertThrows(IOException.class, () -> TarGzIndex.load(archive, indexFile));
+
+        // 目录骨架不可用时按需创建目录，解压不受影响
+        Path destDir = Files.createDirectory(tempDir.resolve("dest"));
+        DecompressUtils.decompress(archive.toString(), destDir.toString(), 2, true);
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            assertArrayEquals(entry.getValue(), Files.readAllBytes(destDir.resolve(entry.getKey())), entry.getKey());
+        }
+
+        // 重新建立并替换索引文件，不留下临时文件
+        TarGzIndex rebuilt = TarGzIndex.loadOrBuild(archive);
+        assertEquals(entries.keySet(), rebuilt.getEntryNames());
+        assertArrayEquals(valid, Files.readAllBytes(indexFile));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.filter(path -> path.getFileName().toString().contains(".tmp-")).count());
+        }
+    }
+
+    @Test
+    void testForeignSingleMemberGzip() throws IOException {
+        Map<String, byte[]> entries = buildEntries();
+        Path archive = tempDir.resolve("foreign.tar.gz");
+        GzipParameters parameters = new GzipParameters();
+        // 带文件名和注释的 gzip 头部
+        parameters.setFileName("foreign.tar");
+        parameters.setComment("created by another tool");
+        try (OutputStream os = Files.newOutputStream(archive);
+             TarArchiveOutputStream tos = new TarArchiveOutputStream(new GzipCompressorOutputStream(os, parameters))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                TarArchiveEntry archiveEntry = new TarArchiveEntry(entry.getKey());
+                archiveEntry.setSize(entry.getValue().length);
+                tos.putArchiveEntry(archiveEntry);
+                tos.write(entry.getValue());
+                tos.closeArchiveEntry();
+            }
+        }
+
+        TarGzIndex index = TarGzIndex.build(archive, TarGzIndex.DEFAULT_CHECKPOINT_SPACING);
+        assertEquals(1, index.getCheckpointCount());
+        try (InputStream is = index.openEntry("small/file7.txt")) {
+            assertArrayEquals(entries.get("small/file7.txt"), is.readAllBytes());
+        }
+    }
+
+    @Test
+    void testEntryNotFound() throws IOException, FileException {
+        TarGzIndex index = TarGzIndex.build(compressTarGz(buildEntries()), TarGzIndex.DEFAULT_CHECKPOINT_SPACING);
+        assertThrows(NoSuchFileException.class, () -> index.openEntry("not/exists.txt"));
+    }
+
+    private static void corrupt(Path indexFile, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), position);
+        }
+    }
+
+    private Map<String, byte[]> buildEntries() {
+        Random random = new Random(7);
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            entries.put("small/file" + i + ".txt", ("small file " + i).getBytes());
+        }
+        for (int i = 0; i < 4; i++) {
+            byte[] large = new byte[2 * 1024 * 1024 + i];
+            random.nextBytes(large);
+            entries.put("data/large" + i + ".bin", large);
+        }
+        entries.put("tail.txt", "the last entry".getBytes());
+        return entries;
+    }
+
+    private Path compressTarGz(Map<String, byte[]> entries) throws IOException, FileException {
+        Path srcDir = tempDir.resolve("src");
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            Path path = srcDir.resolve(entry.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, entry.getValue());
+        }
+        Path archive = tempDir.resolve("archive.tar.gz");
+        DecompressUtils.compressTarGz(srcDir.toString(), archive.toString());
+        return archive;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TextFileBatchReader 单元测试
+ */
+public class TextFileBatchReaderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testReadFilesWithGlob() throws IOException, FileException {
+        createFiles(tempDir, 30);
+        Files.writeString(tempDir.resolve("ignored.dat"), "not matched");
+
+        try (Stream<TextFileResult> results = TextFileBatchReader.readFiles(tempDir, "**.txt")) {
+            Map<String, String> contents = results.collect(Collectors.toMap(
+                    result -> result.getPath().getFileName().toString(), TextFileResult::getContent));
+            assertEquals(30, contents.size());
+            assertEquals("第 0 个文件", contents.get("file_0.txt"));
+            assertEquals("第 1 个文件", contents.get("file_1.txt"));
+            assertEquals("第 29 个文件", contents.get("file_29.txt"));
+        }
+    }
+
+    @Test
+    void testReadFilesCapturesErrors() throws IOException, FileException {
+        createFiles(tempDir, 5);
+        // 指向不存在文件的符号链接，读取失败但不影响其他文件
+        Files.createSymbolicLink(tempDir.resolve("broken.txt"), tempDir.resolve("missing.txt"));
+
+        List<TextFileResult> results = new ArrayList<>();
+        TextFileBatchReader.readFiles(tempDir, null, results::add);
+
+        assertEquals(6, results.size());
+        List<TextFileResult> failures = results.stream().filter(result -> !result.isSuccess()).collect(Collectors.toList());
+        assertEquals(1, failures.size());
+        assertEquals("broken.txt", failures.get(0).getPath().getFileName().toString());
+        assertNotNull(failures.get(0).getError());
+        assertNull(failures.get(0).getContent());
+    }
+
+    @Test
+    void testReadFilesContinuesAfterWalkFailure() throws IOException, FileException {
+        for (int i = 0; i < 10; i++) {
+            createFiles(Files.createDirectory(tempDir.resolve("dir" + i)), 1);
+        }
+
+        // 读取第一个文件后删除其他子目录，遍历到这些子目录时失败，不中断整个批次
+        List<TextFileResult> results = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Stream<TextFileResult> stream = TextFileBatchReader.readFiles(tempDir, null, executor, 1)) {
+            stream.forEach(result -> {
+                if (results.isEmpty()) {
+                    Path current = tempDir.relativize(result.getPath()).getName(0);
+                    for (int i = 0; i < 10; i++) {
+                        Path dir = tempDir.resolve("dir" + i);
+                        if (!dir.getFileName().equals(current)) {
+                            deleteRecursively(dir);
+                        }
+                    }
+                }
+                results.add(result);
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(results.get(0).isSuccess());
+        List<TextFileResult> failures = results.stream().filter(result -> !result.isSuccess()).collect(Collectors.toList());
+        assertFalse(failures.isEmpty());
+        for (TextFileResult failure : failures) {
+            assertTrue(failure.getPath().getFileName().toString().startsWith("dir"), failure.getPath().toString());
+            assertNotNull(failure.getError());
+        }
+    }
+
+    @Test
+    void testReadFilesWithVirtualThreads() throws IOException, FileException {
+        createFiles(tempDir, 20);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             Stream<TextFileResult> results = TextFileBatchReader.readFiles(tempDir, "*.txt", executor, 4)) {
+            // "*.txt" 不匹配子目录中的文件
+            assertEquals(13, results.filter(TextFileResult::isSuccess).count());
+        }
+    }
+
+    @Test
+    void testReadFilesWithInvalidDirectory() {
+        assertThrows(FileException.class, () -> TextFileBatchReader.readFiles(null, null));
+        assertThrows(FileException.class, () -> TextFileBatchReader.readFiles(tempDir.resolve("missing"), null));
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void createFiles(Path dir, int count) throws IOException {
+        Path subDir = Files.createDirectories(dir.resolve("sub"));
+        for (int i = 0; i < count; i++) {
+            Charset charset = i % 2 == 0 ? StandardCharsets.UTF_8 : Charset.forName("GBK");
+            Path parent = i % 3 == 0 ? subDir : dir;
+            Files.write(parent.resolve("file_" + i + ".txt"), ("第 " + i + " 个文件").getBytes(charset));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextFileFollowerTest {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("follow appended text test")
+    public void pollAppendedTest() throws IOException, FileException {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "第一行\n");
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals("第一行\n", follower.poll());
+            Assertions.assertEquals("", follower.poll());
+            append(file, "第二行\n".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertEquals("第二行\n", follower.poll());
+            Assertions.assertEquals(StandardCharsets.UTF_8, follower.getCharset());
+        }
+    }
+
+    @Test
+    @DisplayName("multibyte character split across appends test")
+    public void pollSplitCharacterTest() throws IOException, FileException {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "abc");
+        byte[] chinese = "中文".getBytes(StandardCharsets.UTF_8);
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals("abc", follower.poll());
+            append(file, Arrays.copyOfRange(chinese, 0, 4));
+            Assertions.assertEquals("中", follower.poll());
+            // 剩余的 2 个字节不计入位置
+            Assertions.assertEquals(3 + 3, follower.getPosition());
+            append(file, Arrays.copyOfRange(chinese, 4, chinese.length));
+            Assertions.assertEquals("文", follower.poll());
+            Assertions.assertEquals(3 + chinese.length, follower.getPosition());
+        }
+    }
+
+    @Test
+    @DisplayName("follow GBK file with charset detected once test")
+    public void pollGbkTest() throws IOException, FileException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("这是第").append(i).append("行中文日志\n");
+        }
+        Path file = Files.write(tempDir.resolve("gbk.log"), content.toString().getBytes(GBK));
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals(content.toString(), follower.poll());
+            Assertions.assertEquals(GBK, follower.getCharset());
+            append(file, "追加的内容\n".getBytes(GBK));
+            Assertions.assertEquals("追加的内容\n", follower.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("follow from the end of file test")
+    public void openAtEndTest() throws IOException, FileException {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "old\n");
+        try (TextFileFollower follower = TextFileFollower.open(file, Files.size(file))) {
+            Assertions.assertEquals("", follower.poll());
+            append(file, "new\n".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertEquals("new\n", follower.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("file truncated test")
+    public void truncatedTest() throws IOException, FileException {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "before truncate\n");
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals("before truncate\n", follower.poll());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+            }
+            append(file, "after\n".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertEquals("after\n", follower.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("file rotated test")
+    public void rotatedTest() throws IOException, FileException {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "line 1\n");
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals("line 1\n", follower.poll());
+            append(file, "line 2\n".getBytes(StandardCharsets.UTF_8));
+            Files.move(file, tempDir.resolve("app.log.1"));
+            // 新文件创建之前，先读完旧文件中剩余的内容
+            Assertions.assertEquals("line 2\n", follower.poll());
+            Files.writeString(file, "line 3\n");
+            Assertions.assertEquals("line 3\n", follower.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("file rotated without file key test")
+    public void rotatedWithoutFileKeyTest() throws IOException, FileException {
+        // zip 文件系统不提供 fileKey
+        try (FileSystem zipFs = FileSystems.newFileSystem(tempDir.resolve("logs.zip"), Map.of("create", "true"))) {
+            Path file = Files.writeString(zipFs.getPath("app.log"), "line 1\n");
+            Assertions.assertNull(Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+            try (TextFileFollower follower = TextFileFollower.open(file)) {
+                Assertions.assertEquals("line 1\n", follower.poll());
+                Assertions.assertEquals("", follower.poll());
+                Files.move(file, zipFs.getPath("app.log.1"));
+                Files.writeString(file, "new\n");
+                Assertions.assertEquals("new\n", follower.poll());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("follow UTF-16LE file with BOM test")
+    public void pollUtf16LeBomTest() throws IOException, FileException {
+        byte[] bom = {(byte) 0xFF, (byte) 0xFE};
+        Path file = Files.write(tempDir.resolve("utf16.log"), bom);
+        append(file, "第一行\n".getBytes(StandardCharsets.UTF_16LE));
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals("第一行\n", follower.poll());
+            Assertions.assertEquals(StandardCharsets.UTF_16LE, follower.getCharset());
+            append(file, "第二行\n".getBytes(StandardCharsets.UTF_16LE));
+            Assertions.assertEquals("第二行\n", follower.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("poll complete lines test")
+    public void pollLinesTest() throws IOException, FileException {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "a\r\nb\nparti");
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            Assertions.assertEquals(Arrays.asList("a", "b"), follower.pollLines());
+            append(file, "al\n".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertEquals(List.of("partial"), follower.pollLines());
+            Assertions.assertTrue(follower.pollLines().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("wait for appended text test")
+    public void pollWithTimeoutTest() throws Exception {
+        Path file = tempDir.resolve("app.log");
+        try (TextFileFollower follower = TextFileFollower.open(file)) {
+            // 文件还不存在
+            Assertions.assertEquals("", follower.poll(50, TimeUnit.MILLISECONDS));
+            Thread writer = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                    Files.writeString(file, "created\n");
+                } catch (IOException | InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            writer.start();
+            Assertions.assertEquals("created\n", follower.poll(10, TimeUnit.SECONDS));
+            writer.join();
+        }
+    }
+
+    private void append(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+}
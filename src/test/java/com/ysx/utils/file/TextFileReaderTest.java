@@ -1,12 +1,20 @@
 package com.ysx.utils.file;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +25,9 @@ public class TextFileReaderTest {
 
     private static final String TEST_DIR = "src/test/resources/file/";
 
+    @TempDir
+    private Path tempDir;
+
     @Test
     void testReadUtf8File() throws IOException, FileException {
         String content = "Hello, 你好, 世界！UTF-8 文件测试";
@@ -141,6 +152,64 @@ public class TextFileReaderTest {
         assertEquals(StandardCharsets.UTF_16, TextFileReader.detectCharset(utf16LeBomBytes));
     }
 
+    @Test
+    void testDetectCharsetWithBudget() {
+        byte[] gbkBytes = buildLines("GBK 采样检测，第 %d 行", 20000).getBytes(Charset.forName("GBK"));
+        CharsetDetectResult result = TextFileReader.detectCharset(gbkBytes, TextFileReader.DEFAULT_DETECT_BUDGET);
+        assertEquals(Charset.forName("GBK"), result.getCharset());
+        assertTrue(result.getConfidence() >= 0.95);
+
+        byte[] utf8Bytes = buildLines("UTF-8 采样检测，第 %d 行", 20000).getBytes(StandardCharsets.UTF_8);
+        result = TextFileReader.detectCharset(utf8Bytes, 1000);
+        assertEquals(StandardCharsets.UTF_8, result.getCharset());
+        assertEquals(1.0, result.getConfidence());
+
+        byte[] utf16Bytes = buildLines("UTF-16LE sample %d", 20000).getBytes(StandardCharsets.UTF_16LE);
+        assertEquals(StandardCharsets.UTF_16LE, TextFileReader.detectCharset(utf16Bytes, 1000).getCharset());
+
+        byte[] bomBytes = new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'H', 'e', 'l', 'l', 'o'};
+        result = TextFileReader.detectCharset(bomBytes, TextFileReader.DEFAULT_DETECT_BUDGET);
+        assertEquals(StandardCharsets.UTF_8, result.getCharset());
+        assertEquals(1.0, result.getConfidence());
+    }
+
+    @Test
+    void testDetectCharsetSamplesTail() throws IOException, FileException {
+        // 文件头部全是 ASCII，只有尾部有 GBK 字符，只采样头部会误判为 UTF-8
+        String content = buildLines("ascii line %d", 50000) + buildLines("尾部的中文内容 %d", 100);
+        Path path = tempDir.resolve("ascii_head_gbk_tail.txt");
+        Files.write(path, content.getBytes(Charset.forName("GBK")));
+
+        CharsetDetectResult result = TextFileReader.detectCharset(path, TextFileReader.DEFAULT_DETECT_BUDGET);
+        assertEquals(Charset.forName("GBK"), result.getCharset());
+        assertEquals(content, readAll(path));
+    }
+
+    @Test
+    void testDetectCharsetParallel() {
+        // 结果必须与顺序检测一致
+        String[] charsetNames = {"GBK", "Big5", "Shift_JIS", "EUC-KR"};
+        String[] formats = {"并行检测编码，第 %d 行", "平行偵測編碼，第 %d 行", "並列でエンコーディングを検出する %d", "병렬 인코딩 감지 %d"};
+        for (int i = 0; i < charsetNames.length; i++) {
+            byte[] bytes = buildLines(formats[i], 50000).getBytes(Charset.forName(charsetNames[i]));
+            assertEquals(TextFileReader.detectCharset(bytes), TextFileReader.detectCharsetParallel(bytes), charsetNames[i]);
+        }
+
+        byte[] random = new byte[2 * 1024 * 1024];
+        new java.util.Random(20261018L).nextBytes(random);
+        assertEquals(TextFileReader.detectCharset(random), TextFileReader.detectCharsetParallel(random));
+
+        // 小数据和 Unicode 编码直接返回
+        assertEquals(StandardCharsets.UTF_8, TextFileReader.detectCharsetParallel(null));
+        byte[] utf8Bytes = buildLines("UTF-8 并行检测 %d", 50000).getBytes(StandardCharsets.UTF_8);
+        assertEquals(StandardCharsets.UTF_8, TextFileReader.detectCharsetParallel(utf8Bytes));
+    }
+
+    @Test
+    void testDetectCharsetWithInvalidBudget() {
+        assertThrows(IllegalArgumentException.class, () -> TextFileReader.detectCharset(new byte[10], 0));
+    }
+
     @Test
     void testReadEmptyFile() throws IOException, FileException {
         File testFile = createTempFile("empty_test.txt", "", StandardCharsets.UTF_8);
@@ -166,6 +235,205 @@ public class TextFileReaderTest {
         }
     }
 
+    @Test
+    void testOpenLargeUtf8File() throws IOException, FileException {
+        // 每行都包含多字节字符，保证字符会跨越采样和缓冲区的边界
+        String content = buildLines("UTF-8 流式读取，第 %d 行", 20000);
+        Path path = tempDir.resolve("large_utf8.txt");
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(content, readAll(path));
+    }
+
+    @Test
+    void testOpenLargeGbkFile() throws IOException, FileException {
+        String content = buildLines("GBK 流式读取，第 %d 行", 20000);
+        Path path = tempDir.resolve("large_gbk.txt");
+        Files.write(path, content.getBytes(Charset.forName("GBK")));
+
+        assertEquals(content, readAll(path));
+    }
+
+    @Test
+    void testOpenUtf8WithBom() throws IOException, FileException {
+        String content = "UTF-8 with BOM 流式读取";
+        Path path = createTempFileWithBom("utf8_bom_stream_test.txt", content, StandardCharsets.UTF_8).toPath();
+
+        try {
+            assertEquals(content, readAll(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testLines() throws IOException, FileException {
+        String content = buildLines("第 %d 行", 1000);
+        Path path = tempDir.resolve("lines.txt");
+        Files.write(path, content.getBytes(Charset.forName("GBK")));
+
+        try (Stream<String> lines = TextFileReader.lines(path)) {
+            List<String> result = lines.collect(Collectors.toList());
+            assertEquals(1000, result.size());
+            assertEquals("第 0 行", result.get(0));
+            assertEquals("第 999 行", result.get(999));
+        }
+    }
+
+    @Test
+    void testReadFileByPath() throws IOException, FileException {
+        // 小文件读入堆内存，大文件使用内存映射
+        String small = buildLines("小文件，第 %d 行", 100);
+        Path smallPath = tempDir.resolve("small_gbk.txt");
+        Files.write(smallPath, small.getBytes(Charset.forName("GBK")));
+        assertEquals(small, TextFileReader.readFile(smallPath));
+
+        String large = buildLines("大文件，第 %d 行", 100000);
+        Path largePath = tempDir.resolve("large_gbk.txt");
+        Files.write(largePath, large.getBytes(Charset.forName("GBK")));
+        assertEquals(large, TextFileReader.readFile(largePath));
+    }
+
+    @Test
+    void testReadFileMapped() throws IOException, FileException {
+        String content = "内存映射读取 UTF-8 with BOM";
+        Path path = createTempFileWithBom("utf8_bom_mapped_test.txt", content, StandardCharsets.UTF_8).toPath();
+
+        try {
+            assertEquals(content, TextFileReader.readFileMapped(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testReadUtf16WithBom() throws IOException, FileException {
+        // BOM 决定字节序，跳过 BOM 之后仍然按 BOM 的字节序解码
+        String small = buildLines("hello UTF-16 第 %d 行", 100);
+        String large = buildLines("hello UTF-16 第 %d 行", 100000);
+        byte[][] boms = {{(byte) 0xFF, (byte) 0xFE}, {(byte) 0xFE, (byte) 0xFF}};
+        Charset[] charsets = {StandardCharsets.UTF_16LE, StandardCharsets.UTF_16BE};
+        for (int i = 0; i < boms.length; i++) {
+            for (String content : new String[]{small, large}) {
+                Path path = tempDir.resolve("utf16_bom_" + i + ".txt");
+                byte[] bytes = content.getBytes(charsets[i]);
+                byte[] withBom = new byte[bytes.length + 2];
+                System.arraycopy(boms[i], 0, withBom, 0, 2);
+                System.arraycopy(bytes, 0, withBom, 2, bytes.length);
+                Files.write(path, withBom);
+
+                assertEquals(content, TextFileReader.readFile(path.toFile()), charsets[i].name());
+                assertEquals(content, TextFileReader.readFile(path), charsets[i].name());
+                assertEquals(content, TextFileReader.readFileMapped(path), charsets[i].name());
+                assertEquals(content, readAll(path), charsets[i].name());
+                try (Stream<String> lines = TextFileReader.lines(path)) {
+                    assertEquals(content.lines().collect(Collectors.toList()), lines.collect(Collectors.toList()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCharsetCache() throws IOException, FileException {
+        CharsetCache cache = new CharsetCache();
+        TextFileReader.setCharsetCache(cache);
+        try {
+            String content = buildLines("编码缓存，第 %d 行", 100);
+            Path path = tempDir.resolve("cached_gbk.txt");
+            Files.write(path, content.getBytes(Charset.forName("GBK")));
+
+            assertEquals(content, TextFileReader.readFile(path));
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+
+            // 文件未变化，三种读取方式都命中缓存
+            assertEquals(content, TextFileReader.readFile(path.toFile()));
+            assertEquals(content, TextFileReader.readFileMapped(path));
+            assertEquals(content, readAll(path));
+            assertEquals(3, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(1, cache.size());
+        } finally {
+            TextFileReader.setCharsetCache(null);
+        }
+    }
+
+    @Test
+    void testCharsetCacheSampledResultNotUsedForFullDetection() throws IOException, FileException {
+        CharsetCache cache = new CharsetCache();
+        TextFileReader.setCharsetCache(cache);
+        try {
+            // 采样窗口中只有 UTF-8，窗口之外有一段 GBK，采样检测与全部内容检测的结果不同
+            Charset gbk = Charset.forName("GBK");
+            byte[] head = buildLines("采样窗口中的 UTF-8 内容 %d", 5000).getBytes(StandardCharsets.UTF_8);
+            byte[] gbkBytes = "窗口之外的 GBK 内容\n".getBytes(gbk);
+            byte[] tail = buildLines("采样窗口中的 UTF-8 内容 %d", 20000).getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[head.length + gbkBytes.length + tail.length];
+            System.arraycopy(head, 0, bytes, 0, head.length);
+            System.arraycopy(gbkBytes, 0, bytes, head.length, gbkBytes.length);
+            System.arraycopy(tail, 0, bytes, head.length + gbkBytes.length, tail.length);
+            Path path = Files.write(tempDir.resolve("mixed.txt"), bytes);
+            String fullDetected = new String(bytes, TextFileReader.detectCharset(bytes));
+
+            readAll(path);
+            assertEquals(1, cache.getMissCount());
+            // readFile(File) 不使用 open 采样检测的结果
+            assertEquals(fullDetected, TextFileReader.readFile(path.toFile()));
+            assertEquals(2, cache.getMissCount());
+            assertEquals(fullDetected, TextFileReader.readFile(path.toFile()));
+            assertEquals(1, cache.getHitCount());
+        } finally {
+            TextFileReader.setCharsetCache(null);
+        }
+    }
+
+    @Test
+    void testCharsetCacheInvalidatedByModification() throws IOException, FileException {
+        CharsetCache cache = new CharsetCache();
+        TextFileReader.setCharsetCache(cache);
+        try {
+            Path path = tempDir.resolve("modified.txt");
+            String gbkContent = "修改前为 GBK 编码";
+            Files.write(path, gbkContent.getBytes(Charset.forName("GBK")));
+            assertEquals(gbkContent, readAll(path));
+
+            // 修改内容和编码后，文件标识发生变化，重新检测编码
+            String utf8Content = "修改后为 UTF-8 编码，内容更长一些";
+            Files.write(path, utf8Content.getBytes(StandardCharsets.UTF_8));
+            assertEquals(utf8Content, readAll(path));
+            assertEquals(0, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+        } finally {
+            TextFileReader.setCharsetCache(null);
+        }
+    }
+
+    @Test
+    void testOpenWithNullPath() {
+        assertThrows(FileException.class, () -> TextFileReader.open(null));
+    }
+
+    @Test
+    void testOpenWithNonExistentPath() {
+        assertThrows(FileException.class, () -> TextFileReader.open(tempDir.resolve("non_existent_file.txt")));
+    }
+
+    private String readAll(Path path) throws IOException, FileException {
+        try (Reader reader = TextFileReader.open(path)) {
+            StringWriter writer = new StringWriter();
+            reader.transferTo(writer);
+            return writer.toString();
+        }
+    }
+
+    private String buildLines(String format, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(String.format(format, i)).append('\n');
+        }
+        return sb.toString();
+    }
+
     private File createTempFile(String fileName, String content, Charset charset) throws IOException {
         File dir = new File(TEST_DIR);
         if (!dir.exists()) {
@@ -0,0 +1,197 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextFileTranscoderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {"GBK|转换编码，第 %d 行", "UTF-16LE|转换编码，第 %d 行"})
+    @DisplayName("transcode detected charset to UTF-8 test")
+    public void transcodeToUtf8Test(String charsetName, String format) throws IOException, FileException {
+        Charset charset = Charset.forName(charsetName);
+        // 超过缓冲区大小，覆盖多字节字符被拆分在两次读取之间的情况
+        String content = createContent(format, 20_000);
+        Path in = Files.write(tempDir.resolve("in.txt"), content.getBytes(charset));
+        Path out = tempDir.resolve("out.txt");
+
+        Assertions.assertEquals(charset, TextFileTranscoder.transcode(in, out, StandardCharsets.UTF_8));
+        Assertions.assertEquals(content, Files.readString(out, StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {"Big5|平行偵測編碼，第 %d 行", "Shift_JIS|並列でエンコーディングを検出する %d"})
+    @DisplayName("transcode with given source charset test")
+    public void transcodeWithSourceCharsetTest(String charsetName, String format) throws IOException, FileException {
+        Charset charset = Charset.forName(charsetName);
+        String content = createContent(format, 20_000);
+        Path in = Files.write(tempDir.resolve("in.txt"), content.getBytes(charset));
+        Path out = tempDir.resolve("out.txt");
+
+        Assertions.assertEquals(charset, TextFileTranscoder.transcode(in, charset, out, StandardCharsets.UTF_8));
+        Assertions.assertEquals(content, Files.readString(out, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("transcode in place and skip BOM test")
+    public void transcodeInPlaceTest() throws IOException, FileException {
+        String content = createContent("中文内容 %d", 1000);
+        byte[] text = content.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[text.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, bytes, 3, text.length);
+        Path file = Files.write(tempDir.resolve("bom.txt"), bytes);
+
+        Assertions.assertEquals(StandardCharsets.UTF_8, TextFileTranscoder.transcode(file, file, StandardCharsets.UTF_8));
+        Assertions.assertArrayEquals(text, Files.readAllBytes(file));
+
+        Charset gbk = Charset.forName("GBK");
+        TextFileTranscoder.transcode(file, file, gbk);
+        Assertions.assertArrayEquals(content.getBytes(gbk), Files.readAllBytes(file));
+        assertNoTempFiles();
+    }
+
+    @Test
+    @DisplayName("UTF-16LE with BOM test")
+    public void transcodeUtf16LeBomTest() throws IOException, FileException {
+        String content = createContent("hello world 中文内容 %d", 1000);
+        byte[] text = content.getBytes(StandardCharsets.UTF_16LE);
+        byte[] bytes = new byte[text.length + 2];
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xFE;
+        System.arraycopy(text, 0, bytes, 2, text.length);
+        Path file = Files.write(tempDir.resolve("utf16le_bom.txt"), bytes);
+
+        // UTF-16 到 UTF-16：按 BOM 的字节序解码，由编码器重新写出 BOM
+        Path utf16 = tempDir.resolve("utf16.txt");
+        Assertions.assertEquals(StandardCharsets.UTF_16LE,
+                TextFileTranscoder.transcode(file, StandardCharsets.UTF_16, utf16, StandardCharsets.UTF_16));
+        Assertions.assertArrayEquals(content.getBytes(StandardCharsets.UTF_16), Files.readAllBytes(utf16));
+        Assertions.assertEquals(StandardCharsets.UTF_16BE,
+                TextFileTranscoder.transcode(utf16, utf16, StandardCharsets.UTF_16));
+        Assertions.assertArrayEquals(content.getBytes(StandardCharsets.UTF_16), Files.readAllBytes(utf16));
+        // 字节序相同时直接复制，只去掉 BOM
+        Path utf16le = tempDir.resolve("utf16le.txt");
+        TextFileTranscoder.transcode(file, utf16le, StandardCharsets.UTF_16LE);
+        Assertions.assertArrayEquals(text, Files.readAllBytes(utf16le));
+
+        // 原地转换
+        Assertions.assertEquals(StandardCharsets.UTF_16LE,
+                TextFileTranscoder.transcode(file, file, StandardCharsets.UTF_8));
+        Assertions.assertEquals(content, Files.readString(file));
+        assertNoTempFiles();
+    }
+
+    @Test
+    @DisplayName("detected charset does not match file content test")
+    public void misdetectedCharsetTest() throws IOException {
+        // 采样窗口（头部、中部、尾部）中只有 UTF-8，窗口之外有一段 GBK，检测结果为 UTF-8
+        Charset gbk = Charset.forName("GBK");
+        byte[] head = createContent("采样窗口中的 UTF-8 内容 %d", 5000).getBytes(StandardCharsets.UTF_8);
+        byte[] gbkBytes = "窗口之外的 GBK 内容\n".getBytes(gbk);
+        byte[] tail = createContent("采样窗口中的 UTF-8 内容 %d", 20000).getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[head.length + gbkBytes.length + tail.length];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        System.arraycopy(gbkBytes, 0, bytes, head.length, gbkBytes.length);
+        System.arraycopy(tail, 0, bytes, head.length + gbkBytes.length, tail.length);
+        Path file = Files.write(tempDir.resolve("mixed.txt"), bytes);
+
+        // 原地转换失败时原文件保持不变，不会写入 U+FFFD
+        FileException exception = Assertions.assertThrows(FileException.class,
+                () -> TextFileTranscoder.transcode(file, file, StandardCharsets.UTF_16LE));
+        Assertions.assertTrue(exception.getMessage().contains("UTF-8"), exception.getMessage());
+        Assertions.assertArrayEquals(bytes, Files.readAllBytes(file));
+
+        // 指定的源编码与文件内容不符
+        Path gbkFile = Files.write(tempDir.resolve("gbk.txt"), createContent("中文内容 %d", 100).getBytes(gbk));
+        Path out = tempDir.resolve("out.txt");
+        Assertions.assertThrows(FileException.class,
+                () -> TextFileTranscoder.transcode(gbkFile, StandardCharsets.UTF_8, out, StandardCharsets.UTF_16LE));
+        Assertions.assertFalse(Files.exists(out));
+        assertNoTempFiles();
+    }
+
+    @Test
+    @DisplayName("unmappable character test")
+    public void unmappableTest() throws IOException {
+        Path in = Files.writeString(tempDir.resolve("in.txt"), "中文 and emoji 😀");
+        Path out = Files.writeString(tempDir.resolve("out.txt"), "old");
+
+        Assertions.assertThrows(FileException.class,
+                () -> TextFileTranscoder.transcode(in, out, StandardCharsets.ISO_8859_1));
+        // 失败时目标文件保持不变，临时文件被删除
+        Assertions.assertEquals("old", Files.readString(out));
+        assertNoTempFiles();
+    }
+
+    @Test
+    @DisplayName("transcode files concurrently test")
+    public void transcodeFilesTest() throws IOException, FileException {
+        Charset gbk = Charset.forName("GBK");
+        Path srcDir = Files.createDirectories(tempDir.resolve("src/sub"));
+        for (int i = 0; i < 10; i++) {
+            Files.write(srcDir.resolve("file" + i + ".txt"), createContent("第" + i + "个文件，第 %d 行", 100).getBytes(gbk));
+        }
+        Files.writeString(srcDir.resolve("skip.log"), "not matched");
+        Path destDir = tempDir.resolve("dest");
+
+        Map<Path, FileException> failures = TextFileTranscoder.transcodeFiles(tempDir.resolve("src"), "**.txt",
+                destDir, StandardCharsets.UTF_8);
+        Assertions.assertTrue(failures.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(createContent("第" + i + "个文件，第 %d 行", 100),
+                    Files.readString(destDir.resolve("sub/file" + i + ".txt"), StandardCharsets.UTF_8));
+        }
+        Assertions.assertFalse(Files.exists(destDir.resolve("sub/skip.log")));
+    }
+
+    @Test
+    @DisplayName("failed file does not stop the batch test")
+    public void transcodeFilesFailureTest() throws IOException, FileException {
+        Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+        Path good = Files.writeString(srcDir.resolve("good.txt"), "plain text");
+        Path bad = Files.writeString(srcDir.resolve("bad.txt"), "中文");
+
+        Map<Path, FileException> failures = TextFileTranscoder.transcodeFiles(srcDir, null, srcDir,
+                StandardCharsets.US_ASCII);
+        Assertions.assertEquals(1, failures.size());
+        Assertions.assertTrue(failures.containsKey(bad));
+        Assertions.assertEquals("plain text", Files.readString(good, StandardCharsets.US_ASCII));
+    }
+
+    private String createContent(String format, int lines) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            content.append(String.format(format, i)).append('\n');
+        }
+        return content.toString();
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertTrue(files.noneMatch(path -> path.getFileName().toString().contains(".transcode-")));
+        }
+    }
+}
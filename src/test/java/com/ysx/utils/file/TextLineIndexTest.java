@@ -0,0 +1,180 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026/10/18
+ */
+public class TextLineIndexTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "GBK", "UTF-16LE", "UTF-16BE"})
+    @DisplayName("read lines by line number test")
+    public void readLinesTest(String charsetName) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        List<String> lines = createLines(1000);
+        Path file = Files.write(tempDir.resolve("lines.txt"), (String.join("\n", lines) + "\n").getBytes(charset));
+
+        TextLineIndex index = TextLineIndex.build(file);
+        Assertions.assertEquals(charset, index.getCharset());
+        Assertions.assertEquals(lines.size(), index.getLineCount());
+        for (int i : new int[]{0, 1, 63, 64, 65, 500, 999}) {
+            Assertions.assertEquals(lines.get(i), index.readLine(i));
+        }
+        Assertions.assertEquals(lines.subList(60, 130), index.readLines(60, 70));
+        // 超过文件末尾时只返回到最后一行
+        Assertions.assertEquals(lines.subList(990, 1000), index.readLines(990, 100));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> index.readLine(1000));
+    }
+
+    @Test
+    @DisplayName("line terminators and BOM test")
+    public void lineTerminatorTest() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] text = "第一行\r\n\r\n第三行\n最后一行没有换行符".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(bom, bom.length + text.length);
+        System.arraycopy(text, 0, bytes, bom.length, text.length);
+        Path file = Files.write(tempDir.resolve("bom.txt"), bytes);
+
+        TextLineIndex index = TextLineIndex.build(file);
+        Assertions.assertEquals(4, index.getLineCount());
+        Assertions.assertEquals(3, index.getLineOffset(0));
+        Assertions.assertEquals(Arrays.asList("第一行", "", "第三行", "最后一行没有换行符"), index.readLines(0, 4));
+    }
+
+    @Test
+    @DisplayName("UTF-16 with little endian BOM test")
+    public void utf16BomTest() throws IOException {
+        byte[] text = "a\nb\n中文".getBytes(StandardCharsets.UTF_16LE);
+        byte[] bytes = new byte[text.length + 2];
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xFE;
+        System.arraycopy(text, 0, bytes, 2, text.length);
+        Path file = Files.write(tempDir.resolve("utf16.txt"), bytes);
+
+        TextLineIndex index = TextLineIndex.build(file);
+        Assertions.assertEquals(StandardCharsets.UTF_16LE, index.getCharset());
+        Assertions.assertEquals(Arrays.asList("a", "b", "中文"), index.readLines(0, 3));
+    }
+
+    @Test
+    @DisplayName("empty file and long lines test")
+    public void edgeCaseTest() throws IOException {
+        Path empty = Files.createFile(tempDir.resolve("empty.txt"));
+        Assertions.assertEquals(0, TextLineIndex.build(empty).getLineCount());
+
+        // 行长超过一个 varint 字节，并且不是 8 字节对齐
+        String longLine = "x".repeat(100_003);
+        Path file = Files.writeString(tempDir.resolve("long.txt"), longLine + "\n" + longLine + "\n\n");
+        TextLineIndex index = TextLineIndex.build(file);
+        Assertions.assertEquals(3, index.getLineCount());
+        Assertions.assertEquals(longLine, index.readLine(1));
+        Assertions.assertEquals("", index.readLine(2));
+    }
+
+    @Test
+    @DisplayName("persist and reload index test")
+    public void loadOrBuildTest() throws IOException {
+        List<String> lines = createLines(300);
+        Path file = Files.writeString(tempDir.resolve("data.csv"), String.join("\n", lines));
+        Path indexFile = TextLineIndex.indexFileOf(file);
+
+        TextLineIndex built = TextLineIndex.loadOrBuild(file);
+        Assertions.assertTrue(Files.exists(indexFile));
+        TextLineIndex loaded = TextLineIndex.load(file, indexFile);
+        Assertions.assertTrue(loaded.isValid());
+        Assertions.assertEquals(built.getLineCount(), loaded.getLineCount());
+        Assertions.assertEquals(built.getCharset(), loaded.getCharset());
+        for (int i = 0; i < lines.size(); i++) {
+            Assertions.assertEquals(built.getLineOffset(i), loaded.getLineOffset(i));
+        }
+        Assertions.assertEquals(lines.get(299), loaded.readLine(299));
+    }
+
+    @Test
+    @DisplayName("stale index is rebuilt test")
+    public void staleIndexTest() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("data.csv"), "a\nb\n");
+        TextLineIndex index = TextLineIndex.loadOrBuild(file);
+        Files.writeString(file, "c\n", StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        Assertions.assertFalse(index.isValid());
+        Assertions.assertThrows(IOException.class, () -> index.readLine(0));
+        TextLineIndex rebuilt = TextLineIndex.loadOrBuild(file);
+        Assertions.assertEquals(3, rebuilt.getLineCount());
+        Assertions.assertEquals("c", rebuilt.readLine(2));
+        Assertions.assertTrue(TextLineIndex.load(file, TextLineIndex.indexFileOf(file)).isValid());
+    }
+
+    @Test
+    @DisplayName("corrupt index is rebuilt test")
+    public void corruptIndexTest() throws IOException {
+        List<String> lines = createLines(300);
+        Path file = Files.writeString(tempDir.resolve("data.csv"), String.join("\n", lines));
+        Path indexFile = TextLineIndex.indexFileOf(file);
+        TextLineIndex built = TextLineIndex.loadOrBuild(file);
+        Assertions.assertEquals(StandardCharsets.UTF_8, built.getCharset());
+        byte[] valid = Files.readAllBytes(indexFile);
+        // 魔数、版本号、文件大小、修改时间之后是字符集名称 "UTF-8"、行数、块数
+        int charsetPosition = 24 + Short.BYTES;
+        int blockCountPosition = charsetPosition + 5 + Long.BYTES;
+        int deltaLengthPosition = blockCountPosition + Integer.BYTES + 5 * (Long.BYTES + Integer.BYTES);
+
+        assertCorrupt(file, indexFile, valid, charsetPosition, "XXX-9".getBytes(StandardCharsets.US_ASCII));
+        assertCorrupt(file, indexFile, valid, blockCountPosition, ByteBuffer.allocate(4).putInt(-1).array());
+        assertCorrupt(file, indexFile, valid, deltaLengthPosition, ByteBuffer.allocate(4).putInt(-1).array());
+        assertCorrupt(file, indexFile, valid, deltaLengthPosition,
+                ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).array());
+        Files.write(indexFile, Arrays.copyOf(valid, valid.length - 3));
+        Assertions.assertThrows(IOException.class, () -> TextLineIndex.load(file, indexFile));
+
+        // 重新建立并替换索引文件，不留下临时文件
+        TextLineIndex rebuilt = TextLineIndex.loadOrBuild(file);
+        Assertions.assertEquals(lines.get(299), rebuilt.readLine(299));
+        Assertions.assertArrayEquals(valid, Files.readAllBytes(indexFile));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(List.of(file, indexFile), files.sorted().collect(Collectors.toList()));
+        }
+    }
+
+    private static void assertCorrupt(Path file, Path indexFile, byte[] valid, int position, byte[] value)
+            throws IOException {
+        byte[] corrupt = valid.clone();
+        System.arraycopy(value, 0, corrupt, position, value.length);
+        Files.write(indexFile, corrupt);
+        Assertions.assertThrows(IOException.class, () -> TextLineIndex.load(file, indexFile));
+    }
+
+    private List<String> createLines(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add("第" + i + "行,value-" + i + ",中文内容" + "abc".repeat(i % 7));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ysx.utils.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Utf8Validator 单元测试
+ */
+public class Utf8ValidatorTest {
+
+    @Test
+    void testValidInput() {
+        assertTrue(Utf8Validator.isValid(new byte[0]));
+        assertTrue(Utf8Validator.isValid("Hello, ASCII only content 12345".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(Utf8Validator.isValid("Hello, 你好, 世界！こんにちは 안녕하세요 😀".getBytes(StandardCharsets.UTF_8)));
+        // 边界字符: U+0080, U+07FF, U+0800, U+FFFF, U+10000, U+10FFFF
+        assertTrue(Utf8Validator.isValid(new String(new int[]{0x80, 0x7FF, 0x800, 0xFFFF, 0x10000, 0x10FFFF}, 0, 6)
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testRejectOverlong() {
+        // "/" 的超长编码
+        assertFalse(Utf8Validator.isValid(bytes(0xC0, 0xAF)));
+        assertFalse(Utf8Validator.isValid(bytes(0xC1, 0xBF)));
+        assertFalse(Utf8Validator.isValid(bytes(0xE0, 0x80, 0xAF)));
+        assertFalse(Utf8Validator.isValid(bytes(0xF0, 0x80, 0x80, 0xAF)));
+    }
+
+    @Test
+    void testRejectSurrogateAndOutOfRange() {
+        // U+D800, U+DFFF
+        assertFalse(Utf8Validator.isValid(bytes(0xED, 0xA0, 0x80)));
+        assertFalse(Utf8Validator.isValid(bytes(0xED, 0xBF, 0xBF)));
+        // U+110000
+        assertFalse(Utf8Validator.isValid(bytes(0xF4, 0x90, 0x80, 0x80)));
+        assertFalse(Utf8Validator.isValid(bytes(0xF5, 0x80, 0x80, 0x80)));
+    }
+
+    @Test
+    void testRejectTruncatedAndBadContinuation() {
+        assertFalse(Utf8Validator.isValid(bytes('a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 0xE4, 0xBD)));
+        assertFalse(Utf8Validator.isValid(bytes(0xE4, 0x41, 0xA0)));
+        assertFalse(Utf8Validator.isValid(bytes(0x80)));
+    }
+
+    @Test
+    void testRange() {
+        byte[] bytes = "你好".getBytes(StandardCharsets.UTF_8);
+        assertTrue(Utf8Validator.isValid(bytes, 3, 3));
+        assertFalse(Utf8Validator.isValid(bytes, 1, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> Utf8Validator.isValid(bytes, 4, 3));
+    }
+
+    @Test
+    void testByteBuffer() {
+        byte[] bytes = "ASCII prefix, 然后是中文内容, and ASCII suffix".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertTrue(Utf8Validator.isValid(direct));
+        assertEquals(0, direct.position());
+        assertTrue(Utf8Validator.isValid(ByteBuffer.wrap(bytes)));
+
+        direct.limit(direct.limit() - 1);
+        assertTrue(Utf8Validator.isValid(direct));
+        direct.put(20, (byte) 0xFF);
+        assertFalse(Utf8Validator.isValid(direct));
+    }
+
+    @Test
+    void testIncompleteTailLength() {
+        byte[] bytes = "ab你".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0, Utf8Validator.incompleteTailLength(bytes, 0, bytes.length));
+        assertEquals(2, Utf8Validator.incompleteTailLength(bytes, 0, bytes.length - 1));
+        assertEquals(1, Utf8Validator.incompleteTailLength(bytes, 0, bytes.length - 2));
+        assertEquals(0, Utf8Validator.incompleteTailLength(bytes, 0, bytes.length - 3));
+        // 非法的前缀不算被截断
+        assertEquals(0, Utf8Validator.incompleteTailLength(bytes(0xED, 0xA0), 0, 2));
+    }
+
+    @Test
+    void testAgreesWithJdkDecoder() {
+        Random random = new Random(20261018L);
+        int[] alphabet = {'a', 0x80, 0x9F, 0xA0, 0xBF, 0xC0, 0xC2, 0xDF, 0xE0, 0xE4, 0xED, 0xEF, 0xF0, 0xF4, 0xF5, 0xFF};
+        for (int n = 0; n < 20000; n++) {
+            byte[] bytes = new byte[random.nextInt(24)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) alphabet[random.nextInt(alphabet.length)];
+            }
+            assertEquals(isValidByJdk(bytes), Utf8Validator.isValid(bytes), () -> java.util.Arrays.toString(bytes));
+        }
+    }
+
+    private static boolean isValidByJdk(byte[] bytes) {
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes));
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ysx.utils.file.performance;
+
+import com.ysx.utils.file.ArchiveFormat;
+import com.ysx.utils.file.DecompressUtils;
+import com.ysx.utils.file.FileException;
+import com.ysx.utils.file.ParallelGzipOutputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 17:40
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description 不同归档格式的解压性能对比，归档内容模拟常见的部署包：大量小的配置文件加上少量较大的 jar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class ArchiveFormatBenchmark {
+
+    private static final String[] WORDS = {"server", "port", "timeout", "enabled", "true", "false", "name",
+            "value", "=", "\n", "#", "com.ysx.utils", "1024", "jdbc:mysql://localhost:3306/db", "."};
+
+    @Param({"TAR_GZ", "TAR_XZ", "TAR_BZ2", "TAR_ZST", "ZIP"})
+    public ArchiveFormat format;
+
+    private Path archive;
+
+    private Path destDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        archive = Files.createTempFile("archive-format-benchmark", ".bin");
+        Random random = new Random(42);
+        if (format == ArchiveFormat.ZIP) {
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive)) {
+                for (int i = 0; i < 2000; i++) {
+                    zos.putArchiveEntry(new ZipArchiveEntry(entryName(i)));
+                    zos.write(content(random, i));
+                    zos.closeArchiveEntry();
+                }
+            }
+            return;
+        }
+        try (OutputStream os = Files.newOutputStream(archive);
+             TarArchiveOutputStream tos = new TarArchiveOutputStream(compress(os))) {
+            for (int i = 0; i < 2000; i++) {
+                byte[] content = content(random, i);
+                TarArchiveEntry entry = new TarArchiveEntry(entryName(i));
+                entry.setSize(content.length);
+                tos.putArchiveEntry(entry);
+                tos.write(content);
+                tos.closeArchiveEntry();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createDestDir() throws IOException {
+        destDir = Files.createTempDirectory("archive-format-benchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDestDir() throws IOException {
+        FileUtils.deleteDirectory(destDir.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+
+    @Benchmark
+    public void decompress() throws FileException {
+        DecompressUtils.decompress(archive.toString(), destDir.toString());
+    }
+
+    private OutputStream compress(OutputStream os) throws IOException {
+        switch (format) {
+            case TAR_GZ:
+                return new ParallelGzipOutputStream(os);
+            case TAR_XZ:
+                return new XZCompressorOutputStream(os);
+            case TAR_BZ2:
+                return new BZip2CompressorOutputStream(os);
+            case TAR_ZST:
+                return new ZstdOutputStream(os);
+            default:
+                return os;
+        }
+    }
+
+    private static String entryName(int i) {
+        return i % 100 == 0 ? "lib/lib" + i + ".jar" : "conf/module" + (i % 50) + "/app" + i + ".properties";
+    }
+
+    /**
+     * 每 100 个文件中有一个 1MB 的随机内容（模拟已压缩的 jar），其余为 4KB 左右的文本配置
+     */
+    private static byte[] content(Random random, int i) {
+        if (i % 100 == 0) {
+            byte[] jar = new byte[1024 * 1024];
+            random.nextBytes(jar);
+            return jar;
+        }
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 4096) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString().getBytes();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ArchiveFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
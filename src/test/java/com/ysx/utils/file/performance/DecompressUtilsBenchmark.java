@@ -0,0 +1,128 @@
+package com.ysx.utils.file.performance;
+
+import com.ysx.utils.file.DecompressUtils;
+import com.ysx.utils.file.FileException;
+import com.ysx.utils.file.ParallelGzipOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 15:20
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description DecompressUtils 单线程解压与流水线并发解压的性能对比，以及并行 gzip 格式对解压的影响
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class DecompressUtilsBenchmark {
+
+    /**
+     * 归档中的文件数
+     */
+    @Param({"10000"})
+    public int fileCount;
+
+    /**
+     * 每个文件的大小，单位 KB
+     */
+    @Param({"4", "256"})
+    public int fileSizeKb;
+
+    /**
+     * 归档的 gzip 格式：gzip 为单成员，parallelGzip 为 ParallelGzipOutputStream 生成的多成员
+     */
+    @Param({"gzip", "parallelGzip"})
+    public String format;
+
+    private Path archive;
+
+    private Path destDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        archive = Files.createTempFile("decompress-benchmark", ".tar.gz");
+        Random random = new Random(42);
+        byte[] content = new byte[fileSizeKb * 1024];
+        try (OutputStream os = Files.newOutputStream(archive);
+             TarArchiveOutputStream tos = new TarArchiveOutputStream("gzip".equals(format)
+                     ? new GzipCompressorOutputStream(os) : new ParallelGzipOutputStream(os))) {
+            for (int i = 0; i < fileCount; i++) {
+                // 一半随机字节、一半重复字节，压缩率接近常见的部署包
+                random.nextBytes(content);
+                for (int j = content.length / 2; j < content.length; j++) {
+                    content[j] = (byte) ('a' + j % 26);
+                }
+                TarArchiveEntry entry = new TarArchiveEntry("dir" + (i % 100) + "/file" + i + ".bin");
+                entry.setSize(content.length);
+                tos.putArchiveEntry(entry);
+                tos.write(content);
+                tos.closeArchiveEntry();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createDestDir() throws IOException {
+        destDir = Files.createTempDirectory("decompress-benchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDestDir() throws IOException {
+        FileUtils.deleteDirectory(destDir.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+
+    @Benchmark
+    public void sequential() throws FileException {
+        DecompressUtils.decompressTarGz(archive.toString(), destDir.toString());
+    }
+
+    @Benchmark
+    public void parallel() throws FileException {
+        DecompressUtils.decompressTarGzParallel(archive.toString(), destDir.toString());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // GCProfiler 输出 gc.alloc.rate.norm（每次解压分配的字节数）和 gc.count，用于观察解压过程的 GC 压力
+        new Runner(new OptionsBuilder()
+                .include(DecompressUtilsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ysx.utils.file.performance;
+
+import com.ysx.utils.file.FileException;
+import com.ysx.utils.file.TextFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 10:12
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description TextFileReader 堆内存读取与内存映射读取的性能对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class TextFileReaderBenchmark {
+
+    private static final byte[] LINE = "2026-10-18 10:12:00 INFO 文本文件读取性能测试 text file reader benchmark\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 文件大小，单位 MB
+     */
+    @Param({"1", "100", "1024"})
+    public int sizeMb;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("text-file-reader-benchmark", ".txt");
+        long size = sizeMb * 1024L * 1024L;
+        try (OutputStream os = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += LINE.length) {
+                os.write(LINE);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String heapRead() throws FileException {
+        return TextFileReader.readFile(file.toFile());
+    }
+
+    @Benchmark
+    public String mappedRead() throws FileException {
+        return TextFileReader.readFileMapped(file);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextFileReaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ysx.utils.file.performance;
+
+import com.ysx.utils.file.FileException;
+import com.ysx.utils.file.TextFileReader;
+import com.ysx.utils.file.TextFileTranscoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 16:40
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description GBK 文件转换为 UTF-8：读取为 String 再写出，与 TextFileTranscoder 流式转换的性能对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class TextFileTranscoderBenchmark {
+
+    private static final byte[] LINE = "2026-10-18 16:40:00 INFO 编码转换性能测试 charset transcoding benchmark\n"
+            .getBytes(Charset.forName("GBK"));
+
+    /**
+     * 文件大小，单位 MB
+     */
+    @Param({"1", "100", "1024"})
+    public int sizeMb;
+
+    private Path in;
+
+    private Path out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        in = Files.createTempFile("text-file-transcoder-benchmark", ".txt");
+        out = Files.createTempFile("text-file-transcoder-benchmark", ".out");
+        long size = sizeMb * 1024L * 1024L;
+        try (OutputStream os = Files.newOutputStream(in)) {
+            for (long written = 0; written < size; written += LINE.length) {
+                os.write(LINE);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(in);
+        Files.deleteIfExists(out);
+    }
+
+    @Benchmark
+    public Path readStringAndWrite() throws FileException, IOException {
+        return Files.writeString(out, TextFileReader.readFile(in), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Charset streamingTranscode() throws FileException {
+        return TextFileTranscoder.transcode(in, out, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextFileTranscoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
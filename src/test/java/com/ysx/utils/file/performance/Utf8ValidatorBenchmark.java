@@ -0,0 +1,129 @@
+package com.ysx.utils.file.performance;
+
+import com.ysx.utils.file.Utf8Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author youngbear
+ * @email youngbear@aliyun.com
+ * @date 2026-10-18 14:05
+ * @blog <a href="https://blog.csdn.net/next_second">...</a>
+ * @github <a href="https://github.com/YoungBear">...</a>
+ * @description UTF-8 校验性能测试：逐字节校验 vs 8 字节一组跳过 ASCII
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class Utf8ValidatorBenchmark {
+
+    private static final int SIZE = 1024 * 1024;
+
+    @Param({"ascii", "cjk", "mixed"})
+    public String content;
+
+    private byte[] bytes;
+
+    private ByteBuffer directBuffer;
+
+    @Setup
+    public void setUp() {
+        String line;
+        switch (content) {
+            case "ascii":
+                line = "2026-10-18 14:05:00 INFO com.ysx.utils.file.TextFileReader - read file successfully\n";
+                break;
+            case "cjk":
+                line = "文本文件读取工具类，支持自动识别编码格式。日本語のテキスト。한국어 텍스트。\n";
+                break;
+            default:
+                line = "2026-10-18 14:05:00 INFO 读取文件成功 read file successfully, 文件名: test.log\n";
+                break;
+        }
+        byte[] lineBytes = line.getBytes(StandardCharsets.UTF_8);
+        int count = SIZE / lineBytes.length;
+        bytes = new byte[count * lineBytes.length];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(lineBytes, 0, bytes, i * lineBytes.length, lineBytes.length);
+        }
+        directBuffer = ByteBuffer.allocateDirect(bytes.length);
+        directBuffer.put(bytes).flip();
+    }
+
+    @Benchmark
+    public boolean byteAtATime() {
+        return isValidUtf8ByteAtATime(bytes);
+    }
+
+    @Benchmark
+    public boolean wordAtATime() {
+        return Utf8Validator.isValid(bytes);
+    }
+
+    @Benchmark
+    public boolean wordAtATimeDirectBuffer() {
+        return Utf8Validator.isValid(directBuffer);
+    }
+
+    /**
+     * TextFileReader 原来的逐字节校验实现，作为对照
+     *
+     * @param bytes 字节数组
+     * @return 是否为有效的 UTF-8
+     */
+    private static boolean isValidUtf8ByteAtATime(byte[] bytes) {
+        int i = 0;
+        while (i < bytes.length) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                i++;
+                continue;
+            }
+            int charLength;
+            if ((b & 0xE0) == 0xC0) {
+                charLength = 2;
+            } else if ((b & 0xF0) == 0xE0) {
+                charLength = 3;
+            } else if ((b & 0xF8) == 0xF0) {
+                charLength = 4;
+            } else {
+                return false;
+            }
+            if (i + charLength > bytes.length) {
+                return false;
+            }
+            for (int j = 1; j < charLength; j++) {
+                if ((bytes[i + j] & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            i += charLength;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Utf8ValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}